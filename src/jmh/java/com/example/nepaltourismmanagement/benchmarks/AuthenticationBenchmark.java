@@ -0,0 +1,73 @@
+package com.example.nepaltourismmanagement.benchmarks;
+
+import com.example.nepaltourismmanagement.models.User;
+import com.example.nepaltourismmanagement.repository.DataGenerator;
+import com.example.nepaltourismmanagement.utils.DatabaseUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of login and of the duplicate-username check made
+ * during registration. SampleTime prints a histogram and percentiles; the
+ * 1K and 1M user runs should look the same, since both go through the
+ * username index. Hashing is cut to one iteration and the login cache is off,
+ * so the lookup itself is measured; PasswordHashingBenchmark covers the rest.
+ *
+ *   java -jar target/benchmarks.jar AuthenticationBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Dtourism.password.iterations=1", "-Dtourism.auth.cache.size=0"})
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int users;
+
+    private PrintStream console;
+    private DatabaseUtil db;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        System.setProperty(DatabaseUtil.DATA_DIR_PROPERTY,
+                BenchmarkData.generate("users-" + users, users, 1000).toString());
+        db = DatabaseUtil.getInstance();
+
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public User loginSuccess() {
+        int user = ThreadLocalRandom.current().nextInt(users);
+        return db.authenticateUser(DataGenerator.username(user), DataGenerator.password(user));
+    }
+
+    @Benchmark
+    public User loginWrongPassword() {
+        int user = ThreadLocalRandom.current().nextInt(users);
+        return db.authenticateUser(DataGenerator.username(user), "wrong-password");
+    }
+
+    @Benchmark
+    public User loginUnknownUser() {
+        return db.authenticateUser("nobody" + ThreadLocalRandom.current().nextInt(users), "whatever");
+    }
+
+    @Benchmark
+    public boolean usernameTaken() {
+        return db.isUserExists(DataGenerator.username(ThreadLocalRandom.current().nextInt(users * 2)));
+    }
+}
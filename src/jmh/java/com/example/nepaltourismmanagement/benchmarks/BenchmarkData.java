@@ -0,0 +1,56 @@
+package com.example.nepaltourismmanagement.benchmarks;
+
+import com.example.nepaltourismmanagement.models.UserRole;
+import com.example.nepaltourismmanagement.repository.DataGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark data directories, generated by {@link DataGenerator} with a fixed seed.
+ * The generator derives ids from record numbers, so benchmarks pick valid ids
+ * through {@link #GENERATOR} without reading the files back.
+ */
+public class BenchmarkData {
+
+    public static final DataGenerator GENERATOR = new DataGenerator(DataGenerator.DEFAULT_SEED);
+
+    /**
+     * Generate a data directory under java.io.tmpdir/tourism-bench, wiping whatever a previous run left there
+     * @param name Name of the directory
+     * @param users Number of users
+     * @param bookings Number of bookings
+     * @return The directory
+     */
+    public static Path generate(String name, int users, int bookings) throws IOException {
+        Path dir = Paths.get(System.getProperty("java.io.tmpdir"), "tourism-bench", name);
+        if (Files.exists(dir)) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+
+        GENERATOR.generate(dir, users, bookings);
+        return dir;
+    }
+
+    // A random user that is a tourist
+    public static int randomTourist(int users) {
+        int user = ThreadLocalRandom.current().nextInt(users);
+        while (DataGenerator.roleOf(user) != UserRole.TOURIST) {
+            user = (user + 1) % users;
+        }
+        return user;
+    }
+
+    // A random user that is a guide
+    public static int randomGuide(int users) {
+        int guides = (users + DataGenerator.GUIDE_EVERY - 1) / DataGenerator.GUIDE_EVERY;
+        return ThreadLocalRandom.current().nextInt(guides) * DataGenerator.GUIDE_EVERY;
+    }
+}
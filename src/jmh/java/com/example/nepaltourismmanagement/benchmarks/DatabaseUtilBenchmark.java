@@ -0,0 +1,220 @@
+package com.example.nepaltourismmanagement.benchmarks;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
+import com.example.nepaltourismmanagement.models.User;
+import com.example.nepaltourismmanagement.models.UserRole;
+import com.example.nepaltourismmanagement.repository.DataGenerator;
+import com.example.nepaltourismmanagement.utils.DatabaseUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput and latency percentiles (SampleTime reports p50 to p99.99) of the
+ * DatabaseUtil store operations, against generated data directories with 1K,
+ * 100K and 1M users and as many bookings.
+ *
+ * Each fork regenerates the data directory for its size with DataGenerator
+ * and a fixed seed (tourism-bench/rows-N under java.io.tmpdir) and points DatabaseUtil at it
+ * through the tourism.data.dir property, so the singleton must not be shared
+ * between data sets: keep forks enabled (no -f 0). The directory is left in
+ * place afterwards, because a background compaction may still be writing to it.
+ *
+ *   mvn -P benchmarks package
+ *   java -jar target/benchmarks.jar DatabaseUtilBenchmark -p rows=100000
+ *
+ * Console and error output of DatabaseUtil is discarded during measurement; building
+ * the messages is still measured. Password hashing runs at a cost of one
+ * iteration so the store itself is measured; PasswordHashingBenchmark covers
+ * the hashing cost.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-Dtourism.password.iterations=1"})
+@State(Scope.Benchmark)
+public class DatabaseUtilBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private static final DataGenerator DATA = BenchmarkData.GENERATOR;
+
+    private Path dataDir;
+    private PrintStream console;
+    private PrintStream errors;
+    private DatabaseUtil db;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = BenchmarkData.generate("rows-" + rows, rows, rows);
+
+        System.setProperty(DatabaseUtil.DATA_DIR_PROPERTY, dataDir.toString());
+        db = DatabaseUtil.getInstance();
+
+        console = System.out;
+        errors = System.err;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+        System.setErr(errors);
+    }
+
+    @Benchmark
+    public User authenticateUser() {
+        int user = ThreadLocalRandom.current().nextInt(rows);
+        return db.authenticateUser(DataGenerator.username(user), DataGenerator.password(user));
+    }
+
+    @Benchmark
+    public List<Booking> getAllBookings() {
+        return db.getAllBookings();
+    }
+
+    @Benchmark
+    public List<Booking> getBookingsForTourist() {
+        return db.getBookingsForTourist(DATA.userId(BenchmarkData.randomTourist(rows)));
+    }
+
+    @Benchmark
+    public List<Booking> getAssignedTripsForGuide() {
+        return db.getAssignedTripsForGuide(DATA.guideId(BenchmarkData.randomGuide(rows)));
+    }
+
+    @Benchmark
+    public boolean createBooking() {
+        return db.createBooking(newBooking());
+    }
+
+    private Booking newBooking() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Booking booking = new Booking();
+        booking.setTrekId(DATA.trekId(random.nextInt(DATA.getTrekCount())));
+        booking.setTouristId(DATA.userId(BenchmarkData.randomTourist(rows)));
+        booking.setBookingDate("2025-10-01");
+        booking.setBookingStatus(BookingStatus.PENDING);
+        booking.setPrice(1500.0);
+        booking.setDuration(12);
+        return booking;
+    }
+
+    /**
+     * Legal status changes for updateBookingStatus, rebuilt before every
+     * iteration from the bookings that are still pending or confirmed: first
+     * every pending booking is confirmed, then every confirmed one is completed
+     * or cancelled. New pending bookings top the pool up, and it grows to twice
+     * what the previous iteration used, so after warmup no call runs out of
+     * changes and none is refused. Preparing the pool is not measured.
+     */
+    @State(Scope.Benchmark)
+    public static class StatusChanges {
+        private int size = 20_000;
+        String[] bookingIds;
+        BookingStatus[] statuses;
+        final AtomicInteger next = new AtomicInteger();
+
+        @Setup(Level.Iteration)
+        public void prepare(DatabaseUtilBenchmark benchmark) {
+            size = Math.max(size, 2 * next.get());
+
+            List<String> pending = new ArrayList<>();
+            List<String> confirmed = new ArrayList<>();
+            for (Booking booking : benchmark.db.getAllBookings()) {
+                if (booking.getBookingStatus() == BookingStatus.PENDING) {
+                    pending.add(booking.getId());
+                } else if (booking.getBookingStatus() == BookingStatus.CONFIRMED) {
+                    confirmed.add(booking.getId());
+                }
+            }
+            while (2 * pending.size() + confirmed.size() < size) {
+                Booking booking = benchmark.newBooking();
+                benchmark.db.createBooking(booking);
+                pending.add(booking.getId());
+            }
+
+            // All confirmations come before the final changes, so each booking takes its steps in order
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            bookingIds = new String[2 * pending.size() + confirmed.size()];
+            statuses = new BookingStatus[bookingIds.length];
+            int change = 0;
+            for (String id : pending) {
+                bookingIds[change] = id;
+                statuses[change++] = BookingStatus.CONFIRMED;
+            }
+            for (List<String> ids : List.of(pending, confirmed)) {
+                for (String id : ids) {
+                    bookingIds[change] = id;
+                    statuses[change++] = random.nextInt(4) == 0 ? BookingStatus.CANCELLED : BookingStatus.COMPLETED;
+                }
+            }
+            next.set(0);
+        }
+    }
+
+    @Benchmark
+    public boolean updateBookingStatus(StatusChanges changes) {
+        int change = changes.next.getAndIncrement() % changes.bookingIds.length;
+        return db.updateBookingStatus(changes.bookingIds[change], changes.statuses[change]);
+    }
+
+    @Benchmark
+    public Map<String, Object> getBookingStatistics() {
+        return db.getBookingStatistics();
+    }
+
+    // Hash joins of bookings with treks behind the admin charts
+    @Benchmark
+    public Map<String, Double> getRevenueByTrekDifficulty() {
+        return db.getRevenueByTrekDifficulty();
+    }
+
+    @Benchmark
+    public Map<String, Integer> getBookingCountsByTrekRegion() {
+        return db.getBookingCountsByTrekRegion();
+    }
+
+    /**
+     * A freshly registered tourist for each deleteUser call, so every call
+     * deletes a user that exists. Registration is not measured.
+     */
+    @State(Scope.Thread)
+    public static class UserToDelete {
+        String userId;
+
+        @Setup(Level.Invocation)
+        public void register(DatabaseUtilBenchmark benchmark) {
+            User user = new User();
+            user.setUsername("delete-" + System.nanoTime());
+            user.setPassword("secret");
+            user.setFullName("Delete Me");
+            user.setEmail("delete@example.com");
+            user.setContactNumber("9800000000");
+            user.setNationality("Nepal");
+            user.setPassportNumber("P0");
+            user.setEmergencyContact("None");
+            user.setRole(UserRole.TOURIST);
+            benchmark.db.registerUser(user);
+            userId = user.getId();
+        }
+    }
+
+    @Benchmark
+    public boolean deleteUser(UserToDelete target) {
+        return db.deleteUser(target.userId);
+    }
+}
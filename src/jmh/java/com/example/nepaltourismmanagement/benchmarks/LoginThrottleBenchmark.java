@@ -0,0 +1,60 @@
+package com.example.nepaltourismmanagement.benchmarks;
+
+import com.example.nepaltourismmanagement.utils.LoginThrottle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Failed-login bookkeeping under a credential-stuffing burst: eight threads
+ * checking and counting attempts against random usernames from one source,
+ * all sharing one LoginThrottle. Usernames are built up front, so only the
+ * throttle is measured.
+ *
+ *   java -jar target/benchmarks.jar LoginThrottleBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LoginThrottleBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int usernames;
+
+    private static final String SOURCE = "session:bench";
+
+    private String[] names;
+    private LoginThrottle throttle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        names = new String[usernames];
+        for (int i = 0; i < usernames; i++) {
+            names[i] = "user" + i;
+        }
+        // No source limit, so the attempts keep reaching the username counters
+        throttle = new LoginThrottle(5, 0, 900, 4096);
+    }
+
+    // A rejected attempt: the check the login screen makes before the user store
+    @Benchmark
+    public long check() {
+        return throttle.retryAfterMillis(names[ThreadLocalRandom.current().nextInt(usernames)], SOURCE);
+    }
+
+    // A failed attempt: the check, then counting the failure
+    @Benchmark
+    public long checkAndRecordFailure() {
+        String username = names[ThreadLocalRandom.current().nextInt(usernames)];
+        long retryAfter = throttle.retryAfterMillis(username, SOURCE);
+        if (retryAfter == 0) {
+            throttle.recordFailure(username, SOURCE);
+        }
+        return retryAfter;
+    }
+}
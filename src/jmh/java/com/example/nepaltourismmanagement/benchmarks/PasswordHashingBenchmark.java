@@ -0,0 +1,61 @@
+package com.example.nepaltourismmanagement.benchmarks;
+
+import com.example.nepaltourismmanagement.utils.AuthCache;
+import com.example.nepaltourismmanagement.utils.Pbkdf2PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins and registrations per second per core at each PBKDF2 cost, and the
+ * cost of a login answered by the AuthCache. Runs on one thread, so each score
+ * is the rate one core sustains; add -t N to see how it scales.
+ *
+ *   java -jar target/benchmarks.jar PasswordHashingBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class PasswordHashingBenchmark {
+
+    @Param({"10000", "60000", "120000", "310000", "600000"})
+    public int iterations;
+
+    private static final String USERNAME = "user1";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private Pbkdf2PasswordHasher hasher;
+    private AuthCache authCache;
+    private String storedHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hasher = new Pbkdf2PasswordHasher(iterations);
+        storedHash = hasher.hash(PASSWORD);
+
+        authCache = new AuthCache(1024, 300);
+        authCache.remember(USERNAME, PASSWORD, storedHash);
+    }
+
+    // What a registration pays
+    @Benchmark
+    public String hash() {
+        return hasher.hash(PASSWORD);
+    }
+
+    // What a login pays when it misses the cache
+    @Benchmark
+    public boolean verify() {
+        return hasher.verify(PASSWORD, storedHash);
+    }
+
+    // What a repeated login pays within the cache lifetime
+    @Benchmark
+    public boolean cachedLogin() {
+        return authCache.isVerified(USERNAME, PASSWORD, storedHash);
+    }
+}
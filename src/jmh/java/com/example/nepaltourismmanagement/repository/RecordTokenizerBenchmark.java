@@ -0,0 +1,105 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.benchmarks.BenchmarkData;
+import com.example.nepaltourismmanagement.models.Booking;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a 1M-row bookings file and scanning a 1M-row users file for one
+ * username, with {@link RecordTokenizer} against the line.split("\\|") parsing
+ * it replaced. The files are generated once per fork and read into memory, so
+ * only parsing is measured.
+ *
+ *   java -jar target/benchmarks.jar RecordTokenizerBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class RecordTokenizerBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    private String[] bookingLines;
+    private String[] userLines;
+    private String wantedUsername;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path dir = BenchmarkData.generate("tokenizer-" + rows, rows, rows);
+        bookingLines = readLines(dir.resolve("bookings.txt"));
+        userLines = readLines(dir.resolve("users.txt"));
+        wantedUsername = DataGenerator.username(rows - 1);
+    }
+
+    private static String[] readLines(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        return lines.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public void parseBookingsWithSplit(Blackhole blackhole) {
+        for (String line : bookingLines) {
+            blackhole.consume(parseWithSplit(line.split("\\|")));
+        }
+    }
+
+    @Benchmark
+    public void parseBookingsWithTokenizer(Blackhole blackhole) {
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        for (String line : bookingLines) {
+            blackhole.consume(BookingRepository.parseFields(tokenizer.reset(line)));
+        }
+    }
+
+    @Benchmark
+    public int findUsernameWithSplit() {
+        for (int i = 0; i < userLines.length; i++) {
+            if (userLines[i].split("\\|")[1].equals(wantedUsername)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int findUsernameWithTokenizer() {
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        for (int i = 0; i < userLines.length; i++) {
+            if (tokenizer.reset(userLines[i]).fieldEquals(1, wantedUsername)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // The split-based booking parser that RecordTokenizer replaced
+    private static Booking parseWithSplit(String[] parts) {
+        if (parts.length < 9) {
+            return null;
+        }
+
+        Booking booking = new Booking();
+        booking.setId(parts[0]);
+        booking.setTrekId(parts[1]);
+        booking.setTouristId(parts[2]);
+        booking.setGuideId(parts[3].isEmpty() ? null : parts[3]);
+        booking.setBookingDate(parts[4]);
+        booking.setStatus(parts[5]);
+        booking.setPrice(Double.parseDouble(parts[6]));
+        booking.setDuration(Integer.parseInt(parts[7]));
+        booking.setHighRiskAcknowledged(Boolean.parseBoolean(parts[8]));
+        return booking;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.nepaltourismmanagement;
 
+import com.example.nepaltourismmanagement.utils.DatabaseUtil;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -22,6 +23,9 @@ public class Main extends Application {
             System.out.println("Current time: " + CURRENT_DATE);
             System.out.println("Current user: " + CURRENT_USER);
 
+            // Bootstrap the data store once, before the first scene is shown
+            DatabaseUtil.getInstance();
+
             // Load the login FXML file
             URL loginFxmlUrl = getClass().getResource("/fxml/login.fxml");
 
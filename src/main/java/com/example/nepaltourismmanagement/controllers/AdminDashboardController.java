@@ -1,9 +1,16 @@
 package com.example.nepaltourismmanagement.controllers;
 
 import com.example.nepaltourismmanagement.models.*;
+import com.example.nepaltourismmanagement.repository.BookingPage;
+import com.example.nepaltourismmanagement.repository.BookingQuery;
+import com.example.nepaltourismmanagement.repository.DashboardStatistics;
+import com.example.nepaltourismmanagement.repository.GuideWorkload;
+import com.example.nepaltourismmanagement.utils.BackgroundLoader;
 import com.example.nepaltourismmanagement.utils.DatabaseUtil;
 import com.example.nepaltourismmanagement.utils.LanguageManager;
+import com.example.nepaltourismmanagement.utils.PagedList;
 import com.example.nepaltourismmanagement.utils.SceneManager;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -21,9 +28,13 @@ import javafx.scene.layout.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.util.Callback;
+import javafx.util.StringConverter;
 
 import java.io.IOException;
 import java.net.URL;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -33,6 +44,9 @@ public class AdminDashboardController implements Initializable {
     private static final String CURRENT_DATETIME = "2025-07-30 08:19:12";
     private static final String CURRENT_USER = "BibekDkl";
 
+    // Month labels of the Monthly Bookings chart, e.g. "Jul 2025"
+    private static final DateTimeFormatter MONTH_LABEL_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy");
+
     // Header
     @FXML private Label welcomeLabel;
     @FXML private Label dateTimeLabel;
@@ -40,6 +54,7 @@ public class AdminDashboardController implements Initializable {
     @FXML private ComboBox<String> languageCombo;
     @FXML private Button refreshButton;
     @FXML private Button logoutButton;
+    @FXML private ProgressIndicator loadingIndicator;
     @FXML private VBox rootContainer;
 
     // Dashboard tabs
@@ -74,6 +89,9 @@ public class AdminDashboardController implements Initializable {
     @FXML private TableColumn<Booking, Double> bookingPriceColumn;
     @FXML private TableColumn<Booking, String> bookingActionColumn;
     @FXML private ComboBox<String> bookingStatusFilter;
+    @FXML private ComboBox<Trek> bookingTrekFilter;
+    @FXML private DatePicker bookingFromDate;
+    @FXML private DatePicker bookingToDate;
     @FXML private TableColumn<Booking, String> touristNameColumn;
 
     // Guides tab
@@ -116,15 +134,37 @@ public class AdminDashboardController implements Initializable {
     private DatabaseUtil databaseUtil;
     private SceneManager sceneManager;
     private LanguageManager languageManager;
+    private BackgroundLoader backgroundLoader;
+
+    // Background load keys of the table tabs in tab order, plus the dashboard statistics
+    private static final String BOOKINGS_LOAD = "bookings";
+    private static final String GUIDES_LOAD = "guides";
+    private static final String TREKS_LOAD = "treks";
+    private static final String DASHBOARD_LOAD = "dashboard";
+    private static final List<String> TAB_LOADS = List.of(BOOKINGS_LOAD, GUIDES_LOAD, TREKS_LOAD);
+
+    // Batch guide assignment, run in the background but never cancelled by a tab switch
+    private static final String AUTO_ASSIGN_LOAD = "auto-assign";
+
+    // Bookings fetched per window of the bookings table, and the extra rows fetched on each side
+    private static final int BOOKINGS_PAGE_SIZE = 100;
+    private static final int BOOKINGS_PREFETCH = 100;
+
+    // Query of the latest bookings load, so a filter or sort event that changes nothing does not reload
+    private BookingQuery requestedBookingQuery;
+
+    // Tab loads that were cancelled by a tab switch and must run again when their tab is shown
+    private final Set<String> staleLoads = new HashSet<>();
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         System.out.println("Initializing AdminDashboardController");
 
         // Initialize utilities
-        databaseUtil = new DatabaseUtil();
+        databaseUtil = DatabaseUtil.getInstance();
         sceneManager = new SceneManager();
         languageManager = LanguageManager.getInstance();
+        backgroundLoader = new BackgroundLoader(loadingIndicator);
 
         // Set up date/time
         if (dateTimeLabel != null) {
@@ -139,9 +179,10 @@ public class AdminDashboardController implements Initializable {
         initializeBookingsTab();
         initializeGuidesTab();
         initializeTreksTab();
+        initializeTabSwitching();
 
-        // Initialize system stats
-        updateSystemStats();
+        // Initialize system stats and the analytics tab
+        loadDashboardData();
 
         System.out.println("AdminDashboardController initialized");
     }
@@ -160,7 +201,6 @@ public class AdminDashboardController implements Initializable {
         }
 
         // Load data
-        loadDashboardData();
         loadBookingsData();
         loadGuidesData();
         loadTreksData();
@@ -196,13 +236,43 @@ public class AdminDashboardController implements Initializable {
         loadBookingsData();
         loadGuidesData();
         loadTreksData();
-        updateSystemStats();
+    }
+
+    private void initializeTabSwitching() {
+        if (mainTabPane != null) {
+            mainTabPane.getSelectionModel().selectedIndexProperty().addListener((obs, oldVal, newVal) ->
+                    handleTabChange(newVal.intValue()));
+        }
+    }
+
+    /**
+     * Cancel the loads of tabs that are no longer shown and rerun the load of
+     * the selected tab if an earlier tab switch cancelled it
+     */
+    private void handleTabChange(int selectedIndex) {
+        String selectedLoad = selectedIndex >= 0 && selectedIndex < TAB_LOADS.size()
+                ? TAB_LOADS.get(selectedIndex) : null;
+
+        for (String load : TAB_LOADS) {
+            if (!load.equals(selectedLoad) && backgroundLoader.cancel(load)) {
+                staleLoads.add(load);
+            }
+        }
+
+        if (selectedLoad != null && staleLoads.remove(selectedLoad)) {
+            switch (selectedLoad) {
+                case BOOKINGS_LOAD -> loadBookingsData();
+                case GUIDES_LOAD -> loadGuidesData();
+                case TREKS_LOAD -> loadTreksData();
+            }
+        }
     }
 
     @FXML
     private void handleLogout(ActionEvent event) {
         try {
             System.out.println("Logging out admin user");
+            backgroundLoader.cancelAll();
             sceneManager.switchToLoginPage(event);
         } catch (Exception e) {
             System.err.println("Error during logout: " + e.getMessage());
@@ -221,9 +291,6 @@ public class AdminDashboardController implements Initializable {
         loadBookingsData();
         loadGuidesData();
         loadTreksData();
-
-        // Update status labels
-        updateSystemStats();
     }
 
     // ------ Dashboard Tab ------
@@ -253,42 +320,43 @@ public class AdminDashboardController implements Initializable {
         }
     }
 
+    /**
+     * Load the dashboard statistics snapshot; it feeds the analytics tab and
+     * the footer, so it is not cancelled by tab switches
+     */
     private void loadDashboardData() {
-        try {
-            System.out.println("Loading dashboard data");
-
-            // Get counts
-            List<User> allUsers = databaseUtil.getAllUsers();
-            List<Guide> allGuides = databaseUtil.getAllGuides();
-            List<Trek> allTreks = databaseUtil.getAllTreks();
-            List<Booking> allBookings = databaseUtil.getAllBookings();
+        System.out.println("Loading dashboard data");
+        backgroundLoader.load(DASHBOARD_LOAD, databaseUtil::getDashboardStatistics, this::showDashboardData,
+                error -> systemStatusLabel.setText("System Status: Error"));
+    }
 
+    private void showDashboardData(DashboardStatistics stats) {
+        try {
             // Set count labels
-            if (totalUsersLabel != null) totalUsersLabel.setText(String.valueOf(allUsers.size()));
-            if (totalGuidesLabel != null) totalGuidesLabel.setText(String.valueOf(allGuides.size()));
-            if (totalTreksLabel != null) totalTreksLabel.setText(String.valueOf(allTreks.size()));
-            if (totalBookingsLabel != null) totalBookingsLabel.setText(String.valueOf(allBookings.size()));
-
-            // Get booking statistics
-            Map<String, Object> bookingStats = databaseUtil.getBookingStatistics();
+            if (totalUsersLabel != null) totalUsersLabel.setText(String.valueOf(stats.getTotalUsers()));
+            if (totalGuidesLabel != null) totalGuidesLabel.setText(String.valueOf(stats.getTotalGuides()));
+            if (totalTreksLabel != null) totalTreksLabel.setText(String.valueOf(stats.getTotalTreks()));
+            if (totalBookingsLabel != null) totalBookingsLabel.setText(String.valueOf(stats.getTotalBookings()));
 
             // Set revenue and popular trek
             if (revenueLabel != null) {
-                double revenue = (double) bookingStats.getOrDefault("totalRevenue", 0.0);
-                revenueLabel.setText(String.format("$%.2f", revenue));
+                revenueLabel.setText(String.format("$%.2f", stats.getTotalRevenue()));
             }
 
             if (popularTrekLabel != null) {
-                String popularTrek = (String) bookingStats.getOrDefault("mostPopularTrek", "None");
+                String popularTrek = stats.getMostPopularTrek().isEmpty() ? "None" : stats.getMostPopularTrek();
                 popularTrekLabel.setText(popularTrek);
             }
 
             // Update charts
-            updateBookingStatusChart(bookingStats);
-            updateTreksChart(allTreks);
-            updateDifficultyChart(allTreks);
-            updateBookingsChart(allBookings);
-            updateRevenueChart(allBookings, allTreks);
+            updateBookingStatusChart(stats);
+            updateTreksChart(stats);
+            updateDifficultyChart(stats);
+            updateBookingsChart(stats);
+            updateRevenueChart(stats);
+
+            // Update status labels
+            updateSystemStats(stats);
 
         } catch (Exception e) {
             System.err.println("Error loading dashboard data: " + e.getMessage());
@@ -296,39 +364,36 @@ public class AdminDashboardController implements Initializable {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void updateBookingStatusChart(Map<String, Object> bookingStats) {
+    private void updateBookingStatusChart(DashboardStatistics stats) {
         if (bookingStatusChart != null) {
             bookingStatusChart.getData().clear();
 
             // Get status counts
-            Map<String, Integer> statusCounts =
-                    (Map<String, Integer>) bookingStats.getOrDefault("statusCounts", new HashMap<>());
+            Map<BookingStatus, Integer> statusCounts = stats.getStatusCounts();
 
             // Create pie chart data
             ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
 
-            for (Map.Entry<String, Integer> entry : statusCounts.entrySet()) {
-                pieChartData.add(new PieChart.Data(entry.getKey(), entry.getValue()));
+            for (Map.Entry<BookingStatus, Integer> entry : statusCounts.entrySet()) {
+                pieChartData.add(new PieChart.Data(entry.getKey().getDisplayName(), entry.getValue()));
             }
 
             bookingStatusChart.setData(pieChartData);
         }
     }
 
-    private void updateTreksChart(List<Trek> treks) {
+    private void updateTreksChart(DashboardStatistics stats) {
         if (treksChart != null) {
             treksChart.getData().clear();
 
             // Count treks by region
-            Map<String, Long> regionCounts = treks.stream()
-                    .collect(Collectors.groupingBy(Trek::getRegion, Collectors.counting()));
+            Map<String, Integer> regionCounts = stats.getTreksByRegion();
 
             // Create series
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName("Trek Count");
 
-            for (Map.Entry<String, Long> entry : regionCounts.entrySet()) {
+            for (Map.Entry<String, Integer> entry : regionCounts.entrySet()) {
                 series.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue()));
             }
 
@@ -336,18 +401,17 @@ public class AdminDashboardController implements Initializable {
         }
     }
 
-    private void updateDifficultyChart(List<Trek> treks) {
+    private void updateDifficultyChart(DashboardStatistics stats) {
         if (difficultyChart != null) {
             difficultyChart.getData().clear();
 
             // Count treks by difficulty
-            Map<String, Long> difficultyCounts = treks.stream()
-                    .collect(Collectors.groupingBy(Trek::getDifficulty, Collectors.counting()));
+            Map<String, Integer> difficultyCounts = stats.getTreksByDifficulty();
 
             // Create pie chart data
             ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
 
-            for (Map.Entry<String, Long> entry : difficultyCounts.entrySet()) {
+            for (Map.Entry<String, Integer> entry : difficultyCounts.entrySet()) {
                 pieChartData.add(new PieChart.Data(entry.getKey(), entry.getValue()));
             }
 
@@ -355,60 +419,31 @@ public class AdminDashboardController implements Initializable {
         }
     }
 
-    private void updateBookingsChart(List<Booking> bookings) {
+    private void updateBookingsChart(DashboardStatistics stats) {
         if (bookingsChart != null) {
             bookingsChart.getData().clear();
 
-            // For demo purposes, simulate monthly data
-            // In real app, you'd extract month from booking date
-            Map<String, Integer> monthlyBookings = new LinkedHashMap<>();
-            monthlyBookings.put("Jan", 5);
-            monthlyBookings.put("Feb", 8);
-            monthlyBookings.put("Mar", 12);
-            monthlyBookings.put("Apr", 15);
-            monthlyBookings.put("May", 20);
-            monthlyBookings.put("Jun", 25);
-            monthlyBookings.put("Jul", bookings.size()); // Current month shows actual count
+            // Bookings per month of the booking date, oldest first
+            Map<YearMonth, Integer> monthlyBookings = stats.getMonthlyBookings();
 
             // Create series
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName("Number of Bookings");
 
-            for (Map.Entry<String, Integer> entry : monthlyBookings.entrySet()) {
-                series.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue()));
+            for (Map.Entry<YearMonth, Integer> entry : monthlyBookings.entrySet()) {
+                series.getData().add(new XYChart.Data<>(entry.getKey().format(MONTH_LABEL_FORMAT), entry.getValue()));
             }
 
             bookingsChart.getData().add(series);
         }
     }
 
-    private void updateRevenueChart(List<Booking> bookings, List<Trek> treks) {
+    private void updateRevenueChart(DashboardStatistics stats) {
         if (revenueChart != null) {
             revenueChart.getData().clear();
 
-            // Group treks by difficulty
-            Map<String, List<Trek>> treksByDifficulty = treks.stream()
-                    .collect(Collectors.groupingBy(Trek::getDifficulty));
-
-            // Calculate revenue by difficulty
-            Map<String, Double> revenueByDifficulty = new HashMap<>();
-
-            // Initialize with all difficulties
-            for (String difficulty : treksByDifficulty.keySet()) {
-                revenueByDifficulty.put(difficulty, 0.0);
-            }
-
-            // Sum revenue for each difficulty level
-            for (Booking booking : bookings) {
-                if ("Confirmed".equals(booking.getStatus()) || "Completed".equals(booking.getStatus())) {
-                    Trek trek = databaseUtil.getTrekById(booking.getTrekId());
-                    if (trek != null) {
-                        String difficulty = trek.getDifficulty();
-                        revenueByDifficulty.put(difficulty,
-                                revenueByDifficulty.getOrDefault(difficulty, 0.0) + booking.getPrice());
-                    }
-                }
-            }
+            // Revenue by difficulty
+            Map<String, Double> revenueByDifficulty = stats.getRevenueByDifficulty();
 
             // Create pie chart data
             ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
@@ -433,50 +468,118 @@ public class AdminDashboardController implements Initializable {
         if (statusColumn != null) statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
         if (bookingPriceColumn != null) bookingPriceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
 
-        // Set up booking status filter
+        // Only date and status can be sorted on, through the booking indexes
+        if (bookingIdColumn != null) bookingIdColumn.setSortable(false);
+        if (touristNameColumn != null) touristNameColumn.setSortable(false);
+        if (bookingPriceColumn != null) bookingPriceColumn.setSortable(false);
+
+        // The table shows one window of the bookings, so sorting is left to the store
+        if (bookingsTable != null) {
+            bookingsTable.setSortPolicy(table -> {
+                reloadBookingsIfChanged();
+                return true;
+            });
+        }
+
+        // Set up booking filters; each change reloads the table with the new query
         if (bookingStatusFilter != null) {
-            bookingStatusFilter.valueProperty().addListener((obs, oldVal, newVal) -> {
-                if (newVal != null) {
-                    filterBookings(newVal);
+            bookingStatusFilter.valueProperty().addListener((obs, oldVal, newVal) -> reloadBookingsIfChanged());
+        }
+        if (bookingTrekFilter != null) {
+            bookingTrekFilter.setConverter(new StringConverter<Trek>() {
+                @Override
+                public String toString(Trek trek) {
+                    return trek != null ? trek.getName() : "";
+                }
+
+                @Override
+                public Trek fromString(String name) {
+                    return null;
                 }
             });
+            bookingTrekFilter.valueProperty().addListener((obs, oldVal, newVal) -> reloadBookingsIfChanged());
+        }
+        if (bookingFromDate != null) {
+            bookingFromDate.valueProperty().addListener((obs, oldVal, newVal) -> reloadBookingsIfChanged());
+        }
+        if (bookingToDate != null) {
+            bookingToDate.valueProperty().addListener((obs, oldVal, newVal) -> reloadBookingsIfChanged());
         }
     }
 
-    private void loadBookingsData() {
-        try {
-            List<Booking> bookings = databaseUtil.getAllBookings();
+    // Query for the bookings table from the filter controls and the table's sort order
+    private BookingQuery currentBookingQuery() {
+        BookingQuery query = BookingQuery.all();
 
-            if (bookingsTable != null) {
-                bookingsTable.setItems(FXCollections.observableArrayList(bookings));
-            }
+        // "All" is not a status, so it leaves the query unfiltered
+        BookingStatus status = bookingStatusFilter != null ? BookingStatus.fromString(bookingStatusFilter.getValue()) : null;
+        if (status != null) {
+            query = query.withStatus(status);
+        }
 
-        } catch (Exception e) {
-            System.err.println("Error loading bookings data: " + e.getMessage());
-            e.printStackTrace();
+        Trek trek = bookingTrekFilter != null ? bookingTrekFilter.getValue() : null;
+        if (trek != null) {
+            query = query.withTrek(trek.getId());
         }
-    }
 
-    private void filterBookings(String status) {
-        try {
-            List<Booking> allBookings = databaseUtil.getAllBookings();
-            List<Booking> filteredBookings;
+        LocalDate from = bookingFromDate != null ? bookingFromDate.getValue() : null;
+        LocalDate to = bookingToDate != null ? bookingToDate.getValue() : null;
+        if (from != null || to != null) {
+            query = query.withDates(from, to);
+        }
 
-            if ("All".equals(status)) {
-                filteredBookings = allBookings;
-            } else {
-                filteredBookings = allBookings.stream()
-                        .filter(b -> status.equals(b.getStatus()))
-                        .collect(Collectors.toList());
+        if (bookingsTable != null && !bookingsTable.getSortOrder().isEmpty()) {
+            TableColumn<Booking, ?> column = bookingsTable.getSortOrder().get(0);
+            boolean descending = column.getSortType() == TableColumn.SortType.DESCENDING;
+            if (column == bookingDateColumn) {
+                query = query.sortedBy(BookingQuery.SortKey.DATE, descending);
+            } else if (column == statusColumn) {
+                query = query.sortedBy(BookingQuery.SortKey.STATUS, descending);
             }
+        }
 
-            bookingsTable.setItems(FXCollections.observableArrayList(filteredBookings));
-        } catch (Exception e) {
-            System.err.println("Error filtering bookings: " + e.getMessage());
-            e.printStackTrace();
+        return query;
+    }
+
+    private void reloadBookingsIfChanged() {
+        if (!currentBookingQuery().equals(requestedBookingQuery)) {
+            loadBookingsData();
         }
     }
 
+    private void loadBookingsData() {
+        // Every bookings load shares one key, so a filter or sort change replaces any load still in flight
+        staleLoads.remove(BOOKINGS_LOAD);
+        BookingQuery query = currentBookingQuery();
+        requestedBookingQuery = query;
+        backgroundLoader.load(BOOKINGS_LOAD,
+                () -> databaseUtil.getBookingPage(query, 0, BOOKINGS_PAGE_SIZE + BOOKINGS_PREFETCH),
+                page -> showBookings(query, page));
+    }
+
+    /**
+     * Show the first window of a query; the table fetches the other windows
+     * as it scrolls, so only a few hundred bookings are held at a time
+     */
+    private void showBookings(BookingQuery query, BookingPage page) {
+        if (bookingsTable != null) {
+            bookingsTable.setItems(new PagedList<>(page.getTotal(), page.getBookings(),
+                    BOOKINGS_PAGE_SIZE, BOOKINGS_PREFETCH,
+                    (offset, limit) -> databaseUtil.getBookingWindow(query, offset, limit)));
+        }
+    }
+
+    /**
+     * Clears the status, trek and date filters of the bookings table
+     */
+    @FXML
+    private void handleClearBookingFilters() {
+        if (bookingStatusFilter != null) bookingStatusFilter.setValue(null);
+        if (bookingTrekFilter != null) bookingTrekFilter.setValue(null);
+        if (bookingFromDate != null) bookingFromDate.setValue(null);
+        if (bookingToDate != null) bookingToDate.setValue(null);
+    }
+
     /**
      * Updates booking status
      */
@@ -512,6 +615,35 @@ public class AdminDashboardController implements Initializable {
         showAssignGuideDialog(selectedBooking);
     }
 
+    /**
+     * Assigns guides to all pending bookings without one, in one batch
+     */
+    @FXML
+    private void handleAutoAssignGuides() {
+        Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
+        confirmAlert.setTitle("Auto-Assign Guides");
+        confirmAlert.setHeaderText("Assign guides to all pending bookings");
+        confirmAlert.setContentText("Every pending booking without a guide ("
+                + databaseUtil.getBookingCountByStatus(BookingStatus.PENDING) + " pending in total) will be given a free guide "
+                + "who speaks the tourist's language and is qualified for the trek, and will be confirmed. Continue?");
+
+        Optional<ButtonType> result = confirmAlert.showAndWait();
+        if (result.isPresent() && result.get() == ButtonType.OK) {
+            backgroundLoader.load(AUTO_ASSIGN_LOAD, databaseUtil::autoAssignGuides, assigned -> {
+                if (assigned < 0) {
+                    showAlert(Alert.AlertType.ERROR, "Error", "Could not save the guide assignments.");
+                    return;
+                }
+
+                showAlert(Alert.AlertType.INFORMATION, "Guides Assigned", assigned + " pending booking(s) were "
+                        + "assigned a guide. Bookings no free, qualified guide could take are still pending.");
+                loadBookingsData();
+                loadDashboardData();
+            }, error -> showAlert(Alert.AlertType.ERROR, "Error",
+                    "Could not assign guides: " + error.getMessage()));
+        }
+    }
+
     /**
      * Cancels a booking
      */
@@ -524,7 +656,7 @@ public class AdminDashboardController implements Initializable {
         }
 
         // Cannot cancel completed bookings
-        if ("Completed".equals(selectedBooking.getStatus())) {
+        if (selectedBooking.getBookingStatus() == BookingStatus.COMPLETED) {
             showAlert(Alert.AlertType.WARNING, "Cannot Cancel", "Completed bookings cannot be cancelled.");
             return;
         }
@@ -537,7 +669,7 @@ public class AdminDashboardController implements Initializable {
 
         Optional<ButtonType> result = confirmAlert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            boolean success = databaseUtil.updateBookingStatus(selectedBooking.getId(), "Cancelled");
+            boolean success = databaseUtil.updateBookingStatus(selectedBooking.getId(), BookingStatus.CANCELLED);
             if (success) {
                 showAlert(Alert.AlertType.INFORMATION, "Booking Cancelled",
                         "The booking has been cancelled successfully.");
@@ -552,7 +684,7 @@ public class AdminDashboardController implements Initializable {
     private void showUpdateStatusDialog(Booking booking) {
         try {
             // Create dialog
-            Dialog<String> dialog = new Dialog<>();
+            Dialog<BookingStatus> dialog = new Dialog<>();
             dialog.setTitle("Update Status");
             dialog.setHeaderText("Update status for booking ID: " + booking.getId());
 
@@ -566,10 +698,14 @@ public class AdminDashboardController implements Initializable {
             grid.setVgap(10);
             grid.setPadding(new Insets(20, 150, 10, 10));
 
-            // Create status combo
-            ComboBox<String> statusCombo = new ComboBox<>();
-            statusCombo.getItems().addAll("Pending", "Confirmed", "Completed", "Cancelled");
-            statusCombo.setValue(booking.getStatus());
+            // Create status combo with the statuses the booking can change to
+            ComboBox<BookingStatus> statusCombo = new ComboBox<>();
+            for (BookingStatus status : BookingStatus.values()) {
+                if (booking.getBookingStatus() == null || booking.getBookingStatus().canChangeTo(status)) {
+                    statusCombo.getItems().add(status);
+                }
+            }
+            statusCombo.setValue(booking.getBookingStatus());
 
             grid.add(new Label("Tourist:"), 0, 0);
             grid.add(new Label(booking.getTouristName()), 1, 0);
@@ -583,7 +719,7 @@ public class AdminDashboardController implements Initializable {
             // Request focus on the status combo by default
             Platform.runLater(statusCombo::requestFocus);
 
-            // Convert the result to String when the update button is clicked
+            // Convert the result to the chosen status when the update button is clicked
             dialog.setResultConverter(dialogButton -> {
                 if (dialogButton == updateButtonType) {
                     return statusCombo.getValue();
@@ -592,7 +728,7 @@ public class AdminDashboardController implements Initializable {
             });
 
             // Show the dialog and process the result
-            Optional<String> result = dialog.showAndWait();
+            Optional<BookingStatus> result = dialog.showAndWait();
             result.ifPresent(newStatus -> {
                 // Update booking status
                 boolean success = databaseUtil.updateBookingStatus(booking.getId(), newStatus);
@@ -618,17 +754,22 @@ public class AdminDashboardController implements Initializable {
 
     private void showAssignGuideDialog(Booking booking) {
         try {
-            // Get available guides
-            List<Guide> availableGuides = databaseUtil.getAllGuides().stream()
-                    .filter(Guide::isAvailable)
-                    .collect(Collectors.toList());
+            // Get available guides with no other trip on the booking's days
+            List<Guide> availableGuides = databaseUtil.getGuidesFreeForBooking(booking);
 
             if (availableGuides.isEmpty()) {
                 showAlert(Alert.AlertType.INFORMATION, "No Guides Available",
-                        "There are no available guides at the moment.");
+                        "No available guide is free for the dates of this booking.");
                 return;
             }
 
+            // Current load of each guide, least busy first
+            Map<String, GuideWorkload> workloads = databaseUtil.getGuideWorkloads(
+                    availableGuides.stream().map(Guide::getId).collect(Collectors.toList()));
+            availableGuides.sort(Comparator
+                    .comparing((Guide guide) -> workloads.get(guide.getId()).getNextFreeDate())
+                    .thenComparingInt(guide -> workloads.get(guide.getId()).getTripDaysInWindow()));
+
             // Create dialog
             Dialog<Guide> dialog = new Dialog<>();
             dialog.setTitle("Assign Guide");
@@ -664,7 +805,24 @@ public class AdminDashboardController implements Initializable {
             certsCol.setCellValueFactory(new PropertyValueFactory<>("certifications"));
             certsCol.setPrefWidth(200);
 
-            guidesTable.getColumns().addAll(nameCol, experienceCol, languagesCol, certsCol);
+            TableColumn<Guide, Integer> upcomingCol = new TableColumn<>("Upcoming Trips");
+            upcomingCol.setCellValueFactory(data ->
+                    new SimpleObjectProperty<>(workloads.get(data.getValue().getId()).getUpcomingTrips()));
+            upcomingCol.setPrefWidth(110);
+
+            TableColumn<Guide, Integer> tripDaysCol = new TableColumn<>(
+                    "Trip Days (" + DatabaseUtil.WORKLOAD_WINDOW_DAYS + "d)");
+            tripDaysCol.setCellValueFactory(data ->
+                    new SimpleObjectProperty<>(workloads.get(data.getValue().getId()).getTripDaysInWindow()));
+            tripDaysCol.setPrefWidth(110);
+
+            TableColumn<Guide, LocalDate> nextFreeCol = new TableColumn<>("Next Free");
+            nextFreeCol.setCellValueFactory(data ->
+                    new SimpleObjectProperty<>(workloads.get(data.getValue().getId()).getNextFreeDate()));
+            nextFreeCol.setPrefWidth(100);
+
+            guidesTable.getColumns().addAll(nameCol, experienceCol, languagesCol, certsCol,
+                    upcomingCol, tripDaysCol, nextFreeCol);
             guidesTable.setItems(FXCollections.observableArrayList(availableGuides));
 
             content.getChildren().addAll(infoLabel, guidesTable);
@@ -699,7 +857,7 @@ public class AdminDashboardController implements Initializable {
                     loadBookingsData();
                 } else {
                     showAlert(Alert.AlertType.ERROR, "Error",
-                            "Could not assign guide to booking.");
+                            "Could not assign guide to booking. The guide may have been booked for these dates in the meantime.");
                 }
             });
 
@@ -729,17 +887,12 @@ public class AdminDashboardController implements Initializable {
     }
 
     private void loadGuidesData() {
-        try {
-            List<Guide> guides = databaseUtil.getAllGuides();
-
+        staleLoads.remove(GUIDES_LOAD);
+        backgroundLoader.load(GUIDES_LOAD, databaseUtil::getAllGuides, guides -> {
             if (guidesTable != null) {
                 guidesTable.setItems(FXCollections.observableArrayList(guides));
             }
-
-        } catch (Exception e) {
-            System.err.println("Error loading guides data: " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
     }
 
     /**
@@ -972,17 +1125,23 @@ public class AdminDashboardController implements Initializable {
     }
 
     private void loadTreksData() {
-        try {
-            List<Trek> treks = databaseUtil.getAllTreks();
-
+        staleLoads.remove(TREKS_LOAD);
+        backgroundLoader.load(TREKS_LOAD, databaseUtil::getAllTreks, treks -> {
             if (treksTable != null) {
                 treksTable.setItems(FXCollections.observableArrayList(treks));
             }
-
-        } catch (Exception e) {
-            System.err.println("Error loading treks data: " + e.getMessage());
-            e.printStackTrace();
-        }
+            if (bookingTrekFilter != null) {
+                // Keep the selected trek by id; the new list holds fresh copies
+                Trek selected = bookingTrekFilter.getValue();
+                bookingTrekFilter.getItems().setAll(treks);
+                if (selected != null) {
+                    treks.stream()
+                            .filter(t -> t.getId().equals(selected.getId()))
+                            .findFirst()
+                            .ifPresent(bookingTrekFilter::setValue);
+                }
+            }
+        });
     }
 
     /**
@@ -1215,40 +1374,21 @@ public class AdminDashboardController implements Initializable {
     /**
      * Update system statistics in footer
      */
-    private void updateSystemStats() {
-        try {
-            // Count active users (simplified - just count all users)
-            int activeUsers = databaseUtil.getAllUsers().size();
-            activeUsersLabel.setText("Active Users: " + activeUsers);
-
-            // Count pending bookings
-            int pendingBookings = databaseUtil.getBookingsByStatus("Pending").size();
-            pendingBookingsLabel.setText("Pending Bookings: " + pendingBookings);
-
-            // System status is always online for now
-            systemStatusLabel.setText("System Status: Online");
-
-            // Update dashboard summary labels
-            int totalBookings = databaseUtil.getAllBookings().size();
-            totalBookingsLabel.setText(String.valueOf(totalBookings));
-
-            // Calculate total revenue
-            double totalRevenue = databaseUtil.getAllBookings().stream()
-                    .filter(b -> "Confirmed".equals(b.getStatus()) || "Completed".equals(b.getStatus()))
-                    .mapToDouble(Booking::getPrice)
-                    .sum();
-            totalRevenueLabel.setText(String.format("$%.2f", totalRevenue));
-
-            // Count active guides
-            int activeGuides = (int) databaseUtil.getAllGuides().stream()
-                    .filter(Guide::isAvailable)
-                    .count();
-            activeGuidesLabel.setText(String.valueOf(activeGuides));
+    private void updateSystemStats(DashboardStatistics stats) {
+        // Count active users (simplified - just count all users)
+        activeUsersLabel.setText("Active Users: " + stats.getTotalUsers());
 
-        } catch (Exception e) {
-            System.err.println("Error updating system stats: " + e.getMessage());
-            e.printStackTrace();
-        }
+        // Count pending bookings
+        pendingBookingsLabel.setText("Pending Bookings: " + stats.getStatusCount(BookingStatus.PENDING));
+
+        // System status is always online for now
+        systemStatusLabel.setText("System Status: Online");
+
+        // Calculate total revenue
+        totalRevenueLabel.setText(String.format("$%.2f", stats.getTotalRevenue()));
+
+        // Count active guides
+        activeGuidesLabel.setText(String.valueOf(stats.getActiveGuides()));
     }
 
     private void showAlert(Alert.AlertType alertType, String title, String message) {
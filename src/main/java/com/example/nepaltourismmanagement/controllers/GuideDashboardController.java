@@ -3,6 +3,8 @@ package com.example.nepaltourismmanagement.controllers;
 import com.example.nepaltourismmanagement.models.Booking;
 import com.example.nepaltourismmanagement.models.Guide;
 import com.example.nepaltourismmanagement.models.User;
+import com.example.nepaltourismmanagement.repository.GuideWorkload;
+import com.example.nepaltourismmanagement.utils.BackgroundLoader;
 import com.example.nepaltourismmanagement.utils.DatabaseUtil;
 import com.example.nepaltourismmanagement.utils.LanguageManager;
 import com.example.nepaltourismmanagement.utils.SceneManager;
@@ -27,6 +29,7 @@ public class GuideDashboardController implements Initializable {
     @FXML private Label weatherLabel;
     @FXML private Button refreshButton;
     @FXML private Button logoutButton;
+    @FXML private ProgressIndicator loadingIndicator;
     @FXML private ComboBox<String> languageCombo;
     @FXML private VBox rootContainer; // Root container for the entire dashboard
 
@@ -45,6 +48,9 @@ public class GuideDashboardController implements Initializable {
     @FXML private Label experienceLabel;
     @FXML private Label totalEarningsLabel;
     @FXML private Label monthlyEarningsLabel;
+    @FXML private Label upcomingTripsLabel;
+    @FXML private Label tripDaysLabel;
+    @FXML private Label nextFreeDateLabel;
 
     // Weather Tab
     @FXML private Label currentWeatherLabel;
@@ -56,16 +62,18 @@ public class GuideDashboardController implements Initializable {
     private WeatherUtil weatherUtil;
     private SceneManager sceneManager;
     private LanguageManager languageManager;
+    private BackgroundLoader backgroundLoader;
     private User currentUser;
     private Guide guideProfile;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         System.out.println("Initializing GuideDashboardController");
-        databaseUtil = new DatabaseUtil();
+        databaseUtil = DatabaseUtil.getInstance();
         weatherUtil = new WeatherUtil();
         sceneManager = new SceneManager();
         languageManager = LanguageManager.getInstance();
+        backgroundLoader = new BackgroundLoader(loadingIndicator);
 
         initializeLanguageCombo();
         setupDateTime();
@@ -79,11 +87,8 @@ public class GuideDashboardController implements Initializable {
         this.currentUser = user;
         userLabel.setText(user.getUsername());
 
-        // Load guide profile information
-        loadGuideProfile();
-
-        // Load assigned trips
-        loadAssignedTrips();
+        // Load guide profile information and assigned trips
+        loadGuideData();
     }
 
     private void initializeLanguageCombo() {
@@ -124,10 +129,39 @@ public class GuideDashboardController implements Initializable {
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
     }
 
-    private void loadGuideProfile() {
-        try {
-            guideProfile = databaseUtil.getGuideByUserId(currentUser.getId());
+    // Guide profile, assigned trips and workload, gathered off the JavaFX Application Thread
+    private static class GuideData {
+        Guide guide;
+        List<Booking> trips;
+        GuideWorkload workload;
+    }
+
+    /**
+     * Load the guide profile, its assigned trips and its workload on a background
+     * thread; the other lookups need the profile, so all are fetched by one load
+     */
+    private void loadGuideData() {
+        String userId = currentUser.getId();
+
+        backgroundLoader.load("guide", () -> {
+            GuideData data = new GuideData();
+            data.guide = databaseUtil.getGuideByUserId(userId);
+            if (data.guide != null) {
+                data.trips = databaseUtil.getAssignedTripsForGuide(data.guide.getId());
+                data.workload = databaseUtil.getGuideWorkload(data.guide.getId());
+            }
+            return data;
+        }, data -> {
+            guideProfile = data.guide;
+            showGuideProfile();
+            showAssignedTrips(data.trips);
+            showWorkload(data.workload);
+        }, error -> showAlert(Alert.AlertType.ERROR, languageManager.translate("Profile Error"),
+                languageManager.translate("Could not load guide profile") + ": " + error.getMessage()));
+    }
 
+    private void showGuideProfile() {
+        try {
             if (guideProfile != null) {
                 fullNameLabel.setText(guideProfile.getName());
                 emailLabel.setText(guideProfile.getEmail());
@@ -146,10 +180,9 @@ public class GuideDashboardController implements Initializable {
         }
     }
 
-    private void loadAssignedTrips() {
+    private void showAssignedTrips(List<Booking> trips) {
         try {
-            if (guideProfile != null) {
-                List<Booking> trips = databaseUtil.getAssignedTripsForGuide(guideProfile.getId());
+            if (trips != null) {
                 upcomingTripsTable.setItems(FXCollections.observableArrayList(trips));
             }
         } catch (Exception e) {
@@ -159,6 +192,14 @@ public class GuideDashboardController implements Initializable {
         }
     }
 
+    private void showWorkload(GuideWorkload workload) {
+        if (workload != null) {
+            upcomingTripsLabel.setText(String.valueOf(workload.getUpcomingTrips()));
+            tripDaysLabel.setText(String.valueOf(workload.getTripDaysInWindow()));
+            nextFreeDateLabel.setText(workload.getNextFreeDate().toString());
+        }
+    }
+
     private void updateWeatherInfo() {
         try {
             // In a real app, this would use an actual weather API
@@ -176,14 +217,14 @@ public class GuideDashboardController implements Initializable {
 
     @FXML
     private void handleRefresh() {
-        loadGuideProfile();
-        loadAssignedTrips();
+        loadGuideData();
         updateWeatherInfo();
     }
 
     @FXML
     private void handleLogout(ActionEvent event) {
         try {
+            backgroundLoader.cancelAll();
             sceneManager.switchToLoginPage(event);
         } catch (Exception e) {
             showAlert(Alert.AlertType.ERROR, languageManager.translate("Navigation Error"),
@@ -3,6 +3,7 @@ package com.example.nepaltourismmanagement.controllers;
 import com.example.nepaltourismmanagement.models.User;
 import com.example.nepaltourismmanagement.utils.DatabaseUtil;
 import com.example.nepaltourismmanagement.utils.LanguageManager;
+import com.example.nepaltourismmanagement.utils.LoginThrottle;
 import com.example.nepaltourismmanagement.utils.SceneManager;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -35,10 +36,13 @@ public class LoginController implements Initializable {
     private static final String CURRENT_DATE = "2025-07-30 06:21:09";
     private static final String CURRENT_USER = "BibekDkl";
 
+    // Source of login attempts for the throttle: the desktop session this app runs in
+    private static final String LOGIN_SOURCE = "session:" + System.getProperty("user.name", "unknown");
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         System.out.println("Initializing LoginController");
-        databaseUtil = new DatabaseUtil();
+        databaseUtil = DatabaseUtil.getInstance();
         sceneManager = new SceneManager();
         languageManager = LanguageManager.getInstance();
 
@@ -82,11 +86,23 @@ public class LoginController implements Initializable {
             return;
         }
 
+        // Refuse the attempt before touching the user store if there were too many failures
+        LoginThrottle throttle = databaseUtil.getLoginThrottle();
+        long retryAfter = throttle.retryAfterMillis(username, LOGIN_SOURCE);
+        if (retryAfter > 0) {
+            System.out.println("Login throttled for username: " + username);
+            showAlert(Alert.AlertType.ERROR, "Login Failed", "Too many failed login attempts. Please try again in "
+                    + ((retryAfter + 59_999) / 60_000) + " minute(s).");
+            return;
+        }
+
         try {
             // Authenticate user
             User user = databaseUtil.authenticateUser(username, password);
 
             if (user != null) {
+                throttle.recordSuccess(username);
+
                 // Save credentials if remember me is checked
                 if (rememberMe.isSelected()) {
                     System.out.println("Remembering credentials for: " + username);
@@ -111,6 +127,7 @@ public class LoginController implements Initializable {
                         break;
                 }
             } else {
+                throttle.recordFailure(username, LOGIN_SOURCE);
                 showAlert(Alert.AlertType.ERROR, "Login Failed", "Invalid username or password.");
             }
         } catch (Exception e) {
@@ -41,7 +41,7 @@ public class RegisterController implements Initializable {
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         System.out.println("RegisterController initializing");
-        databaseUtil = new DatabaseUtil();
+        databaseUtil = DatabaseUtil.getInstance();
         validationUtil = new ValidationUtil();
         sceneManager = new SceneManager();
 
@@ -133,6 +133,12 @@ public class RegisterController implements Initializable {
             return false;
         }
 
+        // Check username is not taken
+        if (databaseUtil.isUserExists(usernameField.getText().trim())) {
+            showAlert(Alert.AlertType.ERROR, "Validation Error", "This username is already taken.");
+            return false;
+        }
+
         // Check password match
         if (!passwordField.getText().equals(confirmPasswordField.getText())) {
             showAlert(Alert.AlertType.ERROR, "Validation Error", "Passwords do not match.");
@@ -156,7 +162,7 @@ public class RegisterController implements Initializable {
         user.setFullName(fullNameField.getText().trim());
         user.setEmail(emailField.getText().trim());
         user.setContactNumber(phoneField.getText().trim());
-        user.setPassword(passwordField.getText()); // In real app, hash this before storing
+        user.setPassword(passwordField.getText()); // Hashed by DatabaseUtil before it is stored
 
         // Set role based on selection
         String roleSelection = userRoleCombo.getValue();
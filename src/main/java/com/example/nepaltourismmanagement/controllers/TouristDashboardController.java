@@ -1,8 +1,10 @@
 package com.example.nepaltourismmanagement.controllers;
 
 import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
 import com.example.nepaltourismmanagement.models.Trek;
 import com.example.nepaltourismmanagement.models.User;
+import com.example.nepaltourismmanagement.utils.BackgroundLoader;
 import com.example.nepaltourismmanagement.utils.DatabaseUtil;
 import com.example.nepaltourismmanagement.utils.LanguageManager;
 import com.example.nepaltourismmanagement.utils.SceneManager;
@@ -42,6 +44,7 @@ public class TouristDashboardController implements Initializable {
     @FXML private ComboBox<String> languageCombo;
     @FXML private Button refreshButton;
     @FXML private Button logoutButton;
+    @FXML private ProgressIndicator loadingIndicator;
     @FXML private VBox rootContainer; // Root container for the entire dashboard
 
     // Book New Trip Tab
@@ -70,6 +73,7 @@ public class TouristDashboardController implements Initializable {
     private DatabaseUtil databaseUtil;
     private SceneManager sceneManager;
     private LanguageManager languageManager;
+    private BackgroundLoader backgroundLoader;
     private User currentUser;
 
     // Current date/time constant
@@ -93,9 +97,10 @@ public class TouristDashboardController implements Initializable {
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         System.out.println("Initializing TouristDashboardController");
-        databaseUtil = new DatabaseUtil();
+        databaseUtil = DatabaseUtil.getInstance();
         sceneManager = new SceneManager();
         languageManager = LanguageManager.getInstance();
+        backgroundLoader = new BackgroundLoader(loadingIndicator);
 
         initializeLanguageCombo();
         setupDateTime();
@@ -225,38 +230,29 @@ public class TouristDashboardController implements Initializable {
     }
 
     private void loadAvailableTrips() {
-        try {
-            List<Trek> treks = databaseUtil.getAllTreks();
+        backgroundLoader.load("treks", databaseUtil::getAllTreks, treks -> {
             availableTripsTable.setItems(FXCollections.observableArrayList(treks));
             System.out.println("Loaded " + treks.size() + " available treks");
-        } catch (Exception e) {
-            System.err.println("Error loading available treks: " + e.getMessage());
-            e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, languageManager.translate("Database Error"),
-                    languageManager.translate("Could not load available treks") + ": " + e.getMessage());
-        }
+        }, error -> showAlert(Alert.AlertType.ERROR, languageManager.translate("Database Error"),
+                languageManager.translate("Could not load available treks") + ": " + error.getMessage()));
     }
 
     private void loadBookedTrips() {
-        try {
-            if (currentUser == null) {
-                System.err.println("ERROR: currentUser is null in loadBookedTrips");
-                showAlert(Alert.AlertType.ERROR, languageManager.translate("System Error"),
-                        languageManager.translate("User information is missing. Please log out and log in again."));
-                return;
-            }
+        if (currentUser == null) {
+            System.err.println("ERROR: currentUser is null in loadBookedTrips");
+            showAlert(Alert.AlertType.ERROR, languageManager.translate("System Error"),
+                    languageManager.translate("User information is missing. Please log out and log in again."));
+            return;
+        }
 
-            System.out.println("Loading booked trips for user ID: " + currentUser.getId());
-            List<Booking> bookings = databaseUtil.getBookingsForTourist(currentUser.getId());
+        String touristId = currentUser.getId();
+        System.out.println("Loading booked trips for user ID: " + touristId);
+        backgroundLoader.load("bookings", () -> databaseUtil.getBookingsForTourist(touristId), bookings -> {
             bookedTripsTable.setItems(FXCollections.observableArrayList(bookings));
             manageTripsTable.setItems(FXCollections.observableArrayList(bookings));
             System.out.println("Loaded " + bookings.size() + " bookings for user");
-        } catch (Exception e) {
-            System.err.println("Error loading booked trips: " + e.getMessage());
-            e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, languageManager.translate("Database Error"),
-                    languageManager.translate("Could not load booked trips") + ": " + e.getMessage());
-        }
+        }, error -> showAlert(Alert.AlertType.ERROR, languageManager.translate("Database Error"),
+                languageManager.translate("Could not load booked trips") + ": " + error.getMessage()));
     }
 
     @FXML
@@ -270,6 +266,7 @@ public class TouristDashboardController implements Initializable {
     private void handleLogout(ActionEvent event) {
         try {
             System.out.println("Logging out user: " + (currentUser != null ? currentUser.getUsername() : "unknown"));
+            backgroundLoader.cancelAll();
             sceneManager.switchToLoginPage(event);
         } catch (Exception e) {
             System.err.println("Error during logout: " + e.getMessage());
@@ -532,7 +529,7 @@ public class TouristDashboardController implements Initializable {
             Booking booking = new Booking();
             booking.setTrekId(trek.getId());
             booking.setTouristId(currentUser.getId());
-            booking.setStatus("Pending");
+            booking.setBookingStatus(BookingStatus.PENDING);
             booking.setPrice(finalPrice);
             booking.setDuration(trek.getDuration());
             booking.setBookingDate(tripDate.format(dateFormatter));
@@ -586,7 +583,7 @@ public class TouristDashboardController implements Initializable {
         }
 
         // Can only update bookings in "Pending" status
-        if (!"Pending".equals(selectedBooking.getStatus())) {
+        if (selectedBooking.getBookingStatus() != BookingStatus.PENDING) {
             showAlert(Alert.AlertType.WARNING, languageManager.translate("Update Restricted"),
                     languageManager.translate("Only pending bookings can be updated."));
             return;
@@ -761,7 +758,7 @@ public class TouristDashboardController implements Initializable {
         }
 
         // Cannot cancel completed bookings
-        if ("Completed".equals(selectedBooking.getStatus())) {
+        if (selectedBooking.getBookingStatus() == BookingStatus.COMPLETED) {
             showAlert(Alert.AlertType.WARNING, languageManager.translate("Cancellation Restricted"),
                     languageManager.translate("Completed bookings cannot be cancelled."));
             return;
@@ -777,7 +774,7 @@ public class TouristDashboardController implements Initializable {
             if (response == ButtonType.OK) {
                 try {
                     System.out.println("Cancelling booking with ID: " + selectedBooking.getId());
-                    boolean success = databaseUtil.updateBookingStatus(selectedBooking.getId(), "Cancelled");
+                    boolean success = databaseUtil.updateBookingStatus(selectedBooking.getId(), BookingStatus.CANCELLED);
 
                     if (success) {
                         System.out.println("Booking cancelled successfully");
@@ -1,6 +1,7 @@
 package com.example.nepaltourismmanagement.controllers;
 
 import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
 import com.example.nepaltourismmanagement.models.Trek;
 import com.example.nepaltourismmanagement.models.User;
 import com.example.nepaltourismmanagement.utils.DatabaseUtil;
@@ -44,7 +45,7 @@ public class WarningController implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        databaseUtil = new DatabaseUtil();
+        databaseUtil = DatabaseUtil.getInstance();
         languageManager = LanguageManager.getInstance();
 
         // Disable proceed button until checkbox is checked
@@ -94,7 +95,7 @@ public class WarningController implements Initializable {
             Booking booking = new Booking();
             booking.setTrekId(currentTrek.getId());
             booking.setTouristId(currentUser.getId());
-            booking.setStatus("Pending");
+            booking.setBookingStatus(BookingStatus.PENDING);
             booking.setPrice(finalPrice);
             booking.setDuration(currentTrek.getDuration());
             booking.setBookingDate(tripDate != null ? tripDate.format(dateFormatter) : "2025-07-30");
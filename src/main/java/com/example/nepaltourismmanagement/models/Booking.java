@@ -1,12 +1,15 @@
 package com.example.nepaltourismmanagement.models;
 
 public class Booking {
+    private static final byte NO_STATUS = -1;
+
     private String id;
     private String trekId;
     private String touristId;
     private String guideId;
     private String bookingDate;
-    private String status;
+    // BookingStatus code, or NO_STATUS until a status is set
+    private byte status = NO_STATUS;
     private double price;
     private int duration;
     private boolean highRiskAcknowledged;
@@ -59,11 +62,24 @@ public class Booking {
     }
 
     public String getStatus() {
-        return status;
+        return status == NO_STATUS ? null : BookingStatus.fromCode(status).getDisplayName();
     }
 
+    // Accepts the legacy spellings BookingStatus.fromString knows
     public void setStatus(String status) {
-        this.status = status;
+        BookingStatus parsed = BookingStatus.fromString(status);
+        if (parsed == null && status != null) {
+            throw new IllegalArgumentException("Unknown booking status: " + status);
+        }
+        setBookingStatus(parsed);
+    }
+
+    public BookingStatus getBookingStatus() {
+        return status == NO_STATUS ? null : BookingStatus.fromCode(status);
+    }
+
+    public void setBookingStatus(BookingStatus status) {
+        this.status = status == null ? NO_STATUS : status.code();
     }
 
     public double getPrice() {
@@ -0,0 +1,103 @@
+package com.example.nepaltourismmanagement.models;
+
+/**
+ * Status of a booking, and the changes allowed between statuses:
+ * Pending to Confirmed to Completed, and Pending or Confirmed to Cancelled.
+ * Setting the status a booking already has is always allowed; Completed and
+ * Cancelled are final.
+ *
+ * The ordinal is what gets stored, as the status byte of a Booking in memory
+ * and of a record in bookings.dat, so new statuses must be added at the end.
+ */
+public enum BookingStatus {
+    PENDING("Pending"),
+    CONFIRMED("Confirmed"),
+    COMPLETED("Completed"),
+    CANCELLED("Cancelled");
+
+    private static final BookingStatus[] VALUES = values();
+
+    private final String displayName;
+
+    BookingStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    // Name shown to users and written to bookings.txt
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    // The stored form of the status
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static BookingStatus fromCode(int code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown booking status code: " + code);
+        }
+        return VALUES[code];
+    }
+
+    /**
+     * Read a status as written by this or older versions: the display name in
+     * any case, the constant name, or the American spelling "Canceled"
+     * @param text The status text
+     * @return The status, or null if the text is not one
+     */
+    public static BookingStatus fromString(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        // Current files use the display names exactly
+        for (BookingStatus status : VALUES) {
+            if (status.displayName.equals(text)) {
+                return status;
+            }
+        }
+
+        String trimmed = text.trim();
+        for (BookingStatus status : VALUES) {
+            if (status.displayName.equalsIgnoreCase(trimmed) || status.name().equalsIgnoreCase(trimmed)) {
+                return status;
+            }
+        }
+        return "canceled".equalsIgnoreCase(trimmed) ? CANCELLED : null;
+    }
+
+    /**
+     * Check whether a booking with this status may be given another
+     * @param next The new status
+     * @return true if the change is allowed
+     */
+    public boolean canChangeTo(BookingStatus next) {
+        if (next == this) {
+            return true;
+        }
+        switch (this) {
+            case PENDING:
+                return next == CONFIRMED || next == CANCELLED;
+            case CONFIRMED:
+                return next == COMPLETED || next == CANCELLED;
+            default:
+                return false;
+        }
+    }
+
+    // Confirmed and completed bookings count towards revenue
+    public boolean isEarning() {
+        return this == CONFIRMED || this == COMPLETED;
+    }
+
+    // Pending and confirmed bookings keep their guide busy
+    public boolean occupiesGuide() {
+        return this == PENDING || this == CONFIRMED;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Fixed-width binary snapshot layout for bookings (bookings.dat).
+ *
+ * Header, 16 bytes: magic "TMSB", version (short), record size (short),
+ * record count (long). Then one 82-byte record per booking:
+ *
+ *   id, trekId, touristId, guideId   4 x 16 bytes, each UUID as two longs
+ *   bookingDate                      int, epoch day
+ *   status                           byte, BookingStatus code
+ *   flags                            byte, HAS_GUIDE | HIGH_RISK
+ *   price                            long, cents
+ *   duration                         int, days
+ *
+ * Bookings that do not fit the layout (ids that are not UUIDs, no status,
+ * unreadable dates, prices with fractions of a cent) are written as ordinary
+ * pipe-delimited lines after the fixed-width section, so converting never
+ * loses data.
+ *
+ * Reads map the file and walk it with a {@link Cursor}, so a scan is sequential
+ * memory access; the cursor's primitive getters read fields in place without
+ * allocating anything per row. A mapping is indexed by int, so files past 2 GB
+ * are mapped a chunk of whole records at a time.
+ */
+class BinaryBookingFormat implements SnapshotFormat<Booking> {
+
+    static final int MAGIC = 0x544D5342; // "TMSB"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 82;
+
+    // Most records mapped at once, so a chunk's offsets fit in an int
+    static final int MAX_CHUNK_RECORDS = Integer.MAX_VALUE / RECORD_SIZE;
+
+    static final int HAS_GUIDE = 1;
+    static final int HIGH_RISK = 2;
+
+    // Field offsets within a record
+    private static final int ID = 0;
+    private static final int TREK_ID = 16;
+    private static final int TOURIST_ID = 32;
+    private static final int GUIDE_ID = 48;
+    private static final int DATE = 64;
+    private static final int STATUS = 68;
+    private static final int FLAGS = 69;
+    private static final int PRICE = 70;
+    private static final int DURATION = 78;
+
+    private final Function<String, Booking> lineParser;
+    private final Function<Booking, String> lineFormatter;
+    private final int chunkRecords;
+
+    /**
+     * @param lineParser Parses the text lines after the fixed-width section
+     * @param lineFormatter Formats bookings that do not fit the fixed-width layout
+     */
+    BinaryBookingFormat(Function<String, Booking> lineParser, Function<Booking, String> lineFormatter) {
+        this(lineParser, lineFormatter, MAX_CHUNK_RECORDS);
+    }
+
+    // Mapping fewer records at a time lets tests cross chunk boundaries on small files
+    BinaryBookingFormat(Function<String, Booking> lineParser, Function<Booking, String> lineFormatter,
+                        int chunkRecords) {
+        this.lineParser = lineParser;
+        this.lineFormatter = lineFormatter;
+        this.chunkRecords = Math.max(1, Math.min(chunkRecords, MAX_CHUNK_RECORDS));
+    }
+
+    @Override
+    public void read(Path file, Consumer<Booking> onRecord, Consumer<String> onUnreadable) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Cursor cursor = new Cursor(channel, chunkRecords);
+            while (cursor.next()) {
+                onRecord.accept(cursor.toBooking());
+            }
+
+            // Text section with the bookings that did not fit the layout, decoded as it is read
+            channel.position(cursor.endOfRecords());
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                Booking booking = lineParser.apply(line);
+                if (booking != null) {
+                    onRecord.accept(booking);
+                } else {
+                    onUnreadable.accept(line);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void write(Path file, List<Booking> bookings, List<String> unreadable) throws IOException {
+        List<Booking> fixed = new ArrayList<>(bookings.size());
+        List<String> lines = new ArrayList<>();
+
+        for (Booking booking : bookings) {
+            if (fits(booking)) {
+                fixed.add(booking);
+            } else {
+                lines.add(lineFormatter.apply(booking));
+            }
+        }
+        lines.addAll(unreadable);
+
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(RECORD_SIZE);
+            out.writeLong(fixed.size());
+
+            for (Booking booking : fixed) {
+                writeUuid(out, booking.getId());
+                writeUuid(out, booking.getTrekId());
+                writeUuid(out, booking.getTouristId());
+                if (booking.getGuideId() != null) {
+                    writeUuid(out, booking.getGuideId());
+                } else {
+                    out.writeLong(0);
+                    out.writeLong(0);
+                }
+                out.writeInt((int) BookingTimeSeries.parseEpochDay(booking.getBookingDate()));
+                out.writeByte(booking.getBookingStatus().code());
+                out.writeByte((booking.getGuideId() != null ? HAS_GUIDE : 0)
+                        | (booking.isHighRiskAcknowledged() ? HIGH_RISK : 0));
+                out.writeLong(BookingAggregates.toCents(booking.getPrice()));
+                out.writeInt(booking.getDuration());
+            }
+
+            for (String line : lines) {
+                out.write(line.getBytes(StandardCharsets.UTF_8));
+                out.write('\n');
+            }
+        }
+    }
+
+    // Whether a booking can be stored in the fixed-width layout without losing anything
+    static boolean fits(Booking booking) {
+        long day = BookingTimeSeries.parseEpochDay(booking.getBookingDate());
+        return isCanonicalUuid(booking.getId())
+                && isCanonicalUuid(booking.getTrekId())
+                && isCanonicalUuid(booking.getTouristId())
+                && (booking.getGuideId() == null || isCanonicalUuid(booking.getGuideId()))
+                && day != BookingTimeSeries.NO_DATE && day == (int) day
+                && booking.getBookingDate().length() == 10
+                && booking.getBookingStatus() != null
+                && BookingAggregates.toCents(booking.getPrice()) / 100.0 == booking.getPrice();
+    }
+
+    // True if the text reads back identically from a UUID
+    private static boolean isCanonicalUuid(String text) {
+        if (text == null || text.length() != 36) {
+            return false;
+        }
+        try {
+            return UUID.fromString(text).toString().equals(text);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, String text) throws IOException {
+        UUID uuid = UUID.fromString(text);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Sequential reader over the fixed-width section of a snapshot, mapped a
+     * chunk of whole records at a time. The primitive getters read the current
+     * record in place.
+     */
+    static final class Cursor {
+        private final FileChannel channel;
+        private final int chunkRecords;
+        private final long count;
+        private long index = -1;
+
+        // The mapped chunk holds records chunkStart to chunkEnd (exclusive)
+        private MappedByteBuffer buffer;
+        private long chunkStart;
+        private long chunkEnd;
+        private int offset;
+
+        Cursor(FileChannel channel, int chunkRecords) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    break;
+                }
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a binary bookings file");
+            }
+            if (header.getShort(4) != VERSION || header.getShort(6) != RECORD_SIZE) {
+                throw new IOException("Unsupported binary bookings version " + header.getShort(4));
+            }
+
+            this.channel = channel;
+            this.chunkRecords = chunkRecords;
+            this.count = header.getLong(8);
+            if (count < 0 || count > (channel.size() - HEADER_SIZE) / RECORD_SIZE) {
+                throw new IOException("Binary bookings file is truncated");
+            }
+        }
+
+        boolean next() throws IOException {
+            if (index + 1 >= count) {
+                return false;
+            }
+            index++;
+            if (index == chunkEnd) {
+                long records = Math.min(count - index, chunkRecords);
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + index * RECORD_SIZE,
+                        records * RECORD_SIZE);
+                chunkStart = index;
+                chunkEnd = index + records;
+            }
+            offset = (int) (index - chunkStart) * RECORD_SIZE;
+            return true;
+        }
+
+        // File position just after the last fixed-width record
+        long endOfRecords() {
+            return HEADER_SIZE + count * RECORD_SIZE;
+        }
+
+        long epochDay() {
+            return buffer.getInt(offset + DATE);
+        }
+
+        int statusCode() {
+            return buffer.get(offset + STATUS);
+        }
+
+        boolean hasGuide() {
+            return (buffer.get(offset + FLAGS) & HAS_GUIDE) != 0;
+        }
+
+        boolean isHighRisk() {
+            return (buffer.get(offset + FLAGS) & HIGH_RISK) != 0;
+        }
+
+        long priceCents() {
+            return buffer.getLong(offset + PRICE);
+        }
+
+        int duration() {
+            return buffer.getInt(offset + DURATION);
+        }
+
+        private String uuid(int field) {
+            return new UUID(buffer.getLong(offset + field), buffer.getLong(offset + field + 8)).toString();
+        }
+
+        // Materialize the current record
+        Booking toBooking() {
+            Booking booking = new Booking();
+            booking.setId(uuid(ID));
+            booking.setTrekId(uuid(TREK_ID));
+            booking.setTouristId(uuid(TOURIST_ID));
+            booking.setGuideId(hasGuide() ? uuid(GUIDE_ID) : null);
+            booking.setBookingDate(LocalDate.ofEpochDay(epochDay()).toString());
+            booking.setBookingStatus(BookingStatus.fromCode(statusCode()));
+            booking.setPrice(priceCents() / 100.0);
+            booking.setDuration(duration());
+            booking.setHighRiskAcknowledged(isHighRisk());
+            return booking;
+        }
+    }
+}
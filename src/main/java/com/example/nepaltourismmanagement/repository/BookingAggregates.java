@@ -0,0 +1,144 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Booking counters kept up to date on every mutation.
+ *
+ * BookingRepository adds each booking when it is indexed and subtracts it when
+ * it is unindexed, so a status change, re-price or date change moves the
+ * booking between counters and the totals never need a scan. Per-date totals
+ * are kept separately by BookingTimeSeries. Revenue is kept
+ * in cents so repeated additions and subtractions stay exact.
+ *
+ * Not thread-safe on its own: it is only changed under the repository write
+ * lock and only read under its read lock.
+ */
+class BookingAggregates {
+
+    private int bookingCount;
+    private long revenueCents;
+    // Bookings per status, by BookingStatus code
+    private final int[] statusCounts = new int[BookingStatus.values().length];
+    private final Map<String, Integer> bookingsPerTrek = new HashMap<>();
+    private final Map<String, Long> revenueCentsPerTrek = new HashMap<>();
+
+    // Confirmed and completed bookings count towards revenue
+    static boolean isEarning(BookingStatus status) {
+        return status != null && status.isEarning();
+    }
+
+    static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    void add(Booking booking) {
+        apply(booking, 1);
+    }
+
+    void remove(Booking booking) {
+        apply(booking, -1);
+    }
+
+    private void apply(Booking booking, int sign) {
+        bookingCount += sign;
+        BookingStatus status = booking.getBookingStatus();
+        if (status != null) {
+            statusCounts[status.code()] += sign;
+        }
+        adjust(bookingsPerTrek, booking.getTrekId(), sign);
+
+        if (isEarning(status)) {
+            long cents = sign * toCents(booking.getPrice());
+            revenueCents += cents;
+            if (booking.getTrekId() != null && cents != 0) {
+                revenueCentsPerTrek.merge(booking.getTrekId(), cents, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+    }
+
+    // Add to a counter, dropping it once it falls back to zero
+    private static void adjust(Map<String, Integer> counters, String key, int delta) {
+        if (key != null) {
+            counters.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    void clear() {
+        bookingCount = 0;
+        revenueCents = 0;
+        Arrays.fill(statusCounts, 0);
+        bookingsPerTrek.clear();
+        revenueCentsPerTrek.clear();
+    }
+
+    /**
+     * Copy the counters so they can be read after the lock is released
+     */
+    BookingAggregates copy() {
+        BookingAggregates copy = new BookingAggregates();
+        copy.bookingCount = bookingCount;
+        copy.revenueCents = revenueCents;
+        System.arraycopy(statusCounts, 0, copy.statusCounts, 0, statusCounts.length);
+        copy.bookingsPerTrek.putAll(bookingsPerTrek);
+        copy.revenueCentsPerTrek.putAll(revenueCentsPerTrek);
+        return copy;
+    }
+
+    int getBookingCount() {
+        return bookingCount;
+    }
+
+    long getRevenueCents() {
+        return revenueCents;
+    }
+
+    // Number of bookings per status, for the statuses that have any
+    Map<BookingStatus, Integer> getStatusCounts() {
+        Map<BookingStatus, Integer> counts = new EnumMap<>(BookingStatus.class);
+        for (BookingStatus status : BookingStatus.values()) {
+            if (statusCounts[status.code()] != 0) {
+                counts.put(status, statusCounts[status.code()]);
+            }
+        }
+        return counts;
+    }
+
+    // Number of bookings per trek id
+    Map<String, Integer> getBookingsPerTrek() {
+        return bookingsPerTrek;
+    }
+
+    // Revenue in cents of confirmed and completed bookings per trek id
+    Map<String, Long> getRevenueCentsPerTrek() {
+        return revenueCentsPerTrek;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof BookingAggregates)) {
+            return false;
+        }
+
+        BookingAggregates that = (BookingAggregates) other;
+        return bookingCount == that.bookingCount
+                && revenueCents == that.revenueCents
+                && Arrays.equals(statusCounts, that.statusCounts)
+                && bookingsPerTrek.equals(that.bookingsPerTrek)
+                && revenueCentsPerTrek.equals(that.revenueCentsPerTrek);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(revenueCents) * 31 + bookingCount;
+    }
+}
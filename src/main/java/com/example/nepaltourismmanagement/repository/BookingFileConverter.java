@@ -0,0 +1,81 @@
+package com.example.nepaltourismmanagement.repository;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * One-shot converter between the text (bookings.txt) and binary (bookings.dat)
+ * bookings formats.
+ *
+ * The source is loaded with its mutation log folded in, and the target is
+ * rewritten in one go, including any lines the source could not parse. The
+ * source file is left in place. Run it while the application is stopped:
+ *
+ *   java -cp target/classes com.example.nepaltourismmanagement.repository.BookingFileConverter to-binary data/
+ */
+public class BookingFileConverter {
+
+    /**
+     * Convert the bookings of a data directory
+     * @param dataDir The data directory, ending with a separator
+     * @param target The format to convert to
+     * @return The number of bookings written, or -1 if the target could not be written
+     */
+    public static int convert(String dataDir, BookingRepository.Format target) {
+        BookingRepository.Format sourceFormat = target == BookingRepository.Format.BINARY
+                ? BookingRepository.Format.TEXT : BookingRepository.Format.BINARY;
+
+        String sourceFile = dataDir + BookingRepository.fileName(sourceFormat);
+        String targetFile = dataDir + BookingRepository.fileName(target);
+
+        long startTime = System.nanoTime();
+
+        BookingRepository source = new BookingRepository(sourceFile, sourceFormat);
+        source.load();
+
+        BookingRepository destination = new BookingRepository(targetFile, target);
+        destination.load();
+        if (!destination.replaceAll(source.findAll(), source.getUnreadableEntries())) {
+            return -1;
+        }
+
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        System.out.println("Converted " + destination.size() + " bookings from " + sourceFile +
+                " to " + targetFile + " in " + elapsedMillis + " ms");
+        return destination.size();
+    }
+
+    /**
+     * Convert to binary the first time the binary format is used, so switching
+     * the format does not start the application without bookings
+     * @param dataDir The data directory, ending with a separator
+     */
+    static void convertIfMissing(String dataDir) {
+        boolean hasBinary = Files.exists(Paths.get(dataDir + BookingRepository.fileName(BookingRepository.Format.BINARY)));
+        boolean hasText = Files.exists(Paths.get(dataDir + BookingRepository.fileName(BookingRepository.Format.TEXT)));
+
+        if (!hasBinary && hasText) {
+            System.out.println("No binary bookings file yet, converting " + dataDir + "bookings.txt");
+            convert(dataDir, BookingRepository.Format.BINARY);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || !(args[0].equals("to-binary") || args[0].equals("to-text"))) {
+            System.err.println("Usage: BookingFileConverter to-binary|to-text [dataDir]");
+            System.exit(2);
+        }
+
+        String dataDir = args.length > 1 ? args[1] : "data/";
+        if (!dataDir.endsWith("/") && !dataDir.endsWith("\\")) {
+            dataDir = dataDir + "/";
+        }
+
+        BookingRepository.Format target = args[0].equals("to-binary")
+                ? BookingRepository.Format.BINARY : BookingRepository.Format.TEXT;
+
+        if (convert(dataDir, target) < 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.Trek;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Grouped queries over bookings joined with their treks, run in memory.
+ *
+ * Each query is a hash join: the treks are visited once to map every trek id
+ * to its group key, then the bookings are visited once and each matching
+ * booking is added to the group of its trek. The cost is O(treks + bookings),
+ * with no per-booking lookups through DatabaseUtil. Bookings whose trek no
+ * longer exists are skipped.
+ */
+public class BookingJoins {
+
+    private final TrekRepository treks;
+    private final BookingRepository bookings;
+
+    public BookingJoins(DataStore store) {
+        this.treks = store.getTreks();
+        this.bookings = store.getBookings();
+    }
+
+    /**
+     * Sum the price of the matching bookings, grouped by an attribute of their trek,
+     * e.g. sumPriceByTrek(isEarning, Trek::getDifficulty) for revenue per difficulty
+     * @param where Which bookings to include
+     * @param groupBy The group key of a trek
+     * @return Total price per group; every trek group is present, even if its total is 0
+     */
+    public <K> Map<K, Double> sumPriceByTrek(Predicate<Booking> where, Function<Trek, K> groupBy) {
+        Map<String, K> groupOfTrek = groupTreks(groupBy);
+
+        Map<K, Double> totals = new LinkedHashMap<>();
+        for (K group : groupOfTrek.values()) {
+            totals.putIfAbsent(group, 0.0);
+        }
+
+        bookings.forEach(booking -> {
+            if (where.test(booking)) {
+                K group = groupOfTrek.get(booking.getTrekId());
+                if (group != null) {
+                    totals.merge(group, booking.getPrice(), Double::sum);
+                }
+            }
+        });
+
+        return totals;
+    }
+
+    /**
+     * Count the matching bookings, grouped by an attribute of their trek
+     * @param where Which bookings to include
+     * @param groupBy The group key of a trek
+     * @return Number of bookings per group; every trek group is present, even if its count is 0
+     */
+    public <K> Map<K, Integer> countByTrek(Predicate<Booking> where, Function<Trek, K> groupBy) {
+        Map<String, K> groupOfTrek = groupTreks(groupBy);
+
+        Map<K, Integer> counts = new LinkedHashMap<>();
+        for (K group : groupOfTrek.values()) {
+            counts.putIfAbsent(group, 0);
+        }
+
+        bookings.forEach(booking -> {
+            if (where.test(booking)) {
+                K group = groupOfTrek.get(booking.getTrekId());
+                if (group != null) {
+                    counts.merge(group, 1, Integer::sum);
+                }
+            }
+        });
+
+        return counts;
+    }
+
+    // Build side of the join: trek id to group key
+    private <K> Map<String, K> groupTreks(Function<Trek, K> groupBy) {
+        Map<String, K> groupOfTrek = new HashMap<>();
+        treks.forEach(trek -> {
+            K group = groupBy.apply(trek);
+            if (group != null) {
+                groupOfTrek.put(trek.getId(), group);
+            }
+        });
+        return groupOfTrek;
+    }
+}
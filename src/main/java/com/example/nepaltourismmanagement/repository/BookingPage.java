@@ -0,0 +1,38 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One window of the results of a {@link BookingQuery}, together with the
+ * number of bookings the whole query matches.
+ */
+public final class BookingPage {
+
+    private final List<Booking> bookings;
+    private final int offset;
+    private final int total;
+
+    public BookingPage(List<Booking> bookings, int offset, int total) {
+        this.bookings = Collections.unmodifiableList(bookings);
+        this.offset = offset;
+        this.total = total;
+    }
+
+    // The bookings of this window, in query order
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+    // Position of the first booking of this window among all results
+    public int getOffset() {
+        return offset;
+    }
+
+    // Number of bookings the query matches
+    public int getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Filters and sort order of a paged bookings query, see
+ * {@link BookingRepository#findPage(BookingQuery, int, int)}.
+ *
+ * Immutable, so one query can be shared by the background load of the first
+ * page and the later page fetches of the same table.
+ */
+public final class BookingQuery {
+
+    /**
+     * Orders the repository can page through from an index
+     */
+    public enum SortKey {
+        // Order the bookings were made in
+        NONE,
+        // Booking date, then order made
+        DATE,
+        // Status in BookingStatus order, then the order the bookings got it
+        STATUS
+    }
+
+    private static final BookingQuery ALL = new BookingQuery(null, null, null, null, SortKey.NONE, false);
+
+    private final BookingStatus status;
+    private final String trekId;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final SortKey sortKey;
+    private final boolean descending;
+
+    private BookingQuery(BookingStatus status, String trekId, LocalDate from, LocalDate to,
+                         SortKey sortKey, boolean descending) {
+        this.status = status;
+        this.trekId = trekId;
+        this.from = from;
+        this.to = to;
+        this.sortKey = sortKey;
+        this.descending = descending;
+    }
+
+    // Every booking, in the order they were made
+    public static BookingQuery all() {
+        return ALL;
+    }
+
+    // Only bookings with this status; null for any status
+    public BookingQuery withStatus(BookingStatus status) {
+        return new BookingQuery(status, trekId, from, to, sortKey, descending);
+    }
+
+    // Only bookings of this trek; null for any trek
+    public BookingQuery withTrek(String trekId) {
+        return new BookingQuery(status, trekId, from, to, sortKey, descending);
+    }
+
+    /**
+     * Only bookings dated within a range; bookings without a readable date are
+     * left out as soon as either end is set
+     * @param from First day, or null for no lower bound
+     * @param to Last day, inclusive, or null for no upper bound
+     */
+    public BookingQuery withDates(LocalDate from, LocalDate to) {
+        return new BookingQuery(status, trekId, from, to, sortKey, descending);
+    }
+
+    public BookingQuery sortedBy(SortKey sortKey, boolean descending) {
+        return new BookingQuery(status, trekId, from, to, Objects.requireNonNull(sortKey), descending);
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    public String getTrekId() {
+        return trekId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    boolean hasDateRange() {
+        return from != null || to != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BookingQuery)) {
+            return false;
+        }
+        BookingQuery other = (BookingQuery) o;
+        return descending == other.descending
+                && Objects.equals(status, other.status)
+                && Objects.equals(trekId, other.trekId)
+                && Objects.equals(from, other.from)
+                && Objects.equals(to, other.to)
+                && sortKey == other.sortKey;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, trekId, from, to, sortKey, descending);
+    }
+
+    @Override
+    public String toString() {
+        return "BookingQuery{status=" + status + ", trekId=" + trekId + ", from=" + from + ", to=" + to
+                + ", sortKey=" + sortKey + ", descending=" + descending + "}";
+    }
+}
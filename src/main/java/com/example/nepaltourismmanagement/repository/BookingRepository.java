@@ -0,0 +1,726 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Resident repository for bookings.txt with touristId, guideId, status, trekId
+ * and booking-date indexes, plus booking counters, a booking-date time series
+ * and guide schedules that are maintained on every mutation.
+ */
+public class BookingRepository extends FileRepository<Booking> {
+
+    private final MultiIndex byTourist = new MultiIndex();
+    private final MultiIndex byGuide = new MultiIndex();
+    private final StatusIndex byStatus = new StatusIndex();
+    private final MultiIndex byTrek = new MultiIndex();
+    private final DayIndex byDay = new DayIndex();
+
+    // Every booking id in the order the bookings were made, as the table keeps them
+    private final PositionIndex byPosition = new PositionIndex();
+    private final BookingAggregates aggregates = new BookingAggregates();
+    private final BookingTimeSeries timeSeries = new BookingTimeSeries();
+    private final GuideSchedules schedules = new GuideSchedules();
+
+    private static final int GUIDE_LOCK_STRIPES = 16;
+
+    // Assignments of the same guide are serialized on one of these
+    private final Lock[] guideLocks = new Lock[GUIDE_LOCK_STRIPES];
+
+    // A paged query whose status or trek filter matches at most this many bookings sorts them in memory
+    private static final int IN_MEMORY_SORT_LIMIT = 10_000;
+
+    /**
+     * Layout of the bookings snapshot file
+     */
+    public enum Format {
+        TEXT, BINARY
+    }
+
+    // System property selecting the bookings format: "text" (default) or "binary"
+    public static final String FORMAT_PROPERTY = "tourism.bookings.format";
+
+    /**
+     * Get the bookings format selected by the tourism.bookings.format system property
+     */
+    public static Format configuredFormat() {
+        String value = System.getProperty(FORMAT_PROPERTY, "text");
+        return "binary".equalsIgnoreCase(value.trim()) ? Format.BINARY : Format.TEXT;
+    }
+
+    // Name of the bookings snapshot file in the data directory
+    public static String fileName(Format format) {
+        return format == Format.BINARY ? "bookings.dat" : "bookings.txt";
+    }
+
+    public BookingRepository(String filePath) {
+        this(filePath, Format.TEXT);
+    }
+
+    public BookingRepository(String filePath, Format format) {
+        super(filePath, format == Format.BINARY
+                ? new BinaryBookingFormat(BookingRepository::parseTextLine, BookingRepository::formatLine)
+                : null);
+
+        for (int i = 0; i < GUIDE_LOCK_STRIPES; i++) {
+            guideLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    protected Booking parse(RecordTokenizer fields) {
+        return parseFields(fields);
+    }
+
+    @Override
+    protected String format(Booking booking) {
+        return formatLine(booking);
+    }
+
+    // Parse a line of the text section of a binary snapshot
+    private static Booking parseTextLine(String line) {
+        try {
+            return parseFields(new RecordTokenizer().reset(line));
+        } catch (RuntimeException e) {
+            System.err.println("Malformed booking line: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Format: id|trekId|touristId|guideId|bookingDate|status|price|duration|highRiskAcknowledged
+    static Booking parseFields(RecordTokenizer fields) {
+        if (fields.fieldCount() < 9) {
+            return null;
+        }
+
+        Booking booking = new Booking();
+        booking.setId(fields.getString(0));
+        booking.setTrekId(fields.getString(1));
+        booking.setTouristId(fields.getString(2));
+        booking.setGuideId(fields.isEmpty(3) ? null : fields.getString(3));
+        booking.setBookingDate(fields.getString(4));
+        booking.setBookingStatus(parseStatus(fields, 5));
+        booking.setPrice(fields.getDouble(6));
+        booking.setDuration(fields.getInt(7));
+        booking.setHighRiskAcknowledged(fields.getBoolean(8));
+        return booking;
+    }
+
+    // Match the status names in place; only a legacy spelling is copied out to be read
+    private static BookingStatus parseStatus(RecordTokenizer fields, int field) {
+        for (BookingStatus status : BookingStatus.values()) {
+            if (fields.fieldEquals(field, status.getDisplayName())) {
+                return status;
+            }
+        }
+
+        String text = fields.getString(field);
+        BookingStatus status = BookingStatus.fromString(text);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown booking status: " + text);
+        }
+        return status;
+    }
+
+    static String formatLine(Booking booking) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(booking.getId()).append("|");
+        sb.append(booking.getTrekId()).append("|");
+        sb.append(booking.getTouristId()).append("|");
+        sb.append(booking.getGuideId() != null ? booking.getGuideId() : "").append("|");
+        sb.append(booking.getBookingDate()).append("|");
+        sb.append(booking.getStatus()).append("|");
+        sb.append(booking.getPrice()).append("|");
+        sb.append(booking.getDuration()).append("|");
+        sb.append(booking.isHighRiskAcknowledged());
+        return sb.toString();
+    }
+
+    @Override
+    protected String idOf(Booking booking) {
+        return booking.getId();
+    }
+
+    @Override
+    protected void index(Booking booking) {
+        byPosition.add(booking.getId());
+        byTourist.add(booking.getTouristId(), booking.getId());
+        byGuide.add(booking.getGuideId(), booking.getId());
+        byStatus.add(booking.getBookingStatus(), booking.getId());
+        byTrek.add(booking.getTrekId(), booking.getId());
+        byDay.add(BookingTimeSeries.parseEpochDay(booking.getBookingDate()), booking.getId());
+        aggregates.add(booking);
+        timeSeries.add(booking);
+        schedules.add(booking);
+    }
+
+    @Override
+    protected void unindex(Booking booking) {
+        byPosition.remove(booking.getId());
+        byTourist.remove(booking.getTouristId(), booking.getId());
+        byGuide.remove(booking.getGuideId(), booking.getId());
+        byStatus.remove(booking.getBookingStatus(), booking.getId());
+        byTrek.remove(booking.getTrekId(), booking.getId());
+        byDay.remove(BookingTimeSeries.parseEpochDay(booking.getBookingDate()), booking.getId());
+        aggregates.remove(booking);
+        timeSeries.remove(booking);
+        schedules.remove(booking);
+    }
+
+    // Only the indexes whose key changed are touched, so e.g. a status change keeps the booking's place in the others
+    @Override
+    protected void reindex(Booking previous, Booking booking) {
+        String id = booking.getId();
+        if (!Objects.equals(previous.getTouristId(), booking.getTouristId())) {
+            byTourist.remove(previous.getTouristId(), id);
+            byTourist.add(booking.getTouristId(), id);
+        }
+        if (!Objects.equals(previous.getGuideId(), booking.getGuideId())) {
+            byGuide.remove(previous.getGuideId(), id);
+            byGuide.add(booking.getGuideId(), id);
+        }
+        if (previous.getBookingStatus() != booking.getBookingStatus()) {
+            byStatus.remove(previous.getBookingStatus(), id);
+            byStatus.add(booking.getBookingStatus(), id);
+        }
+        if (!Objects.equals(previous.getTrekId(), booking.getTrekId())) {
+            byTrek.remove(previous.getTrekId(), id);
+            byTrek.add(booking.getTrekId(), id);
+        }
+        if (!Objects.equals(previous.getBookingDate(), booking.getBookingDate())) {
+            byDay.remove(BookingTimeSeries.parseEpochDay(previous.getBookingDate()), id);
+            byDay.add(BookingTimeSeries.parseEpochDay(booking.getBookingDate()), id);
+        }
+        aggregates.remove(previous);
+        aggregates.add(booking);
+        timeSeries.remove(previous);
+        timeSeries.add(booking);
+        schedules.remove(previous);
+        schedules.add(booking);
+    }
+
+    @Override
+    protected void clearIndexes() {
+        byPosition.clear();
+        byTourist.clear();
+        byGuide.clear();
+        byStatus.clear();
+        byTrek.clear();
+        byDay.clear();
+        aggregates.clear();
+        timeSeries.clear();
+        schedules.clear();
+    }
+
+    /**
+     * Bookings of one tourist in the order they were made, looked up through the
+     * touristId index, so the cost grows with that tourist's bookings only
+     * @param touristId The tourist's user id
+     * @return The tourist's bookings
+     */
+    public List<Booking> findByTourist(String touristId) {
+        return read(() -> findAllById(byTourist.get(touristId)));
+    }
+
+    public List<Booking> findByGuide(String guideId) {
+        return read(() -> findAllById(byGuide.get(guideId)));
+    }
+
+    /**
+     * Bookings with one status, read from that status's partition of the
+     * status index, so the cost grows with the result only
+     * @param status The status
+     * @return The bookings, in the order they got the status
+     */
+    public List<Booking> findByStatus(BookingStatus status) {
+        return read(() -> findAllById(byStatus.get(status)));
+    }
+
+    // Number of bookings with a status, the size of its partition
+    public int countByStatus(BookingStatus status) {
+        return read(() -> byStatus.count(status));
+    }
+
+    /**
+     * One window of the bookings matching a query, read from the indexes so
+     * that only the bookings in the window are collected, however many match.
+     *
+     * Without a sort, the smallest filter index is walked. When a sorted
+     * query's status or trek filter matches few bookings, those are filtered
+     * and sorted in memory; otherwise the bookings are walked in sort order
+     * through the date or status index. Runs of an index that need no further
+     * filtering are counted by their size, and the window is read from its
+     * first position on, so a window anywhere in them costs O(log n) to find.
+     * @param query Filters and sort order
+     * @param offset Position of the first booking to return
+     * @param limit Most bookings to return
+     * @return The window and the number of bookings the query matches
+     */
+    public BookingPage findPage(BookingQuery query, int offset, int limit) {
+        return read(() -> {
+            Pager pager = page(query, new Pager(Math.max(offset, 0), Math.max(limit, 0), true));
+            return new BookingPage(pager.window, pager.offset, pager.matched);
+        });
+    }
+
+    /**
+     * Like {@link #findPage} without counting every match: the walk stops once
+     * the window is full. Fetching a window of a table whose size is already
+     * known costs the window itself when no filter has to be checked booking
+     * by booking, and at most the bookings before the window's end otherwise
+     * @param query Filters and sort order
+     * @param offset Position of the first booking to return
+     * @param limit Most bookings to return
+     * @return The bookings of the window
+     */
+    public List<Booking> findWindow(BookingQuery query, int offset, int limit) {
+        return read(() -> page(query, new Pager(Math.max(offset, 0), Math.max(limit, 0), false)).window);
+    }
+
+    // Walk the index that suits the query, feeding the matches to the pager in query order
+    private Pager page(BookingQuery query, Pager pager) {
+        Set<String> statusIds = query.getStatus() != null ? byStatus.partition(query.getStatus()) : null;
+        Set<String> trekIds = query.getTrekId() != null ? byTrek.get(query.getTrekId()) : null;
+        Set<String> smallest = statusIds;
+        if (trekIds != null && (smallest == null || trekIds.size() < smallest.size())) {
+            smallest = trekIds;
+        }
+
+        if (smallest != null && query.getSortKey() == BookingQuery.SortKey.NONE) {
+            // No sort: the smallest filter index, in its own order, checked only for the other filters
+            boolean filtered = query.hasDateRange()
+                    || (smallest == statusIds ? trekIds != null : statusIds != null);
+            scan(Collections.singletonList(smallest), filtered ? booking -> matches(booking, query) : null, pager);
+        } else if (smallest != null && smallest.size() <= IN_MEMORY_SORT_LIMIT) {
+            // Filter the few candidates, then sort them; List.sort is stable, so ties keep index order
+            List<SortEntry> candidates = new ArrayList<>();
+            for (String id : smallest) {
+                Booking booking = residentRecord(id);
+                if (booking != null && matches(booking, query)) {
+                    candidates.add(new SortEntry(booking));
+                }
+            }
+            candidates.sort(comparator(query));
+            for (SortEntry entry : candidates) {
+                if (pager.isDone()) {
+                    break;
+                }
+                pager.accept(entry.booking);
+            }
+        } else if (query.getSortKey() == BookingQuery.SortKey.STATUS) {
+            List<Set<String>> statuses = new ArrayList<>();
+            for (BookingStatus status : query.getStatus() != null
+                    ? Collections.singleton(query.getStatus()) : Arrays.asList(BookingStatus.values())) {
+                statuses.add(byStatus.partition(status));
+            }
+            if (query.isDescending()) {
+                Collections.reverse(statuses);
+            }
+            boolean filtered = query.getTrekId() != null || query.hasDateRange();
+            scan(statuses, filtered ? booking -> matches(booking, query) : null, pager);
+        } else if (query.getSortKey() == BookingQuery.SortKey.DATE || query.hasDateRange()) {
+            boolean filtered = query.getStatus() != null || query.getTrekId() != null;
+            scan(byDay.range(fromDay(query), toDay(query), query.isDescending()),
+                    filtered ? booking -> matches(booking, query) : null, pager);
+        } else {
+            // Every booking in the order made, read from the window's position on
+            scan(Collections.singletonList(byPosition), null, pager);
+        }
+        return pager;
+    }
+
+    /*
+     * Walk index runs in order. A run with no residual filter is counted by its
+     * size: it is skipped outside the window, and inside it only the ids in the
+     * window are read, from the window's first position on.
+     */
+    private void scan(Collection<? extends Set<String>> runs, Predicate<Booking> residual, Pager pager) {
+        for (Set<String> ids : runs) {
+            if (pager.isDone()) {
+                return;
+            }
+            if (residual == null) {
+                if (!pager.skip(ids.size())) {
+                    readWindow(ids, pager);
+                }
+                continue;
+            }
+            for (String id : ids) {
+                if (pager.isDone()) {
+                    return;
+                }
+                Booking booking = residentRecord(id);
+                if (booking != null && residual.test(booking)) {
+                    pager.accept(booking);
+                }
+            }
+        }
+    }
+
+    // Add the ids of a run that fall in the window, and count the whole run
+    private void readWindow(Set<String> ids, Pager pager) {
+        int first = Math.max(pager.offset - pager.matched, 0);
+        int last = Math.min(pager.end - pager.matched, ids.size());
+        Iterator<String> window = idsFrom(ids, first);
+        for (int position = first; position < last && window.hasNext(); position++) {
+            Booking booking = residentRecord(window.next());
+            if (booking != null) {
+                pager.window.add(booking);
+            }
+        }
+        pager.matched += ids.size();
+    }
+
+    // A position index starts at the position directly; any other set is stepped through to it
+    private static Iterator<String> idsFrom(Set<String> ids, int position) {
+        if (ids instanceof PositionIndex) {
+            return ((PositionIndex) ids).iterator(position);
+        }
+
+        Iterator<String> iterator = ids.iterator();
+        for (int i = 0; i < position && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        return iterator;
+    }
+
+    private static boolean matches(Booking booking, BookingQuery query) {
+        if (query.getStatus() != null && query.getStatus() != booking.getBookingStatus()) {
+            return false;
+        }
+        if (query.getTrekId() != null && !query.getTrekId().equals(booking.getTrekId())) {
+            return false;
+        }
+        if (query.hasDateRange()) {
+            long day = BookingTimeSeries.parseEpochDay(booking.getBookingDate());
+            return day >= fromDay(query) && day <= toDay(query);
+        }
+        return true;
+    }
+
+    // Undated bookings are left out as soon as the query has a date range
+    private static long fromDay(BookingQuery query) {
+        if (query.getFrom() != null) {
+            return query.getFrom().toEpochDay();
+        }
+        return query.hasDateRange() ? BookingTimeSeries.NO_DATE + 1 : BookingTimeSeries.NO_DATE;
+    }
+
+    private static long toDay(BookingQuery query) {
+        return query.getTo() != null ? query.getTo().toEpochDay() : Long.MAX_VALUE;
+    }
+
+    // Same order the date or status index gives
+    private static Comparator<SortEntry> comparator(BookingQuery query) {
+        Comparator<SortEntry> order = query.getSortKey() == BookingQuery.SortKey.STATUS
+                ? Comparator.comparing(entry -> entry.booking.getBookingStatus(), Comparator.nullsFirst(Comparator.naturalOrder()))
+                : Comparator.comparingLong(entry -> entry.day);
+        return query.isDescending() ? order.reversed() : order;
+    }
+
+    // A booking with its date parsed once, for sorting
+    private static final class SortEntry {
+        final Booking booking;
+        final long day;
+
+        SortEntry(Booking booking) {
+            this.booking = booking;
+            this.day = BookingTimeSeries.parseEpochDay(booking.getBookingDate());
+        }
+    }
+
+    // Collects one window of the matching bookings, and counts all of them if asked to
+    private static final class Pager {
+        final int offset;
+        final int end;
+        final boolean countAll;
+        final List<Booking> window = new ArrayList<>();
+        int matched;
+
+        Pager(int offset, int limit, boolean countAll) {
+            this.offset = offset;
+            this.end = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+            this.countAll = countAll;
+        }
+
+        // Nothing left to collect or count
+        boolean isDone() {
+            return !countAll && matched >= end;
+        }
+
+        boolean inWindow() {
+            return matched >= offset && matched < end;
+        }
+
+        void accept(Booking booking) {
+            if (inWindow()) {
+                window.add(booking);
+            }
+            matched++;
+        }
+
+        // Count a run of matches at once if none of it falls in the window
+        boolean skip(int count) {
+            if (matched + count <= offset || matched >= end) {
+                matched += count;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Check whether a guide has no pending or confirmed trip on any day of a range
+     * @param guideId The guide
+     * @param start First day of the range
+     * @param duration Length of the range in days
+     * @param ignoredBookingId A booking whose own trip does not count, e.g. the one being assigned; may be null
+     * @return true if the guide is free for the whole range
+     */
+    public boolean isGuideFree(String guideId, LocalDate start, int duration, String ignoredBookingId) {
+        long firstDay = start.toEpochDay();
+        long lastDay = GuideSchedules.lastDay(firstDay, duration);
+        return read(() -> schedules.isFree(guideId, firstDay, lastDay, ignoredBookingId));
+    }
+
+    /**
+     * The guides that are free for a whole range, each checked in O(log n) of its own trips
+     * @param guideIds The guides to check
+     * @param start First day of the range
+     * @param duration Length of the range in days
+     * @param ignoredBookingId A booking whose own trip does not count; may be null
+     * @return The free guides, in the order given
+     */
+    public List<String> findFreeGuides(Collection<String> guideIds, LocalDate start, int duration,
+                                       String ignoredBookingId) {
+        long firstDay = start.toEpochDay();
+        long lastDay = GuideSchedules.lastDay(firstDay, duration);
+        return read(() -> {
+            List<String> free = new ArrayList<>();
+            for (String guideId : guideIds) {
+                if (schedules.isFree(guideId, firstDay, lastDay, ignoredBookingId)) {
+                    free.add(guideId);
+                }
+            }
+            return free;
+        });
+    }
+
+    /**
+     * Assign a guide to a booking unless the guide already has a trip on one of
+     * the booking's days. The check and the change are atomic with respect to
+     * other assignments of the guide.
+     * @param bookingId The booking
+     * @param guideId The guide to assign
+     * @param change Computes the assigned booking from the current one
+     * @return true if the booking was changed, false if it does not exist, the guide is busy or the log could not be written
+     */
+    public boolean assignGuideIfFree(String bookingId, String guideId, UnaryOperator<Booking> change) {
+        Lock lock = guideLockFor(guideId);
+
+        lock.lock();
+        try {
+            return modify(bookingId, existing -> {
+                long firstDay = BookingTimeSeries.parseEpochDay(existing.getBookingDate());
+                if (firstDay != BookingTimeSeries.NO_DATE) {
+                    long lastDay = GuideSchedules.lastDay(firstDay, existing.getDuration());
+                    if (!read(() -> schedules.isFree(guideId, firstDay, lastDay, bookingId))) {
+                        return null;
+                    }
+                }
+                return change.apply(existing);
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replace a booking unless the new version gives its guide two trips on the
+     * same day. The guide's schedule is checked when the change makes the
+     * booking take up days it did not take up before: a new guide, other
+     * dates, another duration, or a status that starts occupying the guide.
+     * The check and the change are atomic with respect to assignments of the guide.
+     * @param bookingId The booking
+     * @param guideId The guide of the new version; may be null
+     * @param change Computes the new version from the current one; must keep guideId as its guide
+     * @return true if the booking was changed, false if it does not exist, the change returned null,
+     *         the guide is busy or the log could not be written
+     */
+    public boolean modifyIfGuideFree(String bookingId, String guideId, UnaryOperator<Booking> change) {
+        Lock lock = guideLockFor(guideId);
+
+        lock.lock();
+        try {
+            return modify(bookingId, existing -> {
+                Booking updated = change.apply(existing);
+                if (updated == null) {
+                    return null;
+                }
+                if (!Objects.equals(updated.getGuideId(), guideId)) {
+                    throw new IllegalArgumentException("Changed booking " + bookingId + " must have guide " + guideId);
+                }
+                if (takesNewGuideDays(existing, updated) && !isTripFree(updated)) {
+                    return null;
+                }
+                return updated;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // True if the new version of a booking occupies guide days the old one did not
+    private static boolean takesNewGuideDays(Booking previous, Booking updated) {
+        BookingStatus status = updated.getBookingStatus();
+        if (updated.getGuideId() == null || status == null || !status.occupiesGuide()) {
+            return false;
+        }
+
+        BookingStatus previousStatus = previous.getBookingStatus();
+        return previousStatus == null || !previousStatus.occupiesGuide()
+                || !updated.getGuideId().equals(previous.getGuideId())
+                || !Objects.equals(updated.getBookingDate(), previous.getBookingDate())
+                || updated.getDuration() != previous.getDuration();
+    }
+
+    // True if a booking's guide has no other trip on its days; also true if the date cannot be read
+    private boolean isTripFree(Booking booking) {
+        long firstDay = BookingTimeSeries.parseEpochDay(booking.getBookingDate());
+        if (firstDay == BookingTimeSeries.NO_DATE) {
+            return true;
+        }
+        long lastDay = GuideSchedules.lastDay(firstDay, booking.getDuration());
+        return read(() -> schedules.isFree(booking.getGuideId(), firstDay, lastDay, booking.getId()));
+    }
+
+    private Lock guideLockFor(String guideId) {
+        return guideLocks[(guideId == null ? 0 : guideId.hashCode()) & (GUIDE_LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Assign guides to many bookings with one batched write. Each assignment is
+     * checked against the guide's schedule, including the assignments made
+     * earlier in the same batch, and skipped if the guide is no longer free;
+     * the batch is atomic with respect to single assignments.
+     * @param guideByBooking Guide id to assign, per booking id
+     * @param change Computes the assigned booking from the current one and the guide id; null skips the booking
+     * @return Number of bookings assigned, or -1 if the log could not be written and nothing was assigned
+     */
+    public int assignGuidesIfFree(Map<String, String> guideByBooking, BiFunction<Booking, String, Booking> change) {
+        for (Lock lock : guideLocks) {
+            lock.lock();
+        }
+        try {
+            return modifyAll(guideByBooking.keySet(), existing -> {
+                String guideId = guideByBooking.get(existing.getId());
+                long firstDay = BookingTimeSeries.parseEpochDay(existing.getBookingDate());
+                if (firstDay != BookingTimeSeries.NO_DATE && !schedules.isFree(guideId, firstDay,
+                        GuideSchedules.lastDay(firstDay, existing.getDuration()), existing.getId())) {
+                    return null;
+                }
+                return change.apply(existing, guideId);
+            });
+        } finally {
+            for (int i = guideLocks.length - 1; i >= 0; i--) {
+                guideLocks[i].unlock();
+            }
+        }
+    }
+
+    // Run a query against the guide schedules under the read lock
+    <R> R readSchedules(Function<GuideSchedules, R> query) {
+        return read(() -> query.apply(schedules));
+    }
+
+    /**
+     * Workload of each guide, from the guide schedules
+     * @param guideIds The guides to summarize
+     * @param from First day of the window
+     * @param windowDays Length of the window in days
+     * @return Workload per guide id, in the order given
+     */
+    public Map<String, GuideWorkload> findWorkloads(Collection<String> guideIds, LocalDate from, int windowDays) {
+        return read(() -> {
+            Map<String, GuideWorkload> workloads = new LinkedHashMap<>();
+            for (String guideId : guideIds) {
+                workloads.put(guideId, schedules.workload(guideId, from, windowDays));
+            }
+            return workloads;
+        });
+    }
+
+    /**
+     * Bookings and revenue between two dates, bucketed by day, week or month
+     * @param from First day of the range
+     * @param to Last day of the range, inclusive
+     * @param granularity Size of the buckets
+     * @return One bucket per period in date order, including empty ones
+     */
+    public List<BookingTimeSeries.Bucket> findTimeSeries(LocalDate from, LocalDate to,
+                                                         BookingTimeSeries.Granularity granularity) {
+        return read(() -> timeSeries.query(from, to, granularity));
+    }
+
+    /**
+     * Monthly buckets up to and including the month of the latest booking
+     * @param count Number of months
+     * @return One bucket per month, oldest first
+     */
+    public List<BookingTimeSeries.Bucket> findRecentMonths(int count) {
+        return read(() -> timeSeries.recentMonths(count));
+    }
+
+    // Copy of the maintained counters
+    BookingAggregates getAggregates() {
+        return read(aggregates::copy);
+    }
+
+    // Counters recomputed from scratch by a scan over every booking
+    BookingAggregates recomputeAggregates() {
+        BookingAggregates fresh = new BookingAggregates();
+        forEach(fresh::add);
+        return fresh;
+    }
+
+    /**
+     * Check the maintained counters and time series against a full recomputation.
+     * Both are taken under the same read lock so no write can slip in between.
+     * @return true if they match
+     */
+    public boolean verifyAggregates() {
+        return read(() -> {
+            boolean matches = aggregates.equals(recomputeAggregates());
+            if (!matches) {
+                System.err.println("Booking counters do not match a full recomputation");
+            }
+
+            BookingTimeSeries freshSeries = new BookingTimeSeries();
+            forEach(freshSeries::add);
+            if (!timeSeries.equals(freshSeries)) {
+                System.err.println("Booking time series does not match a full recomputation");
+                matches = false;
+            }
+            return matches;
+        });
+    }
+}
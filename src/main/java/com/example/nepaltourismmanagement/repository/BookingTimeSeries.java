@@ -0,0 +1,277 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * Date-bucketed index of bookings by booking date.
+ *
+ * Booking counts and confirmed/completed revenue are kept per day, per ISO week
+ * (starting Monday) and per month, each in a TreeMap keyed by the epoch day the
+ * bucket starts on. A range query walks the bucket map of the requested
+ * granularity once from the first bucket fully inside the range, so it costs
+ * O(log n + buckets); only the partial buckets at the two ends of the range
+ * are summed from the day map. Dates are parsed once, when a booking is indexed.
+ *
+ * Not thread-safe on its own: BookingRepository changes it under its write lock
+ * and queries it under its read lock.
+ */
+public class BookingTimeSeries {
+
+    public enum Granularity {
+        DAY, WEEK, MONTH
+    }
+
+    /**
+     * Totals of one bucket of a range query
+     */
+    public static final class Bucket {
+        private final LocalDate start;
+        private final int bookings;
+        private final double revenue;
+
+        Bucket(LocalDate start, int bookings, double revenue) {
+            this.start = start;
+            this.bookings = bookings;
+            this.revenue = revenue;
+        }
+
+        // First day of the bucket
+        public LocalDate getStart() {
+            return start;
+        }
+
+        public int getBookings() {
+            return bookings;
+        }
+
+        // Revenue of the confirmed and completed bookings in the bucket
+        public double getRevenue() {
+            return revenue;
+        }
+    }
+
+    // Running totals of one bucket
+    private static final class Tally {
+        int bookings;
+        long revenueCents;
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Tally)) {
+                return false;
+            }
+            Tally that = (Tally) other;
+            return bookings == that.bookings && revenueCents == that.revenueCents;
+        }
+
+        @Override
+        public int hashCode() {
+            return bookings * 31 + Long.hashCode(revenueCents);
+        }
+    }
+
+    // Returned by parseEpochDay for dates that cannot be read
+    static final long NO_DATE = Long.MIN_VALUE;
+
+    private final TreeMap<Long, Tally> days = new TreeMap<>();
+    private final TreeMap<Long, Tally> weeks = new TreeMap<>();
+    private final TreeMap<Long, Tally> months = new TreeMap<>();
+
+    void add(Booking booking) {
+        apply(booking, 1);
+    }
+
+    void remove(Booking booking) {
+        apply(booking, -1);
+    }
+
+    private void apply(Booking booking, int sign) {
+        long day = parseEpochDay(booking.getBookingDate());
+        if (day == NO_DATE) {
+            return;
+        }
+
+        long cents = BookingAggregates.isEarning(booking.getBookingStatus())
+                ? sign * BookingAggregates.toCents(booking.getPrice()) : 0;
+
+        LocalDate date = LocalDate.ofEpochDay(day);
+        adjust(days, day, sign, cents);
+        adjust(weeks, weekStart(date).toEpochDay(), sign, cents);
+        adjust(months, date.withDayOfMonth(1).toEpochDay(), sign, cents);
+    }
+
+    // Add to a bucket, dropping it once it is empty again
+    private static void adjust(TreeMap<Long, Tally> buckets, long start, int bookings, long cents) {
+        Tally tally = buckets.computeIfAbsent(start, k -> new Tally());
+        tally.bookings += bookings;
+        tally.revenueCents += cents;
+        if (tally.bookings == 0) {
+            buckets.remove(start);
+        }
+    }
+
+    void clear() {
+        days.clear();
+        weeks.clear();
+        months.clear();
+    }
+
+    /**
+     * Bookings and revenue between two dates, one bucket per day, week or month.
+     * Buckets without bookings are included so the result is a continuous series.
+     * @param from First day of the range
+     * @param to Last day of the range, inclusive
+     * @param granularity Size of the buckets
+     * @return The buckets in date order; the first and last may cover only part of their period
+     */
+    List<Bucket> query(LocalDate from, LocalDate to, Granularity granularity) {
+        List<Bucket> result = new ArrayList<>();
+        if (from == null || to == null || from.isAfter(to)) {
+            return result;
+        }
+
+        TreeMap<Long, Tally> buckets = bucketsOf(granularity);
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+
+        // Walk the stored buckets of the range in order while stepping through every bucket start
+        Iterator<Map.Entry<Long, Tally>> stored =
+                buckets.subMap(bucketStart(from, granularity).toEpochDay(), true, toDay, true).entrySet().iterator();
+        Map.Entry<Long, Tally> next = stored.hasNext() ? stored.next() : null;
+
+        for (LocalDate start = bucketStart(from, granularity); !start.isAfter(to); start = nextBucket(start, granularity)) {
+            long startDay = start.toEpochDay();
+            long endDay = nextBucket(start, granularity).toEpochDay() - 1;
+
+            Tally tally = null;
+            if (next != null && next.getKey() == startDay) {
+                tally = next.getValue();
+                next = stored.hasNext() ? stored.next() : null;
+            }
+
+            if (startDay < fromDay || endDay > toDay) {
+                // Partial bucket at either end of the range
+                tally = sumDays(Math.max(startDay, fromDay), Math.min(endDay, toDay));
+            }
+
+            result.add(tally == null
+                    ? new Bucket(start, 0, 0.0)
+                    : new Bucket(start, tally.bookings, tally.revenueCents / 100.0));
+        }
+
+        return result;
+    }
+
+    /**
+     * The last few months up to and including the month of the latest booking
+     * @param count Number of months
+     * @return One bucket per month, oldest first; empty if there are no bookings
+     */
+    List<Bucket> recentMonths(int count) {
+        if (days.isEmpty() || count <= 0) {
+            return new ArrayList<>();
+        }
+
+        LocalDate latest = LocalDate.ofEpochDay(days.lastKey());
+        LocalDate from = latest.withDayOfMonth(1).minusMonths(count - 1);
+        LocalDate to = latest.with(TemporalAdjusters.lastDayOfMonth());
+        return query(from, to, Granularity.MONTH);
+    }
+
+    private Tally sumDays(long fromDay, long toDay) {
+        Tally total = new Tally();
+        for (Tally tally : days.subMap(fromDay, true, toDay, true).values()) {
+            total.bookings += tally.bookings;
+            total.revenueCents += tally.revenueCents;
+        }
+        return total;
+    }
+
+    private TreeMap<Long, Tally> bucketsOf(Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> days;
+            case WEEK -> weeks;
+            case MONTH -> months;
+        };
+    }
+
+    private static LocalDate bucketStart(LocalDate date, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> weekStart(date);
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextBucket(LocalDate start, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    private static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Read a yyyy-MM-dd date without going through a DateTimeFormatter
+     * @param date The date text; anything after the first 10 characters is ignored
+     * @return The epoch day, or NO_DATE if the text is not a valid date
+     */
+    static long parseEpochDay(String date) {
+        if (date == null || date.length() < 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return NO_DATE;
+        }
+
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 7);
+        int day = digits(date, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return NO_DATE;
+        }
+
+        try {
+            return LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) {
+            return NO_DATE;
+        }
+    }
+
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof BookingTimeSeries)) {
+            return false;
+        }
+
+        BookingTimeSeries that = (BookingTimeSeries) other;
+        return days.equals(that.days) && weeks.equals(that.weeks) && months.equals(that.months);
+    }
+
+    @Override
+    public int hashCode() {
+        return days.hashCode();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.BookingStatus;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of every metric shown on the admin dashboard.
+ * Built by {@link StatisticsEngine}; all maps are read-only.
+ */
+public final class DashboardStatistics {
+
+    private final int totalUsers;
+    private final int totalGuides;
+    private final int activeGuides;
+    private final int totalTreks;
+    private final int totalBookings;
+    private final double totalRevenue;
+    private final String mostPopularTrek;
+    private final int mostPopularTrekCount;
+    private final Map<BookingStatus, Integer> statusCounts;
+    private final Map<String, Integer> trekPopularity;
+    private final Map<String, Integer> treksByRegion;
+    private final Map<String, Integer> treksByDifficulty;
+    private final Map<String, Integer> bookingsByRegion;
+    private final Map<String, Double> revenueByDifficulty;
+    private final Map<YearMonth, Integer> monthlyBookings;
+
+    DashboardStatistics(int totalUsers, int totalGuides, int activeGuides, int totalTreks, int totalBookings,
+                        double totalRevenue, String mostPopularTrek, int mostPopularTrekCount,
+                        Map<BookingStatus, Integer> statusCounts, Map<String, Integer> trekPopularity,
+                        Map<String, Integer> treksByRegion, Map<String, Integer> treksByDifficulty,
+                        Map<String, Integer> bookingsByRegion, Map<String, Double> revenueByDifficulty,
+                        Map<YearMonth, Integer> monthlyBookings) {
+        this.totalUsers = totalUsers;
+        this.totalGuides = totalGuides;
+        this.activeGuides = activeGuides;
+        this.totalTreks = totalTreks;
+        this.totalBookings = totalBookings;
+        this.totalRevenue = totalRevenue;
+        this.mostPopularTrek = mostPopularTrek;
+        this.mostPopularTrekCount = mostPopularTrekCount;
+        EnumMap<BookingStatus, Integer> counts = new EnumMap<>(BookingStatus.class);
+        counts.putAll(statusCounts);
+        this.statusCounts = Collections.unmodifiableMap(counts);
+        this.trekPopularity = readOnly(trekPopularity);
+        this.treksByRegion = readOnly(treksByRegion);
+        this.treksByDifficulty = readOnly(treksByDifficulty);
+        this.bookingsByRegion = readOnly(bookingsByRegion);
+        this.revenueByDifficulty = readOnly(revenueByDifficulty);
+        this.monthlyBookings = Collections.unmodifiableMap(new TreeMap<>(monthlyBookings));
+    }
+
+    private static <V> Map<String, V> readOnly(Map<String, V> map) {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(map));
+    }
+
+    public int getTotalUsers() {
+        return totalUsers;
+    }
+
+    public int getTotalGuides() {
+        return totalGuides;
+    }
+
+    // Guides marked as available
+    public int getActiveGuides() {
+        return activeGuides;
+    }
+
+    public int getTotalTreks() {
+        return totalTreks;
+    }
+
+    public int getTotalBookings() {
+        return totalBookings;
+    }
+
+    // Revenue of confirmed and completed bookings
+    public double getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    // Empty if there are no bookings
+    public String getMostPopularTrek() {
+        return mostPopularTrek;
+    }
+
+    public int getMostPopularTrekCount() {
+        return mostPopularTrekCount;
+    }
+
+    public int getStatusCount(BookingStatus status) {
+        return statusCounts.getOrDefault(status, 0);
+    }
+
+    // Number of bookings per status, in BookingStatus order, for the statuses that have any
+    public Map<BookingStatus, Integer> getStatusCounts() {
+        return statusCounts;
+    }
+
+    // Number of bookings per trek name
+    public Map<String, Integer> getTrekPopularity() {
+        return trekPopularity;
+    }
+
+    // Number of treks per region
+    public Map<String, Integer> getTreksByRegion() {
+        return treksByRegion;
+    }
+
+    // Number of treks per difficulty
+    public Map<String, Integer> getTreksByDifficulty() {
+        return treksByDifficulty;
+    }
+
+    // Number of bookings per trek region
+    public Map<String, Integer> getBookingsByRegion() {
+        return bookingsByRegion;
+    }
+
+    // Revenue of confirmed and completed bookings per trek difficulty
+    public Map<String, Double> getRevenueByDifficulty() {
+        return revenueByDifficulty;
+    }
+
+    // Number of bookings per month for the twelve months up to the latest booking, oldest first
+    public Map<YearMonth, Integer> getMonthlyBookings() {
+        return monthlyBookings;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof DashboardStatistics)) {
+            return false;
+        }
+
+        DashboardStatistics that = (DashboardStatistics) other;
+        return totalUsers == that.totalUsers
+                && totalGuides == that.totalGuides
+                && activeGuides == that.activeGuides
+                && totalTreks == that.totalTreks
+                && totalBookings == that.totalBookings
+                && Double.compare(totalRevenue, that.totalRevenue) == 0
+                && mostPopularTrekCount == that.mostPopularTrekCount
+                && Objects.equals(mostPopularTrek, that.mostPopularTrek)
+                && statusCounts.equals(that.statusCounts)
+                && trekPopularity.equals(that.trekPopularity)
+                && treksByRegion.equals(that.treksByRegion)
+                && treksByDifficulty.equals(that.treksByDifficulty)
+                && bookingsByRegion.equals(that.bookingsByRegion)
+                && revenueByDifficulty.equals(that.revenueByDifficulty)
+                && monthlyBookings.equals(that.monthlyBookings);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(totalBookings, totalRevenue, mostPopularTrek, statusCounts, trekPopularity);
+    }
+
+    @Override
+    public String toString() {
+        return "DashboardStatistics{bookings=" + totalBookings + ", revenue=" + totalRevenue
+                + ", statusCounts=" + statusCounts + ", trekPopularity=" + trekPopularity
+                + ", bookingsByRegion=" + bookingsByRegion + ", revenueByDifficulty=" + revenueByDifficulty
+                + ", monthlyBookings=" + monthlyBookings + "}";
+    }
+}
@@ -0,0 +1,424 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
+import com.example.nepaltourismmanagement.models.Guide;
+import com.example.nepaltourismmanagement.models.Trek;
+import com.example.nepaltourismmanagement.models.User;
+import com.example.nepaltourismmanagement.models.UserRole;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic generator of large data directories for load and stress tests.
+ *
+ * Writes users.txt, treks.txt, guides.txt and bookings.txt with the repositories'
+ * own line formats. Records are streamed to disk one at a time, so the size is
+ * only limited by the disk: 10M bookings need about 1.7 GB.
+ *
+ * Ids are derived from the seed and the record number instead of being stored,
+ * which keeps memory flat and lets callers such as benchmarks compute valid ids
+ * (see {@link #userId(int)}) without reading the files back. The same seed and
+ * sizes always give byte-identical files.
+ *
+ * Users: one in 20 is a guide with a guide profile, one in 5000 an admin, the
+ * rest tourists. Bookings reference existing treks, tourists and guides. Booking
+ * dates follow the trekking seasons (busy in spring and autumn, quiet in the
+ * monsoon) with extra demand around Dashain, Tihar, Holi and Nepali New Year.
+ * Bookings before the as-of date are mostly completed, later ones pending or
+ * confirmed. Popular treks get far more bookings than remote ones.
+ *
+ *   java -cp target/classes com.example.nepaltourismmanagement.repository.DataGenerator \
+ *        --users 1000000 --bookings 10000000 --seed 42 --dir /tmp/load-test
+ */
+public class DataGenerator {
+
+    public static final long DEFAULT_SEED = 42L;
+    public static final int DEFAULT_TREKS = 40;
+    public static final int GUIDE_EVERY = 20;
+    public static final int ADMIN_EVERY = 5000;
+
+    // Reference date for statuses, matching the application's current date
+    private static final LocalDate AS_OF = LocalDate.of(2025, 7, 30);
+    private static final LocalDate FIRST_BOOKING_DATE = LocalDate.of(2023, 1, 1);
+    private static final LocalDate LAST_BOOKING_DATE = LocalDate.of(2025, 12, 31);
+
+    private static final String[][] TREKS_BY_REGION = {
+            { "Khumbu", "Everest Base Camp Trek", "Gokyo Lakes Trek", "Everest Three Passes Trek" },
+            { "Annapurna", "Annapurna Circuit", "Annapurna Base Camp Trek", "Poon Hill Trek", "Mardi Himal Trek" },
+            { "Langtang", "Langtang Valley Trek", "Gosainkunda Trek", "Tamang Heritage Trail" },
+            { "Manaslu", "Manaslu Circuit Trek", "Tsum Valley Trek" },
+            { "Mustang", "Upper Mustang Trek" },
+            { "Dolpo", "Upper Dolpo Trek", "Lower Dolpo Trek" },
+            { "Kanchenjunga", "Kanchenjunga Base Camp Trek" },
+            { "Makalu", "Makalu Base Camp Trek" }
+    };
+    private static final String[] DIFFICULTIES = { "Easy", "Moderate", "Difficult", "Very Difficult" };
+    private static final String[] NATIONALITIES = {
+            "Nepal", "India", "China", "United States", "United Kingdom", "Germany", "France",
+            "Australia", "Japan", "South Korea", "Netherlands", "Israel", "Canada", "Spain"
+    };
+    private static final String[] LANGUAGES = {
+            "English, Nepali", "English, Nepali, Hindi", "English, Nepali, Chinese",
+            "English, Nepali, German", "English, Nepali, French", "English, Nepali, Japanese"
+    };
+
+    // Relative demand per month, January first
+    private static final double[] MONTH_WEIGHTS = { 0.4, 0.6, 1.4, 1.6, 1.0, 0.4, 0.3, 0.3, 1.0, 2.0, 1.8, 0.7 };
+    private static final double FESTIVAL_WEIGHT = 2.5;
+    private static final double PEAK_PRICE_FACTOR = 1.1;
+
+    // Festival periods by year (approximate dates; they follow the lunar calendar)
+    private static final String[][] FESTIVALS = {
+            // Dashain, Tihar, Holi, Nepali New Year
+            { "2023-10-15", "2023-10-24", "2023-11-10", "2023-11-15", "2023-03-06", "2023-03-07", "2023-04-14", "2023-04-14" },
+            { "2024-10-03", "2024-10-12", "2024-10-29", "2024-11-03", "2024-03-24", "2024-03-25", "2024-04-13", "2024-04-13" },
+            { "2025-09-22", "2025-10-02", "2025-10-18", "2025-10-23", "2025-03-13", "2025-03-14", "2025-04-14", "2025-04-14" }
+    };
+
+    // Kinds of id, mixed into the id hash so users, treks, guides and bookings never collide
+    private static final long USER = 1, TREK = 2, GUIDE = 3, BOOKING = 4;
+
+    private final long seed;
+    private final int trekCount;
+
+    // Cumulative weights for picking booking dates and treks
+    private final double[] dateWeights;
+    private final double[] trekWeights;
+
+    public DataGenerator(long seed) {
+        this(seed, DEFAULT_TREKS);
+    }
+
+    public DataGenerator(long seed, int trekCount) {
+        this.seed = seed;
+        this.trekCount = trekCount;
+        this.dateWeights = cumulativeDateWeights();
+        this.trekWeights = cumulativeTrekWeights(trekCount);
+    }
+
+    /**
+     * Write a complete data directory, replacing the four data files
+     * @param dir The data directory; created if missing
+     * @param users Number of users, at least 2 so there are tourists to book
+     * @param bookings Number of bookings
+     */
+    public void generate(Path dir, int users, long bookings) throws IOException {
+        if (users < 2) {
+            throw new IllegalArgumentException("At least 2 users are needed, got " + users);
+        }
+
+        Files.createDirectories(dir);
+        // Old mutation logs would be replayed over the new files
+        for (String file : new String[] { "users.txt", "treks.txt", "guides.txt", "bookings.txt" }) {
+            Files.deleteIfExists(dir.resolve(file + ".log"));
+            Files.deleteIfExists(dir.resolve(file + ".log.compacting"));
+        }
+
+        writeTreks(dir.resolve("treks.txt"));
+        writeUsers(dir.resolve("users.txt"), users);
+        writeGuides(dir.resolve("guides.txt"), users);
+        writeBookings(dir.resolve("bookings.txt"), users, bookings);
+    }
+
+    public String userId(int user) {
+        return id(USER, user);
+    }
+
+    public static String username(int user) {
+        return "user" + user;
+    }
+
+    public static String password(int user) {
+        return "pass" + user;
+    }
+
+    public static UserRole roleOf(int user) {
+        if (user % GUIDE_EVERY == 0) {
+            return UserRole.GUIDE;
+        }
+        return user % ADMIN_EVERY == 1 ? UserRole.ADMIN : UserRole.TOURIST;
+    }
+
+    // Id of the guide profile of a guide user
+    public String guideId(int user) {
+        return id(GUIDE, user);
+    }
+
+    public String trekId(int trek) {
+        return id(TREK, trek);
+    }
+
+    public String bookingId(long booking) {
+        return id(BOOKING, booking);
+    }
+
+    public int getTrekCount() {
+        return trekCount;
+    }
+
+    private void writeTreks(Path file) throws IOException {
+        TrekRepository formatter = new TrekRepository(file.toString());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < trekCount; i++) {
+                writer.write(formatter.format(trek(i)));
+                writer.newLine();
+            }
+        }
+    }
+
+    private Trek trek(int index) {
+        String[] region = TREKS_BY_REGION[index % TREKS_BY_REGION.length];
+        int round = index / TREKS_BY_REGION.length;
+        String name = region[1 + round % (region.length - 1)];
+        if (round >= region.length - 1) {
+            name = name + " " + (round / (region.length - 1) + 1);
+        }
+
+        Trek trek = new Trek();
+        trek.setId(trekId(index));
+        trek.setName(name);
+        trek.setRegion(region[0]);
+        trek.setMaxAltitude(3200 + (index * 337) % 2600);
+        trek.setDuration(trekDuration(index));
+        trek.setDifficulty(trekDifficulty(index));
+        trek.setBasePrice(trekPrice(index));
+        trek.setDescription("Generated trek in the " + region[0] + " region");
+        trek.setSeasonal(index % 3 != 0);
+        trek.setBestSeason(index % 3 != 0 ? "Spring,Autumn" : "All year");
+        return trek;
+    }
+
+    private static int trekDuration(int trek) {
+        return 5 + (trek * 7) % 17;
+    }
+
+    private static String trekDifficulty(int trek) {
+        return DIFFICULTIES[(trek * 5 + trek / 8) % DIFFICULTIES.length];
+    }
+
+    private static double trekPrice(int trek) {
+        return 400 + trekDuration(trek) * 90 + (trek % 5) * 50;
+    }
+
+    private void writeUsers(Path file, int users) throws IOException {
+        UserRepository formatter = new UserRepository(file.toString());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < users; i++) {
+                User user = new User();
+                user.setId(userId(i));
+                user.setUsername(username(i));
+                user.setPassword(password(i));
+                user.setFullName("User " + i);
+                user.setEmail(username(i) + "@example.com");
+                user.setContactNumber(phoneNumber(i));
+                user.setNationality(roleOf(i) == UserRole.TOURIST ? NATIONALITIES[i % NATIONALITIES.length] : "Nepal");
+                user.setPassportNumber("P" + (10_000_000 + i));
+                user.setEmergencyContact(phoneNumber(i + 1));
+                user.setRole(roleOf(i));
+                user.setRegistrationDate(FIRST_BOOKING_DATE.minusDays(i % 700) + " 09:00:00");
+
+                writer.write(formatter.format(user));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String phoneNumber(int user) {
+        return "98" + String.format("%08d", user % 100_000_000);
+    }
+
+    private void writeGuides(Path file, int users) throws IOException {
+        GuideRepository formatter = new GuideRepository(file.toString());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < users; i += GUIDE_EVERY) {
+                Guide guide = new Guide();
+                guide.setId(guideId(i));
+                guide.setUserId(userId(i));
+                guide.setName("User " + i);
+                guide.setEmail(username(i) + "@example.com");
+                guide.setPhoneNumber(phoneNumber(i));
+                guide.setLanguages(LANGUAGES[(i / GUIDE_EVERY) % LANGUAGES.length]);
+                guide.setYearsOfExperience((i / GUIDE_EVERY) % 25);
+                guide.setCertifications("Basic Guide Training");
+                guide.setSpecializations("General Trekking");
+                guide.setAvailable(i % 7 != 0);
+
+                writer.write(formatter.format(guide));
+                writer.newLine();
+            }
+        }
+    }
+
+    private void writeBookings(Path file, int users, long bookings) throws IOException {
+        BookingRepository formatter = new BookingRepository(file.toString());
+        SplittableRandom random = new SplittableRandom(seed);
+        int guides = (users + GUIDE_EVERY - 1) / GUIDE_EVERY;
+        long startTime = System.nanoTime();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            Booking booking = new Booking();
+            for (long i = 0; i < bookings; i++) {
+                int trek = pick(trekWeights, random);
+                LocalDate date = FIRST_BOOKING_DATE.plusDays(pick(dateWeights, random));
+                BookingStatus status = pickStatus(date, random);
+                boolean guided = status == BookingStatus.CONFIRMED || status == BookingStatus.COMPLETED
+                        || (status == BookingStatus.CANCELLED && random.nextInt(3) == 0);
+                double price = trekPrice(trek) * (isPeakMonth(date.getMonth()) ? PEAK_PRICE_FACTOR : 1.0);
+
+                booking.setId(bookingId(i));
+                booking.setTrekId(trekId(trek));
+                booking.setTouristId(userId(randomTourist(random, users)));
+                booking.setGuideId(guided ? guideId(random.nextInt(guides) * GUIDE_EVERY) : null);
+                booking.setBookingDate(date.toString());
+                booking.setBookingStatus(status);
+                booking.setPrice(Math.round(price * 100) / 100.0);
+                booking.setDuration(trekDuration(trek));
+                booking.setHighRiskAcknowledged(trekDifficulty(trek).equals("Very Difficult"));
+
+                writer.write(formatter.format(booking));
+                writer.newLine();
+
+                if ((i + 1) % 1_000_000 == 0) {
+                    long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+                    System.out.println("  " + (i + 1) + " bookings written in " + elapsedMillis + " ms");
+                }
+            }
+        }
+    }
+
+    // A tourist; walks forward past guides and admins, wrapping around
+    private static int randomTourist(SplittableRandom random, int users) {
+        int user = random.nextInt(users);
+        while (roleOf(user) != UserRole.TOURIST) {
+            user = (user + 1) % users;
+        }
+        return user;
+    }
+
+    private static BookingStatus pickStatus(LocalDate date, SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (date.isBefore(AS_OF)) {
+            return roll < 80 ? BookingStatus.COMPLETED : roll < 92 ? BookingStatus.CANCELLED
+                    : roll < 97 ? BookingStatus.CONFIRMED : BookingStatus.PENDING;
+        }
+        return roll < 45 ? BookingStatus.PENDING : roll < 95 ? BookingStatus.CONFIRMED : BookingStatus.CANCELLED;
+    }
+
+    private static boolean isPeakMonth(Month month) {
+        return MONTH_WEIGHTS[month.ordinal()] >= 1.4;
+    }
+
+    private static double[] cumulativeDateWeights() {
+        int days = (int) (LAST_BOOKING_DATE.toEpochDay() - FIRST_BOOKING_DATE.toEpochDay()) + 1;
+        double[] weights = new double[days];
+        for (int day = 0; day < days; day++) {
+            weights[day] = MONTH_WEIGHTS[FIRST_BOOKING_DATE.plusDays(day).getMonthValue() - 1];
+        }
+
+        for (String[] year : FESTIVALS) {
+            for (int i = 0; i < year.length; i += 2) {
+                long from = LocalDate.parse(year[i]).toEpochDay() - FIRST_BOOKING_DATE.toEpochDay();
+                long to = LocalDate.parse(year[i + 1]).toEpochDay() - FIRST_BOOKING_DATE.toEpochDay();
+                for (long day = Math.max(0, from); day <= Math.min(days - 1, to); day++) {
+                    weights[(int) day] *= FESTIVAL_WEIGHT;
+                }
+            }
+        }
+        return cumulative(weights);
+    }
+
+    // Zipf-like popularity: the trek at rank r is booked about 1/(r+1) as often as the first
+    private static double[] cumulativeTrekWeights(int treks) {
+        double[] weights = new double[treks];
+        for (int trek = 0; trek < treks; trek++) {
+            weights[trek] = 1.0 / (trek + 1);
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] result = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            result[i] = total;
+        }
+        return result;
+    }
+
+    // Index drawn in proportion to its weight
+    private static int pick(double[] cumulative, SplittableRandom random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        return Math.min(index >= 0 ? index + 1 : -index - 1, cumulative.length - 1);
+    }
+
+    // Deterministic version 4 style UUID for a record
+    private String id(long kind, long index) {
+        long high = mix(seed ^ (kind << 56) ^ index);
+        long low = mix(high ^ index ^ 0x9E3779B97F4A7C15L);
+        high = (high & ~0xF000L) | 0x4000L;
+        low = (low & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(high, low).toString();
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static void main(String[] args) {
+        int users = 10_000;
+        long bookings = 100_000;
+        long seed = DEFAULT_SEED;
+        int treks = DEFAULT_TREKS;
+        String dir = "generated-data";
+
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--users" -> users = Integer.parseInt(value);
+                    case "--bookings" -> bookings = Long.parseLong(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--treks" -> treks = Integer.parseInt(value);
+                    case "--dir" -> dir = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: DataGenerator [--users N] [--bookings N] [--treks N] [--seed S] [--dir DIR]");
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            new DataGenerator(seed, treks).generate(Paths.get(dir), users, bookings);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error generating data: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        System.out.println("Generated " + users + " users, " + treks + " treks and " + bookings +
+                " bookings in " + dir + " (seed " + seed + ") in " + elapsedMillis + " ms");
+    }
+}
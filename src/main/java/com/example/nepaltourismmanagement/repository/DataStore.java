@@ -0,0 +1,116 @@
+package com.example.nepaltourismmanagement.repository;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The four entity repositories of one data directory.
+ *
+ * The application opens one DataStore through DatabaseUtil.getInstance() so
+ * that all readers and writers go through the same in-memory tables and locks.
+ */
+public class DataStore {
+
+    private final UserRepository users;
+    private final TrekRepository treks;
+    private final GuideRepository guides;
+    private final BookingRepository bookings;
+
+    private final String dataDir;
+    private final BookingRepository.Format bookingFormat;
+
+    public DataStore(String dataDir) {
+        this(dataDir, BookingRepository.configuredFormat());
+    }
+
+    /**
+     * @param dataDir The data directory, ending with a separator
+     * @param bookingFormat Text (bookings.txt) or binary (bookings.dat) bookings
+     */
+    public DataStore(String dataDir, BookingRepository.Format bookingFormat) {
+        this.dataDir = dataDir;
+        this.bookingFormat = bookingFormat;
+
+        users = new UserRepository(dataDir + "users.txt");
+        treks = new TrekRepository(dataDir + "treks.txt");
+        guides = new GuideRepository(dataDir + "guides.txt");
+        bookings = new BookingRepository(dataDir + BookingRepository.fileName(bookingFormat), bookingFormat);
+    }
+
+    /**
+     * Load every repository from its data file. The four files are loaded
+     * concurrently, and large text snapshots are also parsed in parallel byte
+     * ranges on the common fork-join pool. Nothing read here refers to another
+     * entity: trek, tourist and guide names are joined in when bookings are
+     * queried, once every load has finished.
+     * @return A report of the records, file size and time per entity, the total time and the core count
+     */
+    public String load() {
+        long startTime = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "data-store-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Future<String> userLoad = executor.submit(() -> loadTimed("users", users));
+            Future<String> trekLoad = executor.submit(() -> loadTimed("treks", treks));
+            Future<String> guideLoad = executor.submit(() -> loadTimed("guides", guides));
+            Future<String> bookingLoad = executor.submit(() -> {
+                if (bookingFormat == BookingRepository.Format.BINARY) {
+                    BookingFileConverter.convertIfMissing(dataDir);
+                }
+                return loadTimed("bookings", bookings);
+            });
+
+            StringBuilder report = new StringBuilder();
+            report.append(userLoad.get());
+            report.append(trekLoad.get());
+            report.append(guideLoad.get());
+            report.append(bookingLoad.get());
+
+            long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+            long totalBytes = users.getFileSize() + treks.getFileSize() + guides.getFileSize() + bookings.getFileSize();
+            report.append(String.format("  %d files (%.1f MB) loaded concurrently in %d ms on %d cores%n",
+                    4, totalBytes / (1024.0 * 1024.0), elapsedMillis, Runtime.getRuntime().availableProcessors()));
+            return report.toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading " + dataDir, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not load " + dataDir, e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private String loadTimed(String entity, FileRepository<?> repository) {
+        long startTime = System.nanoTime();
+        int count = repository.load();
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        long bytes = repository.getFileSize();
+        return String.format("  %-9s %8d records %9.1f MB in %d ms%n",
+                entity + ":", count, bytes / (1024.0 * 1024.0), elapsedMillis);
+    }
+
+    public UserRepository getUsers() {
+        return users;
+    }
+
+    public TrekRepository getTreks() {
+        return treks;
+    }
+
+    public GuideRepository getGuides() {
+        return guides;
+    }
+
+    public BookingRepository getBookings() {
+        return bookings;
+    }
+}
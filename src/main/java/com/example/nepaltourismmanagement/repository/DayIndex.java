@@ -0,0 +1,50 @@
+package com.example.nepaltourismmanagement.repository;
+
+import java.util.*;
+
+/**
+ * Secondary index from an epoch day to the ids of the records dated that day,
+ * sorted by day so a date range can be read in order. Ids of one day are kept
+ * in insertion order and can be read from any position on. Records without a
+ * readable date are kept under {@link BookingTimeSeries#NO_DATE}, which sorts
+ * before every real day.
+ */
+class DayIndex {
+
+    private final TreeMap<Long, PositionIndex> index = new TreeMap<>();
+
+    void add(long day, String id) {
+        if (id != null) {
+            index.computeIfAbsent(day, k -> new PositionIndex()).add(id);
+        }
+    }
+
+    void remove(long day, String id) {
+        PositionIndex ids = index.get(day);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(day);
+            }
+        }
+    }
+
+    /**
+     * The ids of each day in a range, one set per day
+     * @param fromDay First day, inclusive
+     * @param toDay Last day, inclusive
+     * @param descending Latest day first
+     * @return Unmodifiable view of the days' ids; callers must not modify the days' indexes
+     */
+    Collection<PositionIndex> range(long fromDay, long toDay, boolean descending) {
+        if (fromDay > toDay) {
+            return Collections.emptyList();
+        }
+        NavigableMap<Long, PositionIndex> days = index.subMap(fromDay, true, toDay, true);
+        return Collections.unmodifiableCollection((descending ? days.descendingMap() : days).values());
+    }
+
+    void clear() {
+        index.clear();
+    }
+}
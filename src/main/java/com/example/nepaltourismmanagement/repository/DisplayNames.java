@@ -0,0 +1,100 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Guide;
+import com.example.nepaltourismmanagement.models.Trek;
+import com.example.nepaltourismmanagement.models.User;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Trek, tourist and guide names by entity id, for filling in booking views.
+ *
+ * A name is looked up in its repository the first time it is asked for and
+ * kept until the entity is renamed or deleted. Names are interned, so the
+ * booking views of a popular trek all share one "Everest Base Camp Trek"
+ * instead of holding a copy each.
+ *
+ * Callers invalidate an entry after the repository write that changed it.
+ * An entry is filled inside ConcurrentHashMap.computeIfAbsent, which makes a
+ * concurrent invalidation of the same id wait for the fill to finish, so a
+ * name read just before a rename can't be left behind in the cache. Missing
+ * entities are not cached; a later insert is found on the next lookup.
+ */
+public class DisplayNames {
+
+    private final Map<String, String> trekNames = new ConcurrentHashMap<>();
+    private final Map<String, String> touristNames = new ConcurrentHashMap<>();
+    private final Map<String, String> guideNames = new ConcurrentHashMap<>();
+
+    private final TrekRepository treks;
+    private final UserRepository users;
+    private final GuideRepository guides;
+
+    public DisplayNames(DataStore store) {
+        this.treks = store.getTreks();
+        this.users = store.getUsers();
+        this.guides = store.getGuides();
+    }
+
+    // Name of a trek, or null if there is no such trek
+    public String trekName(String trekId) {
+        return lookup(trekNames, trekId, id -> {
+            Trek trek = treks.findById(id);
+            return trek != null ? trek.getName() : null;
+        });
+    }
+
+    // Full name of a user, or null if there is no such user
+    public String touristName(String userId) {
+        return lookup(touristNames, userId, id -> {
+            User user = users.findById(id);
+            return user != null ? user.getFullName() : null;
+        });
+    }
+
+    // Name of a guide, or null if there is no such guide
+    public String guideName(String guideId) {
+        return lookup(guideNames, guideId, id -> {
+            Guide guide = guides.findById(id);
+            return guide != null ? guide.getName() : null;
+        });
+    }
+
+    // Forget a trek's name after it was renamed or deleted
+    public void invalidateTrek(String trekId) {
+        invalidate(trekNames, trekId);
+    }
+
+    // Forget a user's name after it was changed or the user deleted
+    public void invalidateTourist(String userId) {
+        invalidate(touristNames, userId);
+    }
+
+    // Forget a guide's name after it was changed or the guide deleted
+    public void invalidateGuide(String guideId) {
+        invalidate(guideNames, guideId);
+    }
+
+    // Number of names currently cached
+    public int size() {
+        return trekNames.size() + touristNames.size() + guideNames.size();
+    }
+
+    private static String lookup(Map<String, String> names, String id, Function<String, String> load) {
+        if (id == null || id.isEmpty()) {
+            return null;
+        }
+        return names.computeIfAbsent(id, key -> {
+            String name = load.apply(key);
+            return name != null ? name.intern() : null;
+        });
+    }
+
+    private static void invalidate(Map<String, String> names, String id) {
+        if (id != null) {
+            names.remove(id);
+        }
+    }
+}
@@ -0,0 +1,915 @@
+package com.example.nepaltourismmanagement.repository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Base class for the resident, file-backed entity repositories.
+ *
+ * A repository reads its data file once, keeps every record in memory keyed by
+ * primary id, and maintains secondary indexes through the {@link #index(Object)}
+ * and {@link #unindex(Object)} hooks. Data files are pipe-delimited text unless
+ * the subclass supplies another {@link SnapshotFormat}.
+ *
+ * Mutations are not written to the data file directly. Each one is appended
+ * to a per-entity {@link MutationLog} (for example bookings.txt.log), which is
+ * forced to disk before the write returns and replayed on startup. Once enough entries build up, a background compaction
+ * writes the in-memory table to a temp file and renames it over the data file.
+ *
+ * Repositories are thread-safe. Each one has its own read/write lock, so
+ * readers of one entity never wait on writers of another, and the write lock
+ * is only held while the in-memory maps change, never during file I/O.
+ * Read-modify-write cycles on a single record are serialized by a lock stripe
+ * chosen from the record id, so concurrent writers to different records do
+ * not queue behind each other.
+ *
+ * Records handed out by a repository are the stored instances; callers that
+ * want to modify one must copy it and pass the copy to {@link #update(Object)}
+ * or return it from {@link #modify(String, UnaryOperator)}.
+ */
+public abstract class FileRepository<T> {
+
+    // Number of log entries that triggers a background compaction
+    private static final int COMPACTION_THRESHOLD = 1000;
+
+    // Text snapshots at least this large are parsed in parallel byte ranges
+    private static final long PARALLEL_READ_THRESHOLD = 8L * 1024 * 1024;
+
+    // Largest byte range parsed as one task, so big files are split finer than the core count alone would
+    private static final long MAX_RANGE_BYTES = 32L * 1024 * 1024;
+
+    // Number of record lock stripes per repository (a power of two)
+    private static final int LOCK_STRIPES = 64;
+
+    // One background thread folds logs into snapshots for all repositories
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "repository-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path filePath;
+    private final Path logPath;
+    private final Path compactingLogPath;
+    private final Path tempPath;
+
+    private final ReadWriteLock tableLock = new ReentrantReadWriteLock();
+    private final Lock[] recordLocks = new Lock[LOCK_STRIPES];
+
+    // Held shared by a write from its in-memory change until its log append is done or rolled back,
+    // and exclusively by a compaction while it rotates the log and captures the table
+    private final ReadWriteLock publishLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final Object compactionLock = new Object();
+
+    private final SnapshotFormat<T> snapshotFormat;
+
+    private volatile MutationLog log;
+
+    // Primary index, kept in file order
+    private final Map<String, T> records = new LinkedHashMap<>();
+
+    // Lines that could not be parsed are kept so rewrites never drop data
+    private final List<String> unparsedLines = new ArrayList<>();
+
+    // Reused for every line parsed; lines are only parsed while loading, under the write lock
+    private final RecordTokenizer lineTokenizer = new RecordTokenizer();
+
+    protected FileRepository(String filePath) {
+        this(filePath, null);
+    }
+
+    /**
+     * @param filePath The snapshot file
+     * @param snapshotFormat Layout of the snapshot file, or null for pipe-delimited text
+     */
+    FileRepository(String filePath, SnapshotFormat<T> snapshotFormat) {
+        this.snapshotFormat = snapshotFormat != null ? snapshotFormat : new TextSnapshotFormat();
+        this.filePath = Paths.get(filePath);
+        this.logPath = Paths.get(filePath + ".log");
+        this.compactingLogPath = Paths.get(filePath + ".log.compacting");
+        this.tempPath = Paths.get(filePath + ".tmp");
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            recordLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Parse one record from the fields of a file line
+     * @param fields Tokenizer positioned on the line
+     * @return The record, or null if the line is malformed
+     */
+    protected abstract T parse(RecordTokenizer fields);
+
+    /**
+     * Format a record as a single file line
+     * @param record The record to format
+     * @return The pipe-delimited line
+     */
+    protected abstract String format(T record);
+
+    /**
+     * Get the primary id of a record
+     * @param record The record
+     * @return The record's id
+     */
+    protected abstract String idOf(T record);
+
+    // Hook for subclasses to add a record to their secondary indexes (called under the write lock)
+    protected void index(T record) {
+    }
+
+    // Hook for subclasses to remove a record from their secondary indexes (called under the write lock)
+    protected void unindex(T record) {
+    }
+
+    // Hook for subclasses to move a record replaced by a new version with the same id (called under the write lock)
+    protected void reindex(T previous, T record) {
+        unindex(previous);
+        index(record);
+    }
+
+    // Hook for subclasses to reset their secondary indexes before a reload
+    protected void clearIndexes() {
+    }
+
+    /**
+     * Rebuild every secondary index from the records in memory
+     */
+    public void rebuildIndexes() {
+        tableLock.writeLock().lock();
+        try {
+            clearIndexes();
+            for (T record : records.values()) {
+                index(record);
+            }
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Load the snapshot file and replay any mutation logs on top of it.
+     * If logs were replayed they are folded into a fresh snapshot straight away.
+     * @return The number of records loaded
+     * @throws UncheckedIOException if the snapshot or a log cannot be read; the
+     *         repository is then left empty and refuses writes and compactions
+     *         until a load succeeds, so the files it could not read stay as they are
+     */
+    public int load() {
+        tableLock.writeLock().lock();
+        try {
+            records.clear();
+            unparsedLines.clear();
+            clearIndexes();
+
+            boolean hasLogs;
+            long sequence;
+            try {
+                MutationLog previous = log;
+                log = null;
+                if (previous != null) {
+                    previous.close();
+                }
+
+                if (Files.exists(filePath)) {
+                    snapshotFormat.read(filePath, this::put, unparsedLines::add);
+                }
+
+                // An interrupted compaction leaves the older log segment behind
+                hasLogs = Files.exists(compactingLogPath) || Files.exists(logPath);
+                sequence = MutationLog.replay(compactingLogPath, 0, this::applyLogEntry);
+                sequence = MutationLog.replay(logPath, sequence, this::applyLogEntry);
+            } catch (IOException e) {
+                records.clear();
+                unparsedLines.clear();
+                clearIndexes();
+                throw new UncheckedIOException("Could not load " + filePath, e);
+            }
+
+            // New entries continue after the last replayed one
+            log = new MutationLog(logPath, sequence);
+
+            if (hasLogs) {
+                try {
+                    writeSnapshot(new ArrayList<>(records.values()), unparsedLines);
+                    Files.deleteIfExists(compactingLogPath);
+                    Files.deleteIfExists(logPath);
+                } catch (IOException e) {
+                    // The logs are kept and replayed again by the next load or compaction
+                    System.err.println("Error folding the logs into " + filePath + ": " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+
+            return records.size();
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Parse one pipe-delimited line, as found in text snapshots and in the log
+     * @param line The line
+     * @return The record, or null if the line is empty or malformed
+     */
+    protected T parseLine(String line) {
+        return parseLine(line, lineTokenizer);
+    }
+
+    // Parse a line with a given tokenizer, so threads parsing parts of a file each use their own
+    private T parseLine(String line, RecordTokenizer tokenizer) {
+        if (line.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return parse(tokenizer.reset(line));
+        } catch (RuntimeException e) {
+            System.err.println("Malformed line in " + filePath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void applyLogEntry(char op, String payload) {
+        if (op == MutationLog.PUT) {
+            T record = parseLine(payload);
+            if (record != null) {
+                put(record);
+            }
+        } else {
+            remove(payload);
+        }
+    }
+
+    /**
+     * Run a query against the in-memory table under the read lock.
+     * Subclasses use this to read their secondary indexes consistently.
+     */
+    protected <R> R read(Supplier<R> query) {
+        tableLock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            tableLock.readLock().unlock();
+        }
+    }
+
+    public T findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        return read(() -> records.get(id));
+    }
+
+    public boolean exists(String id) {
+        return findById(id) != null;
+    }
+
+    /**
+     * Get every record
+     * @return A point-in-time copy of the table, in file order
+     */
+    public List<T> findAll() {
+        return read(() -> new ArrayList<>(records.values()));
+    }
+
+    /**
+     * Visit every record under the read lock without copying the table.
+     * The action must not modify this repository, and must not hold on to or
+     * change the records it is given.
+     * @param action Receives each record in file order
+     */
+    public void forEach(Consumer<? super T> action) {
+        tableLock.readLock().lock();
+        try {
+            for (T record : records.values()) {
+                action.accept(record);
+            }
+        } finally {
+            tableLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Resolve a set of ids from a secondary index to their records.
+     * Must be called under the read lock, i.e. from inside {@link #read(Supplier)}.
+     * @param ids The ids to resolve
+     * @return The records, in the order of the given ids
+     */
+    protected List<T> findAllById(Collection<String> ids) {
+        List<T> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            T record = records.get(id);
+            if (record != null) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Look up a record without taking the read lock again.
+     * Must be called under the read lock, i.e. from inside {@link #read(Supplier)}.
+     */
+    protected T residentRecord(String id) {
+        return id == null ? null : records.get(id);
+    }
+
+    /**
+     * Get the entries of the data file that could not be parsed; they are kept
+     * and written back on every rewrite
+     */
+    public List<String> getUnreadableEntries() {
+        return read(() -> new ArrayList<>(unparsedLines));
+    }
+
+    // Size of the snapshot file in bytes, or 0 if there is none yet
+    public long getFileSize() {
+        try {
+            return Files.exists(filePath) ? Files.size(filePath) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public int size() {
+        return read(records::size);
+    }
+
+    /**
+     * Add a new record
+     * @param record The record to add
+     * @return true if the record was logged, false otherwise
+     */
+    public boolean insert(T record) {
+        String id = idOf(record);
+        Lock recordLock = recordLockFor(id);
+
+        recordLock.lock();
+        try {
+            return publish(id, record);
+        } finally {
+            recordLock.unlock();
+        }
+    }
+
+    /**
+     * Replace an existing record with the same id
+     * @param record The new version of the record
+     * @return true if the record existed and the change was logged, false otherwise
+     */
+    public boolean update(T record) {
+        return modify(idOf(record), existing -> record);
+    }
+
+    /**
+     * Atomically replace a record with a new version derived from the current one.
+     * The change function must not mutate the stored instance; it returns a new
+     * record, or null to leave the record unchanged.
+     * @param id The id of the record to change
+     * @param change Computes the new version from the current one
+     * @return true if the record existed and the change was logged, false otherwise
+     */
+    public boolean modify(String id, UnaryOperator<T> change) {
+        if (id == null) {
+            return false;
+        }
+
+        Lock recordLock = recordLockFor(id);
+
+        recordLock.lock();
+        try {
+            T existing = findById(id);
+            if (existing == null) {
+                return false;
+            }
+
+            T updated = change.apply(existing);
+            if (updated == null) {
+                return false;
+            }
+
+            return publish(id, updated);
+        } finally {
+            recordLock.unlock();
+        }
+    }
+
+    /**
+     * Change many records in one step. Every change is made under the table lock
+     * at once and all of them are appended to the log with a single write, so
+     * readers see either none or all of them. The change function is applied
+     * under the write lock, must not mutate the stored instance, and returns a
+     * new record or null to leave that record unchanged.
+     * @param ids The ids of the records to change
+     * @param change Computes the new version of each record from the current one
+     * @return Number of records changed, or -1 if the log could not be written and nothing was changed
+     */
+    public int modifyAll(Collection<String> ids, UnaryOperator<T> change) {
+        // Lock the stripes in index order, so two batches can never deadlock
+        int[] stripes = ids.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        for (int stripe : stripes) {
+            recordLocks[stripe].lock();
+        }
+        publishLock.readLock().lock();
+        try {
+            if (!isLoaded()) {
+                return -1;
+            }
+
+            List<T> previous = new ArrayList<>();
+            List<String> payloads = new ArrayList<>();
+
+            tableLock.writeLock().lock();
+            try {
+                for (String id : ids) {
+                    T existing = id == null ? null : records.get(id);
+                    if (existing == null) {
+                        continue;
+                    }
+
+                    T updated = change.apply(existing);
+                    if (updated != null) {
+                        put(updated);
+                        previous.add(existing);
+                        payloads.add(format(updated));
+                    }
+                }
+            } finally {
+                tableLock.writeLock().unlock();
+            }
+
+            if (payloads.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                log.appendAll(MutationLog.PUT, payloads);
+            } catch (IOException e) {
+                System.err.println("Error appending to " + logPath + ": " + e.getMessage());
+                e.printStackTrace();
+
+                // Roll back in reverse, so a record changed twice ends up as it started
+                tableLock.writeLock().lock();
+                try {
+                    for (int i = previous.size() - 1; i >= 0; i--) {
+                        put(previous.get(i));
+                    }
+                } finally {
+                    tableLock.writeLock().unlock();
+                }
+                return -1;
+            }
+
+            scheduleCompactionIfDue();
+            return payloads.size();
+        } finally {
+            publishLock.readLock().unlock();
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                recordLocks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Remove a record by id
+     * @param id The id of the record to remove
+     * @return true if the record existed and the removal was logged
+     */
+    public boolean delete(String id) {
+        if (id == null) {
+            return false;
+        }
+
+        Lock recordLock = recordLockFor(id);
+
+        recordLock.lock();
+        try {
+            if (!exists(id)) {
+                return false;
+            }
+
+            return publish(id, null);
+        } finally {
+            recordLock.unlock();
+        }
+    }
+
+    /*
+     * Apply a change in memory, then append it to the log; the caller holds the
+     * record's lock stripe. The publish lock is held shared throughout, so a
+     * compaction rotates the log and captures the table only when every change
+     * in the table is in the log and the other way round: it never folds in a
+     * change whose append may still fail and be rolled back, nor drops a logged
+     * change the table does not show yet.
+     */
+    private boolean publish(String id, T record) {
+        publishLock.readLock().lock();
+        try {
+            if (!isLoaded()) {
+                return false;
+            }
+            return publishLocked(id, record);
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    private boolean publishLocked(String id, T record) {
+        T previous;
+
+        tableLock.writeLock().lock();
+        try {
+            previous = record != null ? put(record) : remove(id);
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+
+        try {
+            if (record != null) {
+                log.append(MutationLog.PUT, format(record));
+            } else {
+                log.append(MutationLog.DELETE, id);
+            }
+        } catch (IOException e) {
+            System.err.println("Error appending to " + logPath + ": " + e.getMessage());
+            e.printStackTrace();
+
+            // Roll back the in-memory change
+            tableLock.writeLock().lock();
+            try {
+                if (previous != null) {
+                    put(previous);
+                } else {
+                    remove(id);
+                }
+            } finally {
+                tableLock.writeLock().unlock();
+            }
+            return false;
+        }
+
+        scheduleCompactionIfDue();
+        return true;
+    }
+
+    // Writes go nowhere until a load has succeeded; a failed load leaves log null
+    private boolean isLoaded() {
+        if (log == null) {
+            System.err.println(filePath + " is not loaded; refusing to write it");
+            return false;
+        }
+        return true;
+    }
+
+    private void scheduleCompactionIfDue() {
+        if (log.getEntryCount() >= COMPACTION_THRESHOLD && compactionScheduled.compareAndSet(false, true)) {
+            COMPACTOR.execute(this::compactIfScheduled);
+        }
+    }
+
+    private Lock recordLockFor(String id) {
+        return recordLocks[stripeOf(id)];
+    }
+
+    private int stripeOf(String id) {
+        return id.hashCode() & (LOCK_STRIPES - 1);
+    }
+
+    private T put(T record) {
+        T previous = records.put(idOf(record), record);
+        if (previous != null) {
+            reindex(previous, record);
+        } else {
+            index(record);
+        }
+        return previous;
+    }
+
+    private T remove(String id) {
+        T previous = records.remove(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+        return previous;
+    }
+
+    /**
+     * Fold the mutation log, and any segment an earlier failed compaction left
+     * behind, into the snapshot file. The log is rotated and the table captured
+     * while no write is in flight; the snapshot itself is written without
+     * holding any lock writers need. Returns once it is written, after any
+     * compaction already running.
+     */
+    public void compact() {
+        synchronized (compactionLock) {
+            compactionScheduled.set(false);
+            compactLocked();
+        }
+    }
+
+    // Run on the compactor thread; nothing to do if a compaction ran since it was scheduled
+    private void compactIfScheduled() {
+        synchronized (compactionLock) {
+            if (compactionScheduled.compareAndSet(true, false)) {
+                compactLocked();
+            }
+        }
+    }
+
+    private void compactLocked() {
+        // Stored records are never mutated, so capturing the references is enough
+        List<T> captured = new ArrayList<>();
+        List<String> unreadable = new ArrayList<>();
+
+        publishLock.writeLock().lock();
+        try {
+            if (!isLoaded() || !log.rotateTo(compactingLogPath)) {
+                return;
+            }
+
+            read(() -> {
+                captured.addAll(records.values());
+                unreadable.addAll(unparsedLines);
+                return null;
+            });
+        } catch (IOException e) {
+            System.err.println("Error rotating " + logPath + ": " + e.getMessage());
+            e.printStackTrace();
+            return;
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+
+        try {
+            writeSnapshot(captured, unreadable);
+            Files.deleteIfExists(compactingLogPath);
+            System.out.println("Compacted " + logPath + " into " + filePath);
+        } catch (IOException e) {
+            // The rotated log is kept; the next compaction or startup folds it in
+            System.err.println("Error compacting " + filePath + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Replace every record with the given ones in a single snapshot rewrite,
+     * discarding the mutation log; used to convert data between formats.
+     * Not meant to run while other threads write to this repository.
+     * @param newRecords The complete new contents
+     * @param unreadable Unreadable entries to carry over, see {@link #getUnreadableEntries()}
+     * @return true if the new snapshot was written
+     */
+    public boolean replaceAll(Collection<T> newRecords, List<String> unreadable) {
+        synchronized (compactionLock) {
+            tableLock.writeLock().lock();
+            try {
+                if (!isLoaded()) {
+                    return false;
+                }
+
+                List<T> snapshot = new ArrayList<>(newRecords);
+                writeSnapshot(snapshot, unreadable);
+
+                log.close();
+                Files.deleteIfExists(compactingLogPath);
+                Files.deleteIfExists(logPath);
+                log = new MutationLog(logPath, 0);
+
+                records.clear();
+                unparsedLines.clear();
+                unparsedLines.addAll(unreadable);
+                clearIndexes();
+                for (T record : snapshot) {
+                    put(record);
+                }
+                return true;
+            } catch (IOException e) {
+                System.err.println("Error rewriting " + filePath + ": " + e.getMessage());
+                e.printStackTrace();
+                return false;
+            } finally {
+                tableLock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Write to a temp file, sync it, then atomically rename it over the snapshot
+    private void writeSnapshot(List<T> snapshot, List<String> unreadable) throws IOException {
+        snapshotFormat.write(tempPath, snapshot, unreadable);
+
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+
+        Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Records and unreadable lines of one byte range of a text snapshot
+    private class ParsedRange {
+        final List<T> records = new ArrayList<>();
+        final List<String> unreadable = new ArrayList<>();
+    }
+
+    // Bytes [position, end) of a channel, read with positional reads that leave the channel position alone
+    private static final class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        RangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= end) {
+                return -1;
+            }
+
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, end - position)), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Split a file into about the given number of byte ranges, each ending just
+     * after a newline (or at the end of the file), so no line spans two ranges
+     * @return Range boundaries from 0 to the file size; range i is [bounds[i], bounds[i + 1])
+     */
+    private static long[] lineAlignedBounds(FileChannel channel, int parts) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[parts + 1];
+        int count = 1;
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        for (int i = 1; i < parts; i++) {
+            long position = Math.max(size / parts * i, bounds[count - 1]);
+
+            // Move forward to just past the next newline
+            long boundary = size;
+            scan:
+            while (position < size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int j = 0; j < read; j++) {
+                    if (buffer.get(j) == '\n') {
+                        boundary = position + j + 1;
+                        break scan;
+                    }
+                }
+                position += read;
+            }
+
+            if (boundary > bounds[count - 1] && boundary < size) {
+                bounds[count++] = boundary;
+            }
+        }
+
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    // Default layout: one pipe-delimited line per record
+    private class TextSnapshotFormat implements SnapshotFormat<T> {
+
+        @Override
+        public void read(Path file, Consumer<T> onRecord, Consumer<String> onUnreadable) throws IOException {
+            if (Files.size(file) >= PARALLEL_READ_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+                readInParallel(file, onRecord, onUnreadable);
+                return;
+            }
+
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    T record = parseLine(line);
+                    if (record != null) {
+                        onRecord.accept(record);
+                    } else if (!line.isEmpty()) {
+                        onUnreadable.accept(line);
+                    }
+                }
+            }
+        }
+
+        /*
+         * Split the file into byte ranges that end on a newline, at least four
+         * per core and none much larger than MAX_RANGE_BYTES, parse the ranges
+         * on the common fork-join pool, then hand the records over in file order.
+         * Each range is decoded as a stream and parsed with its own tokenizer;
+         * only the hand-over, which builds the indexes, runs on the loading thread.
+         */
+        private void readInParallel(Path file, Consumer<T> onRecord, Consumer<String> onUnreadable)
+                throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long bySize = (channel.size() + MAX_RANGE_BYTES - 1) / MAX_RANGE_BYTES;
+                int parts = (int) Math.min(Math.max(ForkJoinPool.getCommonPoolParallelism() * 4L, bySize),
+                        Integer.MAX_VALUE - 1);
+                long[] bounds = lineAlignedBounds(channel, parts);
+
+                List<ParsedRange> ranges;
+                try {
+                    ranges = IntStream.range(0, bounds.length - 1)
+                            .parallel()
+                            .mapToObj(i -> parseRange(channel, bounds[i], bounds[i + 1]))
+                            .collect(Collectors.toList());
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+
+                for (ParsedRange range : ranges) {
+                    range.records.forEach(onRecord);
+                    range.unreadable.forEach(onUnreadable);
+                }
+            }
+        }
+
+        private ParsedRange parseRange(FileChannel channel, long start, long end) {
+            ParsedRange range = new ParsedRange();
+            RecordTokenizer tokenizer = new RecordTokenizer();
+
+            // Ranges end on a newline, so the line breaks are the same as when reading the whole file
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new RangeInputStream(channel, start, end), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    T record = parseLine(line, tokenizer);
+                    if (record != null) {
+                        range.records.add(record);
+                    } else if (!line.isEmpty()) {
+                        range.unreadable.add(line);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return range;
+        }
+
+        @Override
+        public void write(Path file, List<T> snapshot, List<String> unreadable) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for (T record : snapshot) {
+                    writer.write(format(record));
+                    writer.newLine();
+                }
+                for (String line : unreadable) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
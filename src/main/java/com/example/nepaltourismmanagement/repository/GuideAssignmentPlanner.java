@@ -0,0 +1,278 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.Guide;
+import com.example.nepaltourismmanagement.models.Trek;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Plans guide assignments for many pending bookings at once.
+ *
+ * A guide can take a booking when they speak the tourist's language (taken
+ * from the tourist's nationality) or English, and are qualified for the trek:
+ * enough years of experience for its difficulty, or a specialization naming
+ * the difficulty or the trek's region. Qualified guides are ranked by speaking
+ * the tourist's own language, then by a matching specialization, then by the
+ * least experience above what the trek needs, so senior guides stay free for
+ * the harder treks.
+ *
+ * A ranking depends only on the trek and the tourist's language, so each pair
+ * is ranked once; the bookings are grouped by trek region and the groups are
+ * ranked in parallel. The plan is then made greedily, most constrained booking
+ * first: each booking takes the best ranked guide that is free on all of its
+ * days, according to both the guide schedules and the trips planned so far,
+ * and among equally ranked free guides the one with the fewest planned days.
+ */
+public class GuideAssignmentPlanner {
+
+    private static final String FALLBACK_LANGUAGE = "english";
+
+    // Language most tourists of a nationality are guided in; others default to English
+    private static final Map<String, String> LANGUAGE_BY_NATIONALITY = Map.ofEntries(
+            Map.entry("nepal", "nepali"),
+            Map.entry("india", "hindi"),
+            Map.entry("china", "chinese"),
+            Map.entry("germany", "german"),
+            Map.entry("austria", "german"),
+            Map.entry("switzerland", "german"),
+            Map.entry("france", "french"),
+            Map.entry("japan", "japanese"),
+            Map.entry("south korea", "korean"),
+            Map.entry("spain", "spanish"),
+            Map.entry("netherlands", "dutch"),
+            Map.entry("israel", "hebrew"));
+
+    // Ranking weights; experience above the minimum only breaks ties within a tier
+    private static final int OWN_LANGUAGE_SCORE = 1000;
+    private static final int SPECIALIST_SCORE = 100;
+    private static final int MAX_EXTRA_YEARS = 50;
+
+    // Guides able to take bookings for one trek and tourist language, best first
+    private static final class Ranking {
+        final int[] guides;
+        final int[] scores;
+
+        Ranking(int[] guides, int[] scores) {
+            this.guides = guides;
+            this.scores = scores;
+        }
+    }
+
+    // A booking waiting for a guide
+    private static final class Request {
+        final String bookingId;
+        final long firstDay;
+        final long lastDay;
+        final Ranking ranking;
+
+        Request(String bookingId, long firstDay, long lastDay, Ranking ranking) {
+            this.bookingId = bookingId;
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+            this.ranking = ranking;
+        }
+    }
+
+    private final String[] guideIds;
+    private final List<Set<String>> guideLanguages;
+    private final String[] guideSpecializations;
+    private final int[] guideYears;
+    private final Map<String, Trek> treksById;
+    private final Map<String, String> nationalityByTourist;
+
+    /**
+     * @param guides The guides that can be assigned
+     * @param treksById Treks by id
+     * @param nationalityByTourist Nationality of the tourists with pending bookings, by user id
+     */
+    public GuideAssignmentPlanner(Collection<Guide> guides, Map<String, Trek> treksById,
+                                  Map<String, String> nationalityByTourist) {
+        this.treksById = treksById;
+        this.nationalityByTourist = nationalityByTourist;
+
+        int count = guides.size();
+        guideIds = new String[count];
+        guideLanguages = new ArrayList<>(count);
+        guideSpecializations = new String[count];
+        guideYears = new int[count];
+
+        int i = 0;
+        for (Guide guide : guides) {
+            guideIds[i] = guide.getId();
+            guideLanguages.add(parseLanguages(guide.getLanguages()));
+            guideSpecializations[i] = guide.getSpecializations() == null
+                    ? "" : guide.getSpecializations().toLowerCase(Locale.ROOT);
+            guideYears[i] = guide.getYearsOfExperience();
+            i++;
+        }
+    }
+
+    /**
+     * Plan which guide takes each booking
+     * @param pending Bookings without a guide
+     * @param bookings The repository whose guide schedules the plan must respect
+     * @return Guide id per booking id, for the bookings a guide was found for
+     */
+    public Map<String, String> plan(List<Booking> pending, BookingRepository bookings) {
+        Map<String, List<Booking>> byRegion = pending.stream()
+                .collect(Collectors.groupingBy(this::regionOf));
+
+        Map<String, Ranking> rankings = new ConcurrentHashMap<>();
+        List<Request> requests = byRegion.values().parallelStream()
+                .flatMap(group -> group.stream()
+                        .map(booking -> request(booking, rankings))
+                        .filter(Objects::nonNull))
+                .collect(Collectors.toList());
+
+        // Fewest possible guides first, then earliest start
+        requests.sort(Comparator
+                .comparingInt((Request request) -> request.ranking.guides.length)
+                .thenComparingLong(request -> request.firstDay)
+                .thenComparing(request -> request.bookingId));
+
+        return bookings.readSchedules(schedules -> assign(requests, schedules));
+    }
+
+    private Map<String, String> assign(List<Request> requests, GuideSchedules schedules) {
+        Map<String, String> plan = new LinkedHashMap<>();
+        GuideIntervalTree[] planned = new GuideIntervalTree[guideIds.length];
+        long[] plannedDays = new long[guideIds.length];
+
+        for (Request request : requests) {
+            int[] guides = request.ranking.guides;
+            int[] scores = request.ranking.scores;
+            int chosen = -1;
+
+            // Walk the ranking one tier of equal scores at a time, stopping at the first tier with a free guide
+            int tierStart = 0;
+            while (tierStart < guides.length && chosen < 0) {
+                int tierEnd = tierStart;
+                while (tierEnd < guides.length && scores[tierEnd] == scores[tierStart]) {
+                    tierEnd++;
+                }
+
+                for (int i = tierStart; i < tierEnd; i++) {
+                    int guide = guides[i];
+                    if ((chosen < 0 || plannedDays[guide] < plannedDays[chosen])
+                            && isFree(guide, request, planned, schedules)) {
+                        chosen = guide;
+                    }
+                }
+                tierStart = tierEnd;
+            }
+
+            if (chosen >= 0) {
+                if (planned[chosen] == null) {
+                    planned[chosen] = new GuideIntervalTree();
+                }
+                planned[chosen].insert(request.bookingId, request.firstDay, request.lastDay);
+                plannedDays[chosen] += request.lastDay - request.firstDay + 1;
+                plan.put(request.bookingId, guideIds[chosen]);
+            }
+        }
+        return plan;
+    }
+
+    private boolean isFree(int guide, Request request, GuideIntervalTree[] planned, GuideSchedules schedules) {
+        return (planned[guide] == null || !planned[guide].overlaps(request.firstDay, request.lastDay, null))
+                && schedules.isFree(guideIds[guide], request.firstDay, request.lastDay, request.bookingId);
+    }
+
+    private Request request(Booking booking, Map<String, Ranking> rankings) {
+        long firstDay = BookingTimeSeries.parseEpochDay(booking.getBookingDate());
+        if (firstDay == BookingTimeSeries.NO_DATE) {
+            return null;
+        }
+
+        Trek trek = treksById.get(booking.getTrekId());
+        String language = languageOf(booking.getTouristId());
+        Ranking ranking = rankings.computeIfAbsent(booking.getTrekId() + "|" + language, key -> rank(trek, language));
+        if (ranking.guides.length == 0) {
+            return null;
+        }
+
+        return new Request(booking.getId(), firstDay, GuideSchedules.lastDay(firstDay, booking.getDuration()), ranking);
+    }
+
+    private Ranking rank(Trek trek, String language) {
+        String difficulty = trek == null || trek.getDifficulty() == null
+                ? "" : trek.getDifficulty().toLowerCase(Locale.ROOT);
+        String region = trek == null || trek.getRegion() == null
+                ? "" : trek.getRegion().toLowerCase(Locale.ROOT);
+        int minimumYears = minimumYears(difficulty);
+
+        List<int[]> candidates = new ArrayList<>();
+        for (int guide = 0; guide < guideIds.length; guide++) {
+            Set<String> languages = guideLanguages.get(guide);
+            boolean ownLanguage = languages.contains(language);
+            if (!ownLanguage && !languages.contains(FALLBACK_LANGUAGE)) {
+                continue;
+            }
+
+            String specializations = guideSpecializations[guide];
+            boolean specialist = (!difficulty.isEmpty() && specializations.contains(difficulty))
+                    || (!region.isEmpty() && specializations.contains(region));
+            if (guideYears[guide] < minimumYears && !specialist) {
+                continue;
+            }
+
+            int extraYears = Math.min(Math.max(guideYears[guide] - minimumYears, 0), MAX_EXTRA_YEARS);
+            int score = (ownLanguage ? OWN_LANGUAGE_SCORE : 0) + (specialist ? SPECIALIST_SCORE : 0) - extraYears;
+            candidates.add(new int[] { guide, score });
+        }
+
+        candidates.sort((a, b) -> a[1] != b[1] ? Integer.compare(b[1], a[1]) : Integer.compare(a[0], b[0]));
+
+        int[] guides = new int[candidates.size()];
+        int[] scores = new int[candidates.size()];
+        for (int i = 0; i < guides.length; i++) {
+            guides[i] = candidates.get(i)[0];
+            scores[i] = candidates.get(i)[1];
+        }
+        return new Ranking(guides, scores);
+    }
+
+    // Years of experience a trek of this difficulty needs without a matching specialization
+    private static int minimumYears(String difficulty) {
+        switch (difficulty) {
+            case "moderate":
+                return 1;
+            case "difficult":
+                return 3;
+            case "very difficult":
+            case "challenging":
+            case "strenuous":
+                return 5;
+            default:
+                return 0;
+        }
+    }
+
+    private String regionOf(Booking booking) {
+        Trek trek = treksById.get(booking.getTrekId());
+        return trek == null || trek.getRegion() == null ? "" : trek.getRegion();
+    }
+
+    private String languageOf(String touristId) {
+        String nationality = touristId == null ? null : nationalityByTourist.get(touristId);
+        if (nationality == null) {
+            return FALLBACK_LANGUAGE;
+        }
+        return LANGUAGE_BY_NATIONALITY.getOrDefault(nationality.trim().toLowerCase(Locale.ROOT), FALLBACK_LANGUAGE);
+    }
+
+    private static Set<String> parseLanguages(String languages) {
+        Set<String> parsed = new HashSet<>();
+        if (languages != null) {
+            for (String language : languages.split(",")) {
+                if (!language.isBlank()) {
+                    parsed.add(language.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return parsed;
+    }
+}
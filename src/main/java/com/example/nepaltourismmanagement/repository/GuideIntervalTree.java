@@ -0,0 +1,219 @@
+package com.example.nepaltourismmanagement.repository;
+
+/**
+ * One guide's trips as day ranges, in an AVL tree ordered by first day (then
+ * booking id) where each node also records the latest last day in its subtree.
+ *
+ * That maximum lets an overlap query skip every subtree that ends before the
+ * range starts, so asking whether a range is free costs O(log n) for n trips,
+ * however many years of bookings the guide has. Ranges are epoch days with
+ * both ends inclusive.
+ *
+ * Not thread-safe; GuideSchedules is only used under the repository locks.
+ */
+class GuideIntervalTree {
+
+    // Receives trips in start order
+    interface TripVisitor {
+        void visit(String bookingId, long firstDay, long lastDay);
+    }
+
+    private static final class Node {
+        final String bookingId;
+        final long firstDay;
+        final long lastDay;
+        long maxLastDay;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(String bookingId, long firstDay, long lastDay) {
+            this.bookingId = bookingId;
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+            this.maxLastDay = lastDay;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void insert(String bookingId, long firstDay, long lastDay) {
+        root = insert(root, new Node(bookingId, firstDay, lastDay));
+    }
+
+    void remove(String bookingId, long firstDay) {
+        root = remove(root, bookingId, firstDay);
+    }
+
+    /**
+     * Check whether any trip shares a day with a range
+     * @param firstDay First day of the range
+     * @param lastDay Last day of the range, inclusive
+     * @param ignoredBookingId A booking not to count, e.g. the one being reassigned; may be null
+     * @return true if another trip overlaps the range
+     */
+    boolean overlaps(long firstDay, long lastDay, String ignoredBookingId) {
+        return overlaps(root, firstDay, lastDay, ignoredBookingId);
+    }
+
+    // Visit, in start order, every trip that has not ended before the given day
+    void forEachEndingOnOrAfter(long day, TripVisitor visitor) {
+        forEachEndingOnOrAfter(root, day, visitor);
+    }
+
+    private static boolean overlaps(Node node, long firstDay, long lastDay, String ignoredBookingId) {
+        while (node != null && node.maxLastDay >= firstDay) {
+            if (node.left != null && node.left.maxLastDay >= firstDay
+                    && overlaps(node.left, firstDay, lastDay, ignoredBookingId)) {
+                return true;
+            }
+            if (node.firstDay > lastDay) {
+                // This trip and everything to its right start after the range
+                return false;
+            }
+            if (node.lastDay >= firstDay && !node.bookingId.equals(ignoredBookingId)) {
+                return true;
+            }
+            node = node.right;
+        }
+        return false;
+    }
+
+    private static void forEachEndingOnOrAfter(Node node, long day, TripVisitor visitor) {
+        if (node == null || node.maxLastDay < day) {
+            return;
+        }
+        forEachEndingOnOrAfter(node.left, day, visitor);
+        if (node.lastDay >= day) {
+            visitor.visit(node.bookingId, node.firstDay, node.lastDay);
+        }
+        forEachEndingOnOrAfter(node.right, day, visitor);
+    }
+
+    private static int compare(long firstDay, String bookingId, Node node) {
+        int byDay = Long.compare(firstDay, node.firstDay);
+        return byDay != 0 ? byDay : bookingId.compareTo(node.bookingId);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            size++;
+            return added;
+        }
+
+        int cmp = compare(added.firstDay, added.bookingId, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, added);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, added);
+        } else {
+            // Same booking indexed twice; keep the newer range
+            added.left = node.left;
+            added.right = node.right;
+            added.height = node.height;
+            node = added;
+        }
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, String bookingId, long firstDay) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmp = compare(firstDay, bookingId, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, bookingId, firstDay);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, bookingId, firstDay);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+
+            // Replace with the first trip of the right subtree
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeFirst(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private Node removeFirst(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeFirst(node.left);
+        return rebalance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        long max = node.lastDay;
+        if (node.left != null && node.left.maxLastDay > max) {
+            max = node.left.maxLastDay;
+        }
+        if (node.right != null && node.right.maxLastDay > max) {
+            max = node.right.maxLastDay;
+        }
+        node.maxLastDay = max;
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
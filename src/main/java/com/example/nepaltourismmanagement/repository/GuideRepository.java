@@ -0,0 +1,84 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Guide;
+
+import java.util.List;
+
+/**
+ * Resident repository for guides.txt with a userId index.
+ */
+public class GuideRepository extends FileRepository<Guide> {
+
+    private final MultiIndex byUserId = new MultiIndex();
+
+    public GuideRepository(String filePath) {
+        super(filePath);
+    }
+
+    // Format: id|userId|name|email|phoneNumber|languages|yearsOfExperience|certifications|specializations|available
+    @Override
+    protected Guide parse(RecordTokenizer fields) {
+        if (fields.fieldCount() < 6) {
+            return null;
+        }
+
+        Guide guide = new Guide();
+        guide.setId(fields.getString(0));
+        guide.setUserId(fields.getString(1));
+        guide.setName(fields.getString(2));
+        guide.setEmail(fields.getString(3));
+        guide.setPhoneNumber(fields.getString(4));
+        guide.setLanguages(fields.getString(5));
+        if (fields.fieldCount() > 6) guide.setYearsOfExperience(fields.getInt(6));
+        if (fields.fieldCount() > 7) guide.setCertifications(fields.getString(7));
+        if (fields.fieldCount() > 8) guide.setSpecializations(fields.getString(8));
+        if (fields.fieldCount() > 9) guide.setAvailable(fields.getBoolean(9));
+        return guide;
+    }
+
+    @Override
+    protected String format(Guide guide) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(guide.getId()).append("|");
+        sb.append(guide.getUserId() != null ? guide.getUserId() : "").append("|");
+        sb.append(guide.getName()).append("|");
+        sb.append(guide.getEmail()).append("|");
+        sb.append(guide.getPhoneNumber()).append("|");
+        sb.append(guide.getLanguages() != null ? guide.getLanguages() : "").append("|");
+        sb.append(guide.getYearsOfExperience()).append("|");
+        sb.append(guide.getCertifications() != null ? guide.getCertifications() : "").append("|");
+        sb.append(guide.getSpecializations() != null ? guide.getSpecializations() : "").append("|");
+        sb.append(guide.isAvailable());
+        return sb.toString();
+    }
+
+    @Override
+    protected String idOf(Guide guide) {
+        return guide.getId();
+    }
+
+    @Override
+    protected void index(Guide guide) {
+        byUserId.add(guide.getUserId(), guide.getId());
+    }
+
+    @Override
+    protected void unindex(Guide guide) {
+        byUserId.remove(guide.getUserId(), guide.getId());
+    }
+
+    @Override
+    protected void clearIndexes() {
+        byUserId.clear();
+    }
+
+    /**
+     * Get the guide profile linked to a user account
+     * @param userId The user ID
+     * @return The first guide profile for the user, or null if there is none
+     */
+    public Guide findByUserId(String userId) {
+        List<Guide> guides = read(() -> findAllById(byUserId.get(userId)));
+        return guides.isEmpty() ? null : guides.get(0);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The days each guide is booked for, kept up to date on every mutation.
+ *
+ * A booking occupies its guide from the booking date for as many days as its
+ * duration while it is Pending or Confirmed; completed and cancelled trips
+ * free the guide. BookingRepository adds each booking when it is indexed and
+ * removes it when it is unindexed, so assigning a guide or changing a status
+ * moves the trip without a scan. Each guide's trips are kept in a
+ * {@link GuideIntervalTree}, so checking whether a guide is free for a range
+ * costs O(log n) in that guide's trips and a workload summary walks only the
+ * trips that have not ended.
+ *
+ * Not thread-safe on its own: it is only changed under the repository write
+ * lock and only read under its read lock.
+ */
+class GuideSchedules {
+
+    private final Map<String, GuideIntervalTree> tripsByGuide = new HashMap<>();
+
+    void add(Booking booking) {
+        long firstDay = firstDayOf(booking);
+        if (firstDay != BookingTimeSeries.NO_DATE) {
+            tripsByGuide.computeIfAbsent(booking.getGuideId(), k -> new GuideIntervalTree())
+                    .insert(booking.getId(), firstDay, lastDay(firstDay, booking.getDuration()));
+        }
+    }
+
+    void remove(Booking booking) {
+        long firstDay = firstDayOf(booking);
+        if (firstDay == BookingTimeSeries.NO_DATE) {
+            return;
+        }
+
+        GuideIntervalTree trips = tripsByGuide.get(booking.getGuideId());
+        if (trips != null) {
+            trips.remove(booking.getId(), firstDay);
+            if (trips.isEmpty()) {
+                tripsByGuide.remove(booking.getGuideId());
+            }
+        }
+    }
+
+    void clear() {
+        tripsByGuide.clear();
+    }
+
+    /**
+     * Check whether a guide has no trip on any day of a range
+     * @param guideId The guide
+     * @param firstDay First epoch day of the range
+     * @param lastDay Last epoch day of the range, inclusive
+     * @param ignoredBookingId A booking whose own trip does not count; may be null
+     * @return true if the guide is free on every day of the range
+     */
+    boolean isFree(String guideId, long firstDay, long lastDay, String ignoredBookingId) {
+        GuideIntervalTree trips = guideId == null ? null : tripsByGuide.get(guideId);
+        return trips == null || !trips.overlaps(firstDay, lastDay, ignoredBookingId);
+    }
+
+    // Last day of a trip starting on firstDay; a trip takes at least one day
+    static long lastDay(long firstDay, int duration) {
+        return firstDay + Math.max(duration, 1) - 1;
+    }
+
+    /**
+     * Summarize a guide's load
+     * @param guideId The guide
+     * @param from First day of the window, usually today
+     * @param windowDays Length of the window in days
+     * @return The guide's workload; a guide without trips is free from the first day
+     */
+    GuideWorkload workload(String guideId, LocalDate from, int windowDays) {
+        long firstDay = from.toEpochDay();
+        long lastDay = firstDay + Math.max(windowDays, 1) - 1;
+
+        WorkloadCounter counter = new WorkloadCounter(firstDay, lastDay);
+        GuideIntervalTree trips = guideId == null ? null : tripsByGuide.get(guideId);
+        if (trips != null) {
+            trips.forEachEndingOnOrAfter(firstDay, counter);
+        }
+
+        return new GuideWorkload(guideId, counter.upcoming, counter.tripDays,
+                from, LocalDate.ofEpochDay(lastDay), LocalDate.ofEpochDay(counter.nextFree));
+    }
+
+    // Sums trips that have not ended, visited in start order
+    private static final class WorkloadCounter implements GuideIntervalTree.TripVisitor {
+        private final long lastDay;
+        private int upcoming;
+        private int tripDays;
+        private long countedUntil;
+        private long nextFree;
+
+        WorkloadCounter(long firstDay, long lastDay) {
+            this.lastDay = lastDay;
+            this.countedUntil = firstDay - 1;
+            this.nextFree = firstDay;
+        }
+
+        @Override
+        public void visit(String bookingId, long tripFirstDay, long tripLastDay) {
+            upcoming++;
+
+            // Days already counted for an overlapping trip are not counted again
+            long start = Math.max(tripFirstDay, countedUntil + 1);
+            long end = Math.min(tripLastDay, lastDay);
+            if (end >= start) {
+                tripDays += (int) (end - start + 1);
+                countedUntil = end;
+            }
+
+            // Trips come in start order, so a trip starting after the free day leaves it free
+            if (tripFirstDay <= nextFree && tripLastDay >= nextFree) {
+                nextFree = tripLastDay + 1;
+            }
+        }
+    }
+
+    // First day of the trip a booking puts on its guide's schedule, or NO_DATE if it puts none
+    private static long firstDayOf(Booking booking) {
+        BookingStatus status = booking.getBookingStatus();
+        if (booking.getGuideId() == null || booking.getId() == null || status == null || !status.occupiesGuide()) {
+            return BookingTimeSeries.NO_DATE;
+        }
+        return BookingTimeSeries.parseEpochDay(booking.getBookingDate());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.nepaltourismmanagement.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable summary of one guide's load, as of a given day.
+ * Built by {@link GuideSchedules} from the guide's active trips.
+ */
+public final class GuideWorkload {
+
+    private final String guideId;
+    private final int upcomingTrips;
+    private final int tripDaysInWindow;
+    private final LocalDate windowStart;
+    private final LocalDate windowEnd;
+    private final LocalDate nextFreeDate;
+
+    GuideWorkload(String guideId, int upcomingTrips, int tripDaysInWindow,
+                  LocalDate windowStart, LocalDate windowEnd, LocalDate nextFreeDate) {
+        this.guideId = guideId;
+        this.upcomingTrips = upcomingTrips;
+        this.tripDaysInWindow = tripDaysInWindow;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.nextFreeDate = nextFreeDate;
+    }
+
+    public String getGuideId() {
+        return guideId;
+    }
+
+    // Pending and confirmed trips that have not ended yet, including one under way
+    public int getUpcomingTrips() {
+        return upcomingTrips;
+    }
+
+    // Days between getWindowStart and getWindowEnd on which the guide is on a trip
+    public int getTripDaysInWindow() {
+        return tripDaysInWindow;
+    }
+
+    public LocalDate getWindowStart() {
+        return windowStart;
+    }
+
+    public LocalDate getWindowEnd() {
+        return windowEnd;
+    }
+
+    // First day from the start of the window on which the guide is not on a trip
+    public LocalDate getNextFreeDate() {
+        return nextFreeDate;
+    }
+
+    @Override
+    public String toString() {
+        return "GuideWorkload{guideId=" + guideId + ", upcomingTrips=" + upcomingTrips
+                + ", tripDaysInWindow=" + tripDaysInWindow + ", nextFreeDate=" + nextFreeDate + "}";
+    }
+}
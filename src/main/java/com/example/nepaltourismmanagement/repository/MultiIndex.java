@@ -0,0 +1,47 @@
+package com.example.nepaltourismmanagement.repository;
+
+import java.util.*;
+
+/**
+ * Secondary index mapping a non-unique key to the ids of the records that have it.
+ * Ids are kept in insertion order so lookups return records in a stable order.
+ */
+class MultiIndex {
+
+    private final Map<String, Set<String>> index = new HashMap<>();
+
+    void add(String key, String id) {
+        if (key == null || id == null) {
+            return;
+        }
+        index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(id);
+    }
+
+    void remove(String key, String id) {
+        if (key == null || id == null) {
+            return;
+        }
+
+        Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    Set<String> get(String key) {
+        Set<String> ids = key == null ? null : index.get(key);
+        return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    // Every key that has at least one id, in natural order
+    SortedSet<String> keys() {
+        return new TreeSet<>(index.keySet());
+    }
+
+    void clear() {
+        index.clear();
+    }
+}
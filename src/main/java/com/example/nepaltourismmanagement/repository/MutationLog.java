@@ -0,0 +1,283 @@
+package com.example.nepaltourismmanagement.repository;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead log of repository mutations.
+ *
+ * Each entry is one line: seq|op|crc|payload. The payload of a PUT entry is the
+ * full record line, the payload of a DELETE entry is the record id. Both are
+ * last-writer-wins per id, so replaying entries that are already folded into
+ * the snapshot file is harmless. The CRC lets replay stop cleanly at an entry
+ * that was only partly written when the process died, and entries whose
+ * sequence number was already replayed are skipped, so a log that was partly
+ * copied onto an older segment replays correctly.
+ *
+ * Appends from different threads are serialized on the log itself. An append
+ * returns once its entry is forced to disk, so a write that was acknowledged
+ * survives a crash of the machine, not only of the process. Concurrent appends
+ * share forces: one force covers every entry written before it started, so
+ * writers queued behind it usually find their entry already on disk.
+ *
+ * Setting tourism.log.force to false skips the forces. Entries then reach the
+ * disk whenever the operating system writes them back, and a power failure can
+ * lose the last acknowledged writes; replay still stops cleanly at a torn entry.
+ */
+class MutationLog implements Closeable {
+
+    public static final String FORCE_PROPERTY = "tourism.log.force";
+
+    static final char PUT = 'P';
+    static final char DELETE = 'D';
+
+    /**
+     * Receives the entries of a log during replay
+     */
+    interface EntryHandler {
+        void apply(char op, String payload);
+    }
+
+    private final Path path;
+    private final boolean forceOnAppend;
+    private FileChannel channel;
+    private long lastSequence;
+    private int entryCount;
+
+    // Serializes forces; the last sequence number known to be on disk
+    private final Object forceLock = new Object();
+    private long forcedSequence;
+
+    MutationLog(Path path, long lastSequence) {
+        this(path, lastSequence, Boolean.parseBoolean(System.getProperty(FORCE_PROPERTY, "true")));
+    }
+
+    /**
+     * @param path The log file
+     * @param lastSequence Sequence number of the last entry already replayed
+     * @param forceOnAppend Whether an append waits until its entry is on disk
+     */
+    MutationLog(Path path, long lastSequence, boolean forceOnAppend) {
+        this.path = path;
+        this.lastSequence = lastSequence;
+        this.forcedSequence = lastSequence;
+        this.forceOnAppend = forceOnAppend;
+    }
+
+    /**
+     * Append one mutation to the end of the log
+     * @param op PUT or DELETE
+     * @param payload The record line or id
+     * @return The sequence number assigned to the entry
+     */
+    long append(char op, String payload) throws IOException {
+        long sequence;
+        synchronized (this) {
+            sequence = lastSequence + 1;
+            write(formatEntry(sequence, op, payload));
+            lastSequence = sequence;
+            entryCount++;
+        }
+
+        force(sequence);
+        return sequence;
+    }
+
+    /**
+     * Append several mutations of the same kind with a single write
+     * @param op PUT or DELETE
+     * @param payloads The record lines or ids, in order
+     * @return The sequence number assigned to the last entry
+     */
+    long appendAll(char op, List<String> payloads) throws IOException {
+        long sequence;
+        synchronized (this) {
+            StringBuilder entries = new StringBuilder();
+            sequence = lastSequence;
+            for (String payload : payloads) {
+                entries.append(formatEntry(++sequence, op, payload));
+            }
+
+            write(entries.toString());
+            lastSequence = sequence;
+            entryCount += payloads.size();
+        }
+
+        force(sequence);
+        return sequence;
+    }
+
+    // Wait until the entries up to a sequence number are on disk, forcing the log if no other append did
+    private void force(long sequence) throws IOException {
+        if (!forceOnAppend) {
+            return;
+        }
+
+        synchronized (forceLock) {
+            if (forcedSequence >= sequence) {
+                return;
+            }
+
+            FileChannel current;
+            long written;
+            synchronized (this) {
+                current = channel;
+                written = lastSequence;
+            }
+
+            // Null only if the log was rotated since; the compaction that rotated it forces the snapshot
+            if (current != null) {
+                current.force(false);
+            }
+            forcedSequence = written;
+        }
+    }
+
+    private void write(String text) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Move the current log aside so a compaction can fold it into the snapshot.
+     * If the target is still there because an earlier compaction failed, the
+     * log is added to its end instead, so neither segment's entries are lost.
+     * Later appends start a fresh log at the original path.
+     * @param target Where to move the current log
+     * @return false if there is nothing to fold in, neither a log nor an older segment
+     */
+    synchronized boolean rotateTo(Path target) throws IOException {
+        close();
+        entryCount = 0;
+
+        if (!Files.exists(path)) {
+            return Files.exists(target);
+        }
+
+        if (!Files.exists(target)) {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        }
+
+        // The older segment's entries come first, so the combined file stays in sequence order
+        try (FileChannel from = FileChannel.open(path, StandardOpenOption.READ);
+             FileChannel to = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long size = from.size();
+            long position = 0;
+            while (position < size) {
+                position += from.transferTo(position, size - position, to);
+            }
+            to.force(true);
+        }
+        Files.delete(path);
+        return true;
+    }
+
+    // Number of entries appended since the log was opened or rotated
+    synchronized int getEntryCount() {
+        return entryCount;
+    }
+
+    synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Replay every intact entry of a log file in sequence order
+     * @param file The log file to read
+     * @param afterSequence Entries up to this sequence number are skipped
+     * @param handler Receives each entry
+     * @return The sequence number of the last entry applied
+     */
+    static long replay(Path file, long afterSequence, EntryHandler handler) throws IOException {
+        long sequence = afterSequence;
+
+        if (!Files.exists(file)) {
+            return sequence;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                // Format: seq|op|crc|payload
+                int first = line.indexOf('|');
+                int second = first < 0 ? -1 : line.indexOf('|', first + 1);
+                int third = second < 0 ? -1 : line.indexOf('|', second + 1);
+
+                if (third < 0 || second != first + 2) {
+                    System.err.println("Stopping replay of " + file + " at damaged entry on line " + lineNumber);
+                    break;
+                }
+
+                long entrySequence;
+                long crc;
+                try {
+                    entrySequence = Long.parseLong(line.substring(0, first));
+                    crc = Long.parseLong(line.substring(second + 1, third), 16);
+                } catch (NumberFormatException e) {
+                    System.err.println("Stopping replay of " + file + " at damaged entry on line " + lineNumber);
+                    break;
+                }
+
+                char op = line.charAt(first + 1);
+                String payload = line.substring(third + 1);
+
+                if (crc != checksum(payload) || (op != PUT && op != DELETE)) {
+                    System.err.println("Stopping replay of " + file + " at invalid entry on line " + lineNumber);
+                    break;
+                }
+
+                // Already replayed from an older segment the log was being copied onto
+                if (entrySequence <= sequence) {
+                    continue;
+                }
+
+                handler.apply(op, payload);
+                sequence = entrySequence;
+            }
+        }
+
+        return sequence;
+    }
+
+    private static String formatEntry(long sequence, char op, String payload) {
+        return sequence + "|" + op + "|" + Long.toHexString(checksum(payload)) + "|" + payload + "\n";
+    }
+
+    private static long checksum(String payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
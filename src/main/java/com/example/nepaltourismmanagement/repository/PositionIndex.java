@@ -0,0 +1,159 @@
+package com.example.nepaltourismmanagement.repository;
+
+import java.util.*;
+
+/**
+ * Ids in the order they were added, readable from any position on after an
+ * O(log n) lookup instead of being stepped through from the first one.
+ *
+ * The ids sit in an array of slots in the order added; removing an id empties
+ * its slot, and a Fenwick tree over the filled slots finds the slot of the
+ * n-th id. The array is packed once fewer than a quarter of its used slots are
+ * filled, so walking on from a position looks at no more than four slots per
+ * id. Adding an id that is already present leaves it in place, as a
+ * LinkedHashSet does.
+ */
+class PositionIndex extends AbstractSet<String> {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private String[] ids = new String[INITIAL_CAPACITY];
+
+    // Fenwick tree counting the filled slots, 1-based
+    private int[] filled = new int[INITIAL_CAPACITY + 1];
+
+    // Slots handed out since the array was last packed
+    private int used;
+
+    @Override
+    public boolean add(String id) {
+        if (id == null || slots.containsKey(id)) {
+            return false;
+        }
+
+        if (used == ids.length) {
+            // Pack in place if at least half the slots are empty, otherwise grow
+            resize(slots.size() <= ids.length / 2 ? ids.length : ids.length * 2);
+        }
+        ids[used] = id;
+        slots.put(id, used);
+        increment(used, 1);
+        used++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return false;
+        }
+
+        ids[slot] = null;
+        increment(slot, -1);
+        if (used > INITIAL_CAPACITY && slots.size() < used / 4) {
+            resize(Math.max(INITIAL_CAPACITY, ids.length / 2));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object id) {
+        return slots.containsKey(id);
+    }
+
+    @Override
+    public int size() {
+        return slots.size();
+    }
+
+    @Override
+    public void clear() {
+        slots.clear();
+        ids = new String[INITIAL_CAPACITY];
+        filled = new int[INITIAL_CAPACITY + 1];
+        used = 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return iterator(0);
+    }
+
+    /**
+     * The ids from a position on, in the order added; the index must not
+     * change while the iterator is in use
+     * @param position Position of the first id, 0 for the first one
+     * @return Iterator starting at that id, empty if the position is past the end
+     */
+    Iterator<String> iterator(int position) {
+        int start = position <= 0 ? 0 : position >= slots.size() ? used : slotAt(position);
+
+        return new Iterator<>() {
+            private int slot = start;
+
+            @Override
+            public boolean hasNext() {
+                while (slot < used && ids[slot] == null) {
+                    slot++;
+                }
+                return slot < used;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return ids[slot++];
+            }
+        };
+    }
+
+    // Slot of the id at a position: the first slot with position + 1 filled slots up to it
+    private int slotAt(int position) {
+        int slot = 0;
+        int remaining = position + 1;
+        for (int step = Integer.highestOneBit(filled.length - 1); step > 0; step >>= 1) {
+            int next = slot + step;
+            if (next < filled.length && filled[next] < remaining) {
+                slot = next;
+                remaining -= filled[next];
+            }
+        }
+        return slot;
+    }
+
+    private void increment(int slot, int delta) {
+        for (int i = slot + 1; i < filled.length; i += i & -i) {
+            filled[i] += delta;
+        }
+    }
+
+    // Move the ids to the front of a new array and rebuild the tree in linear time
+    private void resize(int capacity) {
+        String[] packed = new String[capacity];
+        int count = 0;
+        for (int slot = 0; slot < used; slot++) {
+            if (ids[slot] != null) {
+                packed[count] = ids[slot];
+                slots.put(ids[slot], count);
+                count++;
+            }
+        }
+
+        ids = packed;
+        used = count;
+        filled = new int[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            if (i <= count) {
+                filled[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                filled[parent] += filled[i];
+            }
+        }
+    }
+}
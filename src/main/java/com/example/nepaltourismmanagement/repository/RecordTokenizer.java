@@ -0,0 +1,259 @@
+package com.example.nepaltourismmanagement.repository;
+
+import java.util.Arrays;
+
+/**
+ * Reusable field reader for pipe-delimited records, used instead of
+ * line.split("\\|").
+ *
+ * A tokenizer is pointed at a line with {@link #reset(CharSequence)} and finds
+ * field boundaries lazily, only as far as the highest field asked for, so
+ * checking field 1 of a line never scans the rest of it. Fields can be compared
+ * and parsed as numbers in place; a String is only created for the fields a
+ * caller actually keeps. Any CharSequence works, including a CharBuffer decoded
+ * straight from a file.
+ *
+ * Field counting follows String.split: trailing empty fields are not counted.
+ * Number parsing follows Integer.parseInt, Long.parseLong and Double.parseDouble,
+ * falling back to them for anything outside the plain decimal fast path.
+ *
+ * Not thread-safe; reuse one instance per thread.
+ */
+public final class RecordTokenizer {
+
+    public static final char SEPARATOR = '|';
+
+    // Powers of ten that are exact as doubles
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Longest digit run whose value is exact as a double (10^15 < 2^53)
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private CharSequence line = "";
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int found;      // Fields located so far
+    private int scanFrom;   // Where the next field starts, or -1 once the line is exhausted
+    private int count = -1; // Field count, once the whole line has been scanned
+
+    /**
+     * Point the tokenizer at a new line
+     * @param line The line, without its line terminator
+     * @return This tokenizer
+     */
+    public RecordTokenizer reset(CharSequence line) {
+        this.line = line;
+        this.found = 0;
+        this.scanFrom = 0;
+        this.count = -1;
+        return this;
+    }
+
+    /**
+     * Number of fields, not counting trailing empty fields (as String.split does)
+     * @return The field count
+     */
+    public int fieldCount() {
+        if (count < 0) {
+            while (scanFrom >= 0) {
+                scanNext();
+            }
+
+            if (found == 1) {
+                // A line without separators is a single field, even when empty
+                count = 1;
+            } else {
+                int last = found;
+                while (last > 0 && starts[last - 1] == ends[last - 1]) {
+                    last--;
+                }
+                count = last;
+            }
+        }
+        return count;
+    }
+
+    public int length(int field) {
+        locate(field);
+        return ends[field] - starts[field];
+    }
+
+    public boolean isEmpty(int field) {
+        return length(field) == 0;
+    }
+
+    /**
+     * Compare a field with a value without copying it
+     * @param field The field index
+     * @param value The value to compare with
+     * @return True if the field has exactly the characters of the value
+     */
+    public boolean fieldEquals(int field, CharSequence value) {
+        locate(field);
+        int start = starts[field];
+        int length = ends[field] - start;
+        if (value == null || value.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy a field out as a String
+     * @param field The field index
+     * @return The field text
+     */
+    public String getString(int field) {
+        locate(field);
+        return line.subSequence(starts[field], ends[field]).toString();
+    }
+
+    /**
+     * Parse a field as Integer.parseInt would
+     * @param field The field index
+     * @return The value
+     * @throws NumberFormatException If the field is not an int
+     */
+    public int getInt(int field) {
+        long value = getLong(field);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parse a field as Long.parseLong would
+     * @param field The field index
+     * @return The value
+     * @throws NumberFormatException If the field is not a long
+     */
+    public long getLong(int field) {
+        locate(field);
+        int position = starts[field];
+        int end = ends[field];
+
+        boolean negative = false;
+        if (position < end && (line.charAt(position) == '-' || line.charAt(position) == '+')) {
+            negative = line.charAt(position) == '-';
+            position++;
+        }
+
+        // Up to 18 digits cannot overflow a long; anything longer or unusual takes the slow path
+        int digits = end - position;
+        if (digits == 0 || digits > 18) {
+            return Long.parseLong(getString(field));
+        }
+
+        long value = 0;
+        for (; position < end; position++) {
+            char c = line.charAt(position);
+            if (c < '0' || c > '9') {
+                return Long.parseLong(getString(field));
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse a field as Double.parseDouble would. Plain decimals such as 1600.0
+     * or 1234.56 are read in place; other notations fall back to Double.parseDouble.
+     * @param field The field index
+     * @return The value
+     * @throws NumberFormatException If the field is not a number
+     */
+    public double getDouble(int field) {
+        locate(field);
+        int position = starts[field];
+        int end = ends[field];
+
+        boolean negative = false;
+        if (position < end && (line.charAt(position) == '-' || line.charAt(position) == '+')) {
+            negative = line.charAt(position) == '-';
+            position++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (; position < end; position++) {
+            char c = line.charAt(position);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return Double.parseDouble(getString(field));
+            }
+        }
+
+        // An exact mantissa divided by an exact power of ten is correctly rounded
+        if (digits == 0 || digits > MAX_EXACT_DIGITS || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(getString(field));
+        }
+
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse a field as Boolean.parseBoolean would
+     * @param field The field index
+     * @return True if the field is "true", ignoring case
+     */
+    public boolean getBoolean(int field) {
+        locate(field);
+        int start = starts[field];
+        if (ends[field] - start != 4) {
+            return false;
+        }
+
+        return Character.toLowerCase(line.charAt(start)) == 't'
+                && Character.toLowerCase(line.charAt(start + 1)) == 'r'
+                && Character.toLowerCase(line.charAt(start + 2)) == 'u'
+                && Character.toLowerCase(line.charAt(start + 3)) == 'e';
+    }
+
+    // Scan forward until the given field has been found
+    private void locate(int field) {
+        while (found <= field && scanFrom >= 0) {
+            scanNext();
+        }
+        if (field < 0 || field >= found) {
+            throw new IndexOutOfBoundsException("Field " + field + " of a line with " + found + " fields");
+        }
+    }
+
+    private void scanNext() {
+        if (found == starts.length) {
+            starts = Arrays.copyOf(starts, found * 2);
+            ends = Arrays.copyOf(ends, found * 2);
+        }
+
+        int length = line.length();
+        int position = scanFrom;
+        while (position < length && line.charAt(position) != SEPARATOR) {
+            position++;
+        }
+
+        starts[found] = scanFrom;
+        ends[found] = position;
+        found++;
+        scanFrom = position < length ? position + 1 : -1;
+    }
+}
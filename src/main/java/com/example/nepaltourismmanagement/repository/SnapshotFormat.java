@@ -0,0 +1,29 @@
+package com.example.nepaltourismmanagement.repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * How a repository's snapshot file is laid out on disk.
+ * The mutation log is always text; only the snapshot format varies.
+ */
+interface SnapshotFormat<T> {
+
+    /**
+     * Read every record of a snapshot file
+     * @param file The snapshot file, which exists
+     * @param onRecord Receives each record in file order
+     * @param onUnreadable Receives the text of entries that could not be read, so rewrites keep them
+     */
+    void read(Path file, Consumer<T> onRecord, Consumer<String> onUnreadable) throws IOException;
+
+    /**
+     * Write a complete snapshot file
+     * @param file The file to write; the caller syncs and renames it afterwards
+     * @param records The records to write, in order
+     * @param unreadable Entries that could not be read when the snapshot was loaded
+     */
+    void write(Path file, List<T> records, List<String> unreadable) throws IOException;
+}
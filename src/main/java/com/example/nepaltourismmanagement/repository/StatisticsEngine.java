@@ -0,0 +1,130 @@
+package com.example.nepaltourismmanagement.repository;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Computes the admin dashboard metrics.
+ *
+ * The booking totals come from the counters BookingRepository maintains on
+ * every mutation, so a snapshot costs O(treks + months) no matter how many
+ * bookings there are. The per-trek counters are joined with the treks here,
+ * which keeps them right when a trek's name, region or difficulty changes.
+ * The monthly series is a range query on the booking-date time series.
+ */
+public class StatisticsEngine {
+
+    private final UserRepository users;
+    private final TrekRepository treks;
+    private final GuideRepository guides;
+    private final BookingRepository bookings;
+
+    // Length of the monthly bookings series
+    private static final int CHART_MONTHS = 12;
+
+    public StatisticsEngine(DataStore store) {
+        this.users = store.getUsers();
+        this.treks = store.getTreks();
+        this.guides = store.getGuides();
+        this.bookings = store.getBookings();
+    }
+
+    // The trek attributes the booking counters are joined with
+    private static class TrekInfo {
+        final String name;
+        final String region;
+        final String difficulty;
+
+        TrekInfo(String name, String region, String difficulty) {
+            this.name = name;
+            this.region = region;
+            this.difficulty = difficulty;
+        }
+    }
+
+    /**
+     * Compute a snapshot of every dashboard metric from the maintained counters
+     * @return The current statistics
+     */
+    public DashboardStatistics compute() {
+        return build(bookings.getAggregates());
+    }
+
+    /**
+     * Compute the same snapshot by scanning every booking, ignoring the
+     * maintained counters; used to check them
+     * @return The current statistics
+     */
+    public DashboardStatistics recompute() {
+        return build(bookings.recomputeAggregates());
+    }
+
+    private DashboardStatistics build(BookingAggregates totals) {
+        Map<String, TrekInfo> trekInfo = new HashMap<>();
+        Map<String, Integer> treksByRegion = new HashMap<>();
+        Map<String, Integer> treksByDifficulty = new HashMap<>();
+        Map<String, Long> revenueCentsByDifficulty = new HashMap<>();
+
+        treks.forEach(trek -> {
+            trekInfo.put(trek.getId(), new TrekInfo(trek.getName(), trek.getRegion(), trek.getDifficulty()));
+            treksByRegion.merge(trek.getRegion(), 1, Integer::sum);
+            treksByDifficulty.merge(trek.getDifficulty(), 1, Integer::sum);
+
+            // Every difficulty shows up in the revenue chart, even without revenue
+            revenueCentsByDifficulty.putIfAbsent(trek.getDifficulty(), 0L);
+        });
+
+        int[] activeGuides = new int[1];
+        guides.forEach(guide -> {
+            if (guide.isAvailable()) {
+                activeGuides[0]++;
+            }
+        });
+
+        // Join the per-trek counters with the trek attributes
+        Map<String, Integer> trekPopularity = new HashMap<>();
+        Map<String, Integer> bookingsByRegion = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : totals.getBookingsPerTrek().entrySet()) {
+            TrekInfo trek = trekInfo.get(entry.getKey());
+            if (trek != null) {
+                trekPopularity.merge(trek.name, entry.getValue(), Integer::sum);
+                bookingsByRegion.merge(trek.region, entry.getValue(), Integer::sum);
+            }
+        }
+
+        // Summed in cents, so the totals don't depend on the order the treks are visited in
+        for (Map.Entry<String, Long> entry : totals.getRevenueCentsPerTrek().entrySet()) {
+            TrekInfo trek = trekInfo.get(entry.getKey());
+            if (trek != null) {
+                revenueCentsByDifficulty.merge(trek.difficulty, entry.getValue(), Long::sum);
+            }
+        }
+
+        Map<String, Double> revenueByDifficulty = new HashMap<>();
+        revenueCentsByDifficulty.forEach((difficulty, cents) -> revenueByDifficulty.put(difficulty, cents / 100.0));
+
+        // Find most popular trek; ties go to the first name alphabetically
+        String mostPopularTrek = "";
+        int maxBookings = 0;
+        for (Map.Entry<String, Integer> entry : trekPopularity.entrySet()) {
+            if (entry.getValue() > maxBookings || (entry.getValue() == maxBookings && maxBookings > 0
+                    && entry.getKey() != null && entry.getKey().compareTo(mostPopularTrek) < 0)) {
+                maxBookings = entry.getValue();
+                mostPopularTrek = entry.getKey();
+            }
+        }
+
+        // Monthly series from the booking-date index
+        Map<YearMonth, Integer> monthlyBookings = new TreeMap<>();
+        for (BookingTimeSeries.Bucket bucket : bookings.findRecentMonths(CHART_MONTHS)) {
+            monthlyBookings.put(YearMonth.from(bucket.getStart()), bucket.getBookings());
+        }
+
+        return new DashboardStatistics(users.size(), guides.size(), activeGuides[0], trekInfo.size(),
+                totals.getBookingCount(), totals.getRevenueCents() / 100.0, mostPopularTrek, maxBookings,
+                totals.getStatusCounts(), trekPopularity, treksByRegion, treksByDifficulty,
+                bookingsByRegion, revenueByDifficulty, monthlyBookings);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.BookingStatus;
+
+import java.util.*;
+
+/**
+ * Booking ids partitioned by status.
+ *
+ * There is one partition per BookingStatus, found by the status code without
+ * any hashing. A partition keeps its ids in the order they were indexed, so
+ * listing one status costs the size of the result, its size is the count of
+ * that status, and it can be read from any position on.
+ */
+class StatusIndex {
+
+    private final List<PositionIndex> partitions = new ArrayList<>();
+
+    StatusIndex() {
+        for (int i = 0; i < BookingStatus.values().length; i++) {
+            partitions.add(new PositionIndex());
+        }
+    }
+
+    void add(BookingStatus status, String id) {
+        if (status != null && id != null) {
+            partitions.get(status.code()).add(id);
+        }
+    }
+
+    void remove(BookingStatus status, String id) {
+        if (status != null && id != null) {
+            partitions.get(status.code()).remove(id);
+        }
+    }
+
+    Set<String> get(BookingStatus status) {
+        return status == null ? Collections.emptySet() : Collections.unmodifiableSet(partitions.get(status.code()));
+    }
+
+    // The partition itself, to be read from a position on; callers must not modify it
+    PositionIndex partition(BookingStatus status) {
+        return status == null ? new PositionIndex() : partitions.get(status.code());
+    }
+
+    int count(BookingStatus status) {
+        return status == null ? 0 : partitions.get(status.code()).size();
+    }
+
+    void clear() {
+        for (PositionIndex ids : partitions) {
+            ids.clear();
+        }
+    }
+}
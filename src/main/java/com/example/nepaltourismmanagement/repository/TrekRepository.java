@@ -0,0 +1,55 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Trek;
+
+/**
+ * Resident repository for treks.txt.
+ */
+public class TrekRepository extends FileRepository<Trek> {
+
+    public TrekRepository(String filePath) {
+        super(filePath);
+    }
+
+    // Format: id|name|region|maxAltitude|duration|difficulty|basePrice|description|seasonal|bestSeason
+    @Override
+    protected Trek parse(RecordTokenizer fields) {
+        if (fields.fieldCount() < 8) {
+            return null;
+        }
+
+        Trek trek = new Trek();
+        trek.setId(fields.getString(0));
+        trek.setName(fields.getString(1));
+        trek.setRegion(fields.getString(2));
+        trek.setMaxAltitude(fields.getInt(3));
+        trek.setDuration(fields.getInt(4));
+        trek.setDifficulty(fields.getString(5));
+        trek.setBasePrice(fields.getDouble(6));
+        trek.setDescription(fields.getString(7));
+        if (fields.fieldCount() > 8) trek.setSeasonal(fields.getBoolean(8));
+        if (fields.fieldCount() > 9) trek.setBestSeason(fields.getString(9));
+        return trek;
+    }
+
+    @Override
+    protected String format(Trek trek) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(trek.getId()).append("|");
+        sb.append(trek.getName()).append("|");
+        sb.append(trek.getRegion()).append("|");
+        sb.append(trek.getMaxAltitude()).append("|");
+        sb.append(trek.getDuration()).append("|");
+        sb.append(trek.getDifficulty()).append("|");
+        sb.append(trek.getBasePrice()).append("|");
+        sb.append(trek.getDescription()).append("|");
+        sb.append(trek.isSeasonal()).append("|");
+        sb.append(trek.getBestSeason() != null ? trek.getBestSeason() : "");
+        return sb.toString();
+    }
+
+    @Override
+    protected String idOf(Trek trek) {
+        return trek.getId();
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.User;
+import com.example.nepaltourismmanagement.models.UserRole;
+
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resident repository for users.txt with a username index.
+ * Username lookups are hash lookups, so login and duplicate checks cost the
+ * same with ten users or a million.
+ */
+public class UserRepository extends FileRepository<User> {
+
+    private static final int USERNAME_LOCK_STRIPES = 16;
+
+    private final MultiIndex byUsername = new MultiIndex();
+
+    // Registrations of the same username are serialized on one of these
+    private final Lock[] usernameLocks = new Lock[USERNAME_LOCK_STRIPES];
+
+    public UserRepository(String filePath) {
+        super(filePath);
+
+        for (int i = 0; i < USERNAME_LOCK_STRIPES; i++) {
+            usernameLocks[i] = new ReentrantLock();
+        }
+    }
+
+    // Format: id|username|password|fullName|email|contactNumber|nationality|passportNumber|emergencyContact|role|registrationDate
+    @Override
+    protected User parse(RecordTokenizer fields) {
+        if (fields.fieldCount() < 10) {
+            return null;
+        }
+
+        User user = new User();
+        user.setId(fields.getString(0));
+        user.setUsername(fields.getString(1));
+        user.setPassword(fields.getString(2));
+        user.setFullName(fields.getString(3));
+        user.setEmail(fields.getString(4));
+        user.setContactNumber(fields.getString(5));
+        user.setNationality(fields.getString(6));
+        user.setPassportNumber(fields.getString(7));
+        user.setEmergencyContact(fields.getString(8));
+        user.setRole(UserRole.valueOf(fields.getString(9)));
+        if (fields.fieldCount() > 10) user.setRegistrationDate(fields.getString(10));
+        return user;
+    }
+
+    @Override
+    protected String format(User user) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(user.getId()).append("|");
+        sb.append(user.getUsername() != null ? user.getUsername() : "").append("|");
+        sb.append(user.getPassword()).append("|");
+        sb.append(user.getFullName()).append("|");
+        sb.append(user.getEmail()).append("|");
+        sb.append(user.getContactNumber()).append("|");
+        sb.append(user.getNationality()).append("|");
+        sb.append(user.getPassportNumber() != null ? user.getPassportNumber() : "").append("|");
+        sb.append(user.getEmergencyContact() != null ? user.getEmergencyContact() : "").append("|");
+        sb.append(user.getRole().toString()).append("|");
+        sb.append(user.getRegistrationDate() != null ? user.getRegistrationDate() : "");
+        return sb.toString();
+    }
+
+    @Override
+    protected String idOf(User user) {
+        return user.getId();
+    }
+
+    @Override
+    protected void index(User user) {
+        byUsername.add(user.getUsername(), user.getId());
+    }
+
+    @Override
+    protected void unindex(User user) {
+        byUsername.remove(user.getUsername(), user.getId());
+    }
+
+    @Override
+    protected void clearIndexes() {
+        byUsername.clear();
+    }
+
+    /**
+     * Get every user registered under a username, in registration order
+     * @param username The username to look up
+     * @return The matching users (usually at most one)
+     */
+    public List<User> findByUsername(String username) {
+        return read(() -> findAllById(byUsername.get(username)));
+    }
+
+    public boolean existsByUsername(String username) {
+        return read(() -> !byUsername.get(username).isEmpty());
+    }
+
+    /**
+     * Add a new user unless the username is already registered. The check and
+     * the insert are atomic with respect to other registrations of the name.
+     * @param user The user to add
+     * @return true if the user was added, false if the username is taken or the log could not be written
+     */
+    public boolean insertIfUsernameFree(User user) {
+        String username = user.getUsername();
+        Lock lock = usernameLocks[(username == null ? 0 : username.hashCode()) & (USERNAME_LOCK_STRIPES - 1)];
+
+        lock.lock();
+        try {
+            if (existsByUsername(username)) {
+                return false;
+            }
+            return insert(user);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
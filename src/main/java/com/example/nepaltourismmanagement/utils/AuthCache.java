@@ -0,0 +1,146 @@
+package com.example.nepaltourismmanagement.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Short-lived memory of successful logins, so logging in again with the same
+ * credentials does not pay the full password hashing cost.
+ *
+ * Entries never hold the password: each one keeps an HMAC of the username and
+ * password under a key that only lives in this process, the stored hash the
+ * login was verified against, and an expiry time. A password change replaces
+ * the stored hash, so old entries stop matching straight away. The cache keeps
+ * the most recently used entries up to a fixed size.
+ *
+ * Size and lifetime come from tourism.auth.cache.size (default 1024, 0 turns
+ * the cache off) and tourism.auth.cache.ttl in seconds (default 300).
+ */
+public class AuthCache {
+
+    public static final String SIZE_PROPERTY = "tourism.auth.cache.size";
+    public static final String TTL_PROPERTY = "tourism.auth.cache.ttl";
+
+    private static final int DEFAULT_SIZE = 1024;
+    private static final int DEFAULT_TTL_SECONDS = 300;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final class CachedLogin {
+        final byte[] credentials;
+        final String storedHash;
+        final long expiresAt;
+
+        CachedLogin(byte[] credentials, String storedHash, long expiresAt) {
+            this.credentials = credentials;
+            this.storedHash = storedHash;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final SecretKeySpec key;
+    private final Map<String, CachedLogin> entries;
+
+    /**
+     * @param maxEntries Most logins remembered at once; 0 disables the cache
+     * @param ttlSeconds How long a login is remembered
+     */
+    public AuthCache(int maxEntries, long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, MAC_ALGORITHM);
+
+        // Access order, so the least recently used entry is dropped first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedLogin> eldest) {
+                return size() > AuthCache.this.maxEntries;
+            }
+        };
+    }
+
+    // Cache with the size and lifetime from the system properties, or the defaults
+    public static AuthCache fromSystemProperties() {
+        return new AuthCache(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE),
+                Integer.getInteger(TTL_PROPERTY, DEFAULT_TTL_SECONDS));
+    }
+
+    /**
+     * Check whether these credentials were verified recently against the same stored hash
+     * @param username The username
+     * @param password The plaintext password
+     * @param storedHash The user's current stored password hash
+     * @return true if the login can be accepted without hashing the password
+     */
+    public boolean isVerified(String username, String password, String storedHash) {
+        if (maxEntries <= 0 || username == null || password == null) {
+            return false;
+        }
+
+        CachedLogin entry;
+        synchronized (entries) {
+            entry = entries.get(username);
+            if (entry != null && System.nanoTime() - entry.expiresAt > 0) {
+                entries.remove(username);
+                entry = null;
+            }
+        }
+
+        return entry != null
+                && entry.storedHash.equals(storedHash)
+                && MessageDigest.isEqual(entry.credentials, credentials(username, password));
+    }
+
+    /**
+     * Remember a successful login
+     * @param username The username
+     * @param password The plaintext password that was verified
+     * @param storedHash The stored hash it was verified against
+     */
+    public void remember(String username, String password, String storedHash) {
+        if (maxEntries <= 0 || username == null || password == null || storedHash == null) {
+            return;
+        }
+
+        CachedLogin entry = new CachedLogin(credentials(username, password), storedHash, System.nanoTime() + ttlNanos);
+        synchronized (entries) {
+            entries.put(username, entry);
+        }
+    }
+
+    // Forget a user's login, e.g. when the user is deleted
+    public void invalidate(String username) {
+        synchronized (entries) {
+            entries.remove(username);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private byte[] credentials(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            // Every Java runtime ships HmacSHA256
+            throw new IllegalStateException("Login cache is not available", e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.nepaltourismmanagement.utils;
+
+import javafx.concurrent.Task;
+import javafx.scene.control.ProgressIndicator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs dashboard data loads on background threads and hands the results back
+ * to the JavaFX Application Thread.
+ *
+ * Every load has a key such as "bookings" or "dashboard". Starting a load
+ * cancels the one already in flight under the same key, and results of a load
+ * that was cancelled or replaced are dropped, so a slow stale load can never
+ * overwrite newer data. All methods must be called on the JavaFX Application Thread.
+ */
+public class BackgroundLoader {
+
+    // Daemon threads shared by all dashboards so loads never keep the JVM alive
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2), new LoaderThreadFactory());
+
+    // Loads currently in flight, by key
+    private final Map<String, Task<?>> inFlight = new HashMap<>();
+
+    // Shown while any load is in flight, may be null
+    private final ProgressIndicator progressIndicator;
+
+    public BackgroundLoader(ProgressIndicator progressIndicator) {
+        this.progressIndicator = progressIndicator;
+        updateProgressIndicator();
+    }
+
+    /**
+     * Start a load, cancelling any load already in flight under the same key
+     * @param key Name of the load
+     * @param work Runs on a background thread and must not touch the UI
+     * @param onLoaded Receives the result on the JavaFX Application Thread
+     * @param onFailed Receives the error on the JavaFX Application Thread
+     */
+    public <T> void load(String key, Callable<T> work, Consumer<T> onLoaded, Consumer<Throwable> onFailed) {
+        cancel(key);
+
+        Task<T> task = new Task<T>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+
+        task.setOnSucceeded(event -> {
+            if (finish(key, task)) {
+                onLoaded.accept(task.getValue());
+            }
+        });
+
+        task.setOnFailed(event -> {
+            if (finish(key, task)) {
+                Throwable error = task.getException();
+                System.err.println("Error loading " + key + ": " + error.getMessage());
+                error.printStackTrace();
+                onFailed.accept(error);
+            }
+        });
+
+        task.setOnCancelled(event -> finish(key, task));
+
+        inFlight.put(key, task);
+        updateProgressIndicator();
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Start a load whose errors are only logged
+     */
+    public <T> void load(String key, Callable<T> work, Consumer<T> onLoaded) {
+        load(key, work, onLoaded, error -> { });
+    }
+
+    /**
+     * Cancel the load in flight under a key
+     * @param key Name of the load
+     * @return true if a load was in flight and has been cancelled
+     */
+    public boolean cancel(String key) {
+        Task<?> task = inFlight.remove(key);
+        if (task == null) {
+            return false;
+        }
+
+        // Not interrupted: an interrupt during file I/O would close the channel under the data store
+        task.cancel(false);
+        updateProgressIndicator();
+        return true;
+    }
+
+    /**
+     * Cancel every load in flight, e.g. when the dashboard is closed
+     */
+    public void cancelAll() {
+        for (Task<?> task : inFlight.values()) {
+            task.cancel(false);
+        }
+        inFlight.clear();
+        updateProgressIndicator();
+    }
+
+    public boolean isLoading(String key) {
+        return inFlight.containsKey(key);
+    }
+
+    // Remove a finished task; returns false if it had already been replaced or cancelled
+    private boolean finish(String key, Task<?> task) {
+        if (inFlight.get(key) != task) {
+            return false;
+        }
+
+        inFlight.remove(key);
+        updateProgressIndicator();
+        return true;
+    }
+
+    private void updateProgressIndicator() {
+        if (progressIndicator != null) {
+            boolean loading = !inFlight.isEmpty();
+            progressIndicator.setVisible(loading);
+            progressIndicator.setManaged(loading);
+        }
+    }
+
+    // Names the loader threads and marks them as daemons
+    private static class LoaderThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "dashboard-loader-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
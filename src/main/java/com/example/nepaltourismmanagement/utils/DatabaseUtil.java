@@ -1,22 +1,42 @@
 package com.example.nepaltourismmanagement.utils;
 
 import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
 import com.example.nepaltourismmanagement.models.Guide;
 import com.example.nepaltourismmanagement.models.Trek;
 import com.example.nepaltourismmanagement.models.User;
 import com.example.nepaltourismmanagement.models.UserRole;
+import com.example.nepaltourismmanagement.repository.BookingJoins;
+import com.example.nepaltourismmanagement.repository.BookingPage;
+import com.example.nepaltourismmanagement.repository.BookingQuery;
+import com.example.nepaltourismmanagement.repository.BookingRepository;
+import com.example.nepaltourismmanagement.repository.BookingTimeSeries;
+import com.example.nepaltourismmanagement.repository.DashboardStatistics;
+import com.example.nepaltourismmanagement.repository.DataStore;
+import com.example.nepaltourismmanagement.repository.DisplayNames;
+import com.example.nepaltourismmanagement.repository.GuideAssignmentPlanner;
+import com.example.nepaltourismmanagement.repository.GuideRepository;
+import com.example.nepaltourismmanagement.repository.GuideWorkload;
+import com.example.nepaltourismmanagement.repository.StatisticsEngine;
+import com.example.nepaltourismmanagement.repository.TrekRepository;
+import com.example.nepaltourismmanagement.repository.UserRepository;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.time.LocalDateTime;
+import java.security.MessageDigest;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class DatabaseUtil {
 
+    // System property that points the application at another data directory, e.g. -Dtourism.data.dir=/tmp/load-test
+    public static final String DATA_DIR_PROPERTY = "tourism.data.dir";
+
     // File paths
-    private static final String DATA_DIR = "data/";
+    private static final String DATA_DIR = dataDirectory();
     private static final String USERS_FILE = DATA_DIR + "users.txt";
     private static final String BOOKINGS_FILE = DATA_DIR + "bookings.txt";
     private static final String TREKS_FILE = DATA_DIR + "treks.txt";
@@ -29,19 +49,85 @@ public class DatabaseUtil {
     // Current date & time constant
     private static final String CURRENT_DATETIME = "2025-07-30 07:40:12";
 
+    // Days ahead covered by a guide's workload summary
+    public static final int WORKLOAD_WINDOW_DAYS = 30;
+
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    // Constructor
-    public DatabaseUtil() {
+    // Singleton instance
+    private static DatabaseUtil instance;
+
+    // Resident repositories; every change is appended to a mutation log
+    private final UserRepository users;
+    private final TrekRepository treks;
+    private final GuideRepository guides;
+    private final BookingRepository bookings;
+    private final StatisticsEngine statisticsEngine;
+    private final BookingJoins bookingJoins;
+
+    // Trek, tourist and guide names shown on bookings, invalidated on rename or delete
+    private final DisplayNames displayNames;
+
+    // Password hashing and the memory of recent logins
+    private final PasswordHasher passwordHasher = Pbkdf2PasswordHasher.fromSystemProperties();
+    private final AuthCache authCache = AuthCache.fromSystemProperties();
+
+    // Failed login counters, kept for the life of the process
+    private final LoginThrottle loginThrottle = LoginThrottle.fromSystemProperties();
+
+    // Startup report from the one-time bootstrap
+    private final String bootstrapReport;
+
+    // Data directory from the system property, "data/" by default, always ending with a separator
+    private static String dataDirectory() {
+        String dir = System.getProperty(DATA_DIR_PROPERTY, "data/");
+        if (!dir.endsWith("/") && !dir.endsWith("\\")) {
+            dir = dir + "/";
+        }
+        return dir;
+    }
+
+    /**
+     * Get the process-wide DatabaseUtil, bootstrapping the data store on first use.
+     * Controllers share this instance, so switching scenes does no file I/O.
+     */
+    public static synchronized DatabaseUtil getInstance() {
+        if (instance == null) {
+            instance = new DatabaseUtil();
+        }
+        return instance;
+    }
+
+    /**
+     * Private constructor for singleton pattern; runs the one-time bootstrap
+     */
+    private DatabaseUtil() {
+        long startTime = System.nanoTime();
+
         // Initialize data storage
         initializeDataStorage();
 
+        // Load every data file into memory
+        DataStore store = new DataStore(DATA_DIR);
+        String loadReport = store.load();
+        users = store.getUsers();
+        treks = store.getTreks();
+        guides = store.getGuides();
+        bookings = store.getBookings();
+        statisticsEngine = new StatisticsEngine(store);
+        bookingJoins = new BookingJoins(store);
+        displayNames = new DisplayNames(store);
+
         // Create admin user if it doesn't exist
         createAdminUserIfNotExists();
 
         // Create sample tourist user if it doesn't exist
         createSampleTouristIfNotExists();
 
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        bootstrapReport = "Data store bootstrap completed in " + elapsedMillis + " ms\n" + loadReport;
+        System.out.print(bootstrapReport);
+
         // Debug message to verify paths
         System.out.println("Data directory path: " + new File(DATA_DIR).getAbsolutePath());
         System.out.println("Users file path: " + new File(USERS_FILE).getAbsolutePath());
@@ -49,6 +135,22 @@ public class DatabaseUtil {
         System.out.println("Current system time: " + CURRENT_DATETIME);
     }
 
+    /**
+     * Get the startup report of the one-time bootstrap
+     * @return Bootstrap time and records loaded per entity
+     */
+    public String getBootstrapReport() {
+        return bootstrapReport;
+    }
+
+    /**
+     * Get the process-wide failed login counters, checked before authenticateUser
+     * @return The login throttle
+     */
+    public LoginThrottle getLoginThrottle() {
+        return loginThrottle;
+    }
+
     // Initialize data storage by creating directories and files if they don't exist
     private void initializeDataStorage() {
         try {
@@ -102,155 +204,137 @@ public class DatabaseUtil {
 
     // Method to create admin user if it doesn't exist
     private void createAdminUserIfNotExists() {
-        try {
-            // First check if users file exists and create if it doesn't
-            Path usersFilePath = Paths.get(USERS_FILE);
-            if (!Files.exists(usersFilePath)) {
-                Files.createFile(usersFilePath);
-            }
-
-            // Check if admin user exists
-            if (!isUserExists(ADMIN_USERNAME)) {
-                User adminUser = new User();
-                adminUser.setId(UUID.randomUUID().toString());
-                adminUser.setUsername(ADMIN_USERNAME);
-                adminUser.setPassword(ADMIN_PASSWORD);
-                adminUser.setFullName("System Administrator");
-                adminUser.setEmail("admin@tripsewa.com");
-                adminUser.setContactNumber("9800000000");
-                adminUser.setNationality("Nepal");
-                adminUser.setRole(UserRole.ADMIN);
-
-                // Format: id|username|password|fullName|email|contactNumber|nationality|passportNumber|emergencyContact|role|registrationDate
-                StringBuilder sb = new StringBuilder();
-                sb.append(adminUser.getId()).append("|");
-                sb.append(adminUser.getUsername()).append("|");
-                sb.append(adminUser.getPassword()).append("|");
-                sb.append(adminUser.getFullName()).append("|");
-                sb.append(adminUser.getEmail()).append("|");
-                sb.append(adminUser.getContactNumber()).append("|");
-                sb.append(adminUser.getNationality()).append("|");
-                sb.append("").append("|"); // passportNumber
-                sb.append("").append("|"); // emergencyContact
-                sb.append(adminUser.getRole().toString()).append("|");
-                sb.append(CURRENT_DATETIME);
-
-                Files.write(usersFilePath,
-                        Collections.singletonList(sb.toString()),
-                        StandardOpenOption.APPEND);
-
+        // Check if admin user exists
+        if (!isUserExists(ADMIN_USERNAME)) {
+            User adminUser = new User();
+            adminUser.setId(UUID.randomUUID().toString());
+            adminUser.setUsername(ADMIN_USERNAME);
+            adminUser.setPassword(passwordHasher.hash(ADMIN_PASSWORD));
+            adminUser.setFullName("System Administrator");
+            adminUser.setEmail("admin@tripsewa.com");
+            adminUser.setContactNumber("9800000000");
+            adminUser.setNationality("Nepal");
+            adminUser.setPassportNumber("");
+            adminUser.setEmergencyContact("");
+            adminUser.setRole(UserRole.ADMIN);
+            adminUser.setRegistrationDate(CURRENT_DATETIME);
+
+            if (users.insert(adminUser)) {
                 System.out.println("Admin user created successfully with username: " + ADMIN_USERNAME);
+            } else {
+                System.err.println("Error creating admin user");
             }
-        } catch (IOException e) {
-            System.err.println("Error creating admin user: " + e.getMessage());
-            e.printStackTrace();
         }
     }
 
     // Method to create sample tourist user if it doesn't exist
     private void createSampleTouristIfNotExists() {
-        try {
-            // Check if the sample tourist user exists
-            if (!isUserExists("tourist")) {
-                String touristId = UUID.randomUUID().toString();
-
-                User touristUser = new User();
-                touristUser.setId(touristId);
-                touristUser.setUsername("tourist");
-                touristUser.setPassword("tourist123");
-                touristUser.setFullName("BibekDkl");
-                touristUser.setEmail("tourist@example.com");
-                touristUser.setContactNumber("9800000001");
-                touristUser.setNationality("Nepal");
-                touristUser.setRole(UserRole.TOURIST);
-
-                // Format: id|username|password|fullName|email|contactNumber|nationality|passportNumber|emergencyContact|role|registrationDate
-                StringBuilder sb = new StringBuilder();
-                sb.append(touristId).append("|");
-                sb.append(touristUser.getUsername()).append("|");
-                sb.append(touristUser.getPassword()).append("|");
-                sb.append(touristUser.getFullName()).append("|");
-                sb.append(touristUser.getEmail()).append("|");
-                sb.append(touristUser.getContactNumber()).append("|");
-                sb.append(touristUser.getNationality()).append("|");
-                sb.append("T123456").append("|"); // passportNumber
-                sb.append("9800000002").append("|"); // emergencyContact
-                sb.append(touristUser.getRole().toString()).append("|");
-                sb.append(CURRENT_DATETIME);
-
-                Files.write(Paths.get(USERS_FILE),
-                        Collections.singletonList(sb.toString()),
-                        StandardOpenOption.APPEND);
-
+        // Check if the sample tourist user exists
+        if (!isUserExists("tourist")) {
+            String touristId = UUID.randomUUID().toString();
+
+            User touristUser = new User();
+            touristUser.setId(touristId);
+            touristUser.setUsername("tourist");
+            touristUser.setPassword(passwordHasher.hash("tourist123"));
+            touristUser.setFullName("BibekDkl");
+            touristUser.setEmail("tourist@example.com");
+            touristUser.setContactNumber("9800000001");
+            touristUser.setNationality("Nepal");
+            touristUser.setPassportNumber("T123456");
+            touristUser.setEmergencyContact("9800000002");
+            touristUser.setRole(UserRole.TOURIST);
+            touristUser.setRegistrationDate(CURRENT_DATETIME);
+
+            if (users.insert(touristUser)) {
                 System.out.println("Sample tourist user created successfully with username: tourist and password: tourist123");
                 System.out.println("Tourist ID: " + touristId);
+            } else {
+                System.err.println("Error creating sample tourist user");
             }
-        } catch (IOException e) {
-            System.err.println("Error creating sample tourist user: " + e.getMessage());
-            e.printStackTrace();
         }
     }
 
-    // Method to check if a user exists
-    private boolean isUserExists(String username) {
-        try {
-            if (!Files.exists(Paths.get(USERS_FILE))) {
-                return false;
-            }
+    /**
+     * Check whether a username is already registered, using the username index
+     * @param username The username to check
+     * @return true if a user has this username
+     */
+    public boolean isUserExists(String username) {
+        return users.existsByUsername(username);
+    }
+
+    // Method to authenticate a user
+    public User authenticateUser(String username, String password) {
+        if (password == null) {
+            System.out.println("Authentication failed for username: " + username);
+            return null;
+        }
 
-            List<String> lines = Files.readAllLines(Paths.get(USERS_FILE));
+        for (User stored : users.findByUsername(username)) {
+            if (stored.getPassword() == null) {
+                continue;
+            }
 
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 2 && parts[1].equals(username)) {
-                    return true;
+            if (authCache.isVerified(username, password, stored.getPassword()) || checkPassword(stored, password)) {
+                // Re-read, as a successful check may have upgraded the stored hash
+                User current = users.findById(stored.getId());
+                if (current == null) {
+                    continue;
                 }
+                authCache.remember(username, password, current.getPassword());
+
+                User user = copyUser(current);
+                user.setPassword(current.getPassword()); // Usually wouldn't store this in memory
+
+                System.out.println("User authenticated: " + user.getUsername() + " (ID: " + user.getId() + ")");
+                return user;
             }
-        } catch (IOException e) {
-            System.err.println("Error checking if user exists: " + e.getMessage());
-            e.printStackTrace();
         }
 
-        return false;
+        System.out.println("Authentication failed for username: " + username);
+        return null;
     }
 
-    // Method to authenticate a user
-    public User authenticateUser(String username, String password) {
-        try {
-            if (!Files.exists(Paths.get(USERS_FILE))) {
-                System.err.println("Users file does not exist");
-                return null;
+    // Check a password against a stored user; on success, legacy plaintext and outdated hashes are replaced
+    private boolean checkPassword(User stored, String password) {
+        String storedPassword = stored.getPassword();
+
+        if (passwordHasher.isHash(storedPassword)) {
+            if (!passwordHasher.verify(password, storedPassword)) {
+                return false;
+            }
+            if (passwordHasher.needsRehash(storedPassword)) {
+                upgradePassword(stored, password);
             }
+            return true;
+        }
 
-            List<String> lines = Files.readAllLines(Paths.get(USERS_FILE));
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-
-                if (parts.length >= 10 && parts[1].equals(username) && parts[2].equals(password)) {
-                    User user = new User();
-                    user.setId(parts[0]);
-                    user.setUsername(parts[1]);
-                    user.setPassword(parts[2]); // Usually wouldn't store this in memory
-                    user.setFullName(parts[3]);
-                    user.setEmail(parts[4]);
-                    user.setContactNumber(parts[5]);
-                    user.setNationality(parts[6]);
-                    if (parts.length > 7) user.setPassportNumber(parts[7]);
-                    if (parts.length > 8) user.setEmergencyContact(parts[8]);
-                    user.setRole(UserRole.valueOf(parts[9]));
-
-                    System.out.println("User authenticated: " + user.getUsername() + " (ID: " + user.getId() + ")");
-                    return user;
-                }
+        // Legacy row with the password in plaintext
+        if (!MessageDigest.isEqual(storedPassword.getBytes(StandardCharsets.UTF_8),
+                password.getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+        upgradePassword(stored, password);
+        return true;
+    }
+
+    // Store a fresh hash of a verified password, unless the password changed in the meantime
+    private void upgradePassword(User stored, String password) {
+        String hashed = passwordHasher.hash(password);
+
+        boolean upgraded = users.modify(stored.getId(), existing -> {
+            if (!stored.getPassword().equals(existing.getPassword())) {
+                return null;
             }
+            User updated = copyUser(existing);
+            updated.setPassword(hashed);
+            return updated;
+        });
 
-            System.out.println("Authentication failed for username: " + username);
-        } catch (IOException e) {
-            System.err.println("Error reading users file: " + e.getMessage());
-            e.printStackTrace();
+        if (upgraded) {
+            System.out.println("Upgraded password hash for user: " + stored.getUsername());
         }
-        return null;
     }
 
     // Method to register a new user
@@ -258,162 +342,117 @@ public class DatabaseUtil {
         String userId = UUID.randomUUID().toString();
         user.setId(userId);
 
-        // Format: id|username|password|fullName|email|contactNumber|nationality|passportNumber|emergencyContact|role|registrationDate
-        StringBuilder sb = new StringBuilder();
-        sb.append(userId).append("|");
-        sb.append(user.getUsername() != null ? user.getUsername() : "").append("|");
-        sb.append(user.getPassword()).append("|");
-        sb.append(user.getFullName()).append("|");
-        sb.append(user.getEmail()).append("|");
-        sb.append(user.getContactNumber()).append("|");
-        sb.append(user.getNationality()).append("|");
-        sb.append(user.getPassportNumber() != null ? user.getPassportNumber() : "").append("|");
-        sb.append(user.getEmergencyContact() != null ? user.getEmergencyContact() : "").append("|");
-        sb.append(user.getRole().toString()).append("|");
-        sb.append(CURRENT_DATETIME);
+        User stored = copyUser(user);
+        stored.setPassword(passwordHasher.hash(user.getPassword()));
+        stored.setRegistrationDate(CURRENT_DATETIME);
 
-        try {
-            Files.write(Paths.get(USERS_FILE),
-                    Collections.singletonList(sb.toString()),
-                    StandardOpenOption.APPEND);
-
-            // If user is a guide, create a guide profile
-            if (user.getRole() == UserRole.GUIDE) {
-                createGuideProfile(userId, user.getFullName(), user.getEmail(), user.getContactNumber());
+        if (!users.insertIfUsernameFree(stored)) {
+            if (isUserExists(user.getUsername())) {
+                System.err.println("Username already taken: " + user.getUsername());
+            } else {
+                System.err.println("Error writing to users file");
             }
-
-            return true;
-        } catch (IOException e) {
-            System.err.println("Error writing to users file: " + e.getMessage());
-            e.printStackTrace();
             return false;
         }
+
+        // If user is a guide, create a guide profile
+        if (user.getRole() == UserRole.GUIDE) {
+            createGuideProfile(userId, user.getFullName(), user.getEmail(), user.getContactNumber());
+        }
+
+        return true;
     }
 
     // Create a guide profile when a guide user registers
     private void createGuideProfile(String userId, String name, String email, String phone) {
-        String guideId = UUID.randomUUID().toString();
-
-        // Format: id|userId|name|email|phoneNumber|languages|yearsOfExperience|certifications|specializations|available
-        StringBuilder sb = new StringBuilder();
-        sb.append(guideId).append("|");
-        sb.append(userId).append("|");
-        sb.append(name).append("|");
-        sb.append(email).append("|");
-        sb.append(phone).append("|");
-        sb.append("English, Nepali").append("|"); // Default languages
-        sb.append("0").append("|"); // yearsOfExperience
-        sb.append("Basic Guide Training").append("|"); // Default certifications
-        sb.append("General Trekking").append("|"); // Default specializations
-        sb.append("true"); // available by default
-
-        try {
-            Files.write(Paths.get(GUIDES_FILE),
-                    Collections.singletonList(sb.toString()),
-                    StandardOpenOption.CREATE,
-                    StandardOpenOption.APPEND);
-
+        Guide guide = new Guide();
+        guide.setId(UUID.randomUUID().toString());
+        guide.setUserId(userId);
+        guide.setName(name);
+        guide.setEmail(email);
+        guide.setPhoneNumber(phone);
+        guide.setLanguages("English, Nepali"); // Default languages
+        guide.setYearsOfExperience(0);
+        guide.setCertifications("Basic Guide Training"); // Default certifications
+        guide.setSpecializations("General Trekking"); // Default specializations
+        guide.setAvailable(true); // available by default
+
+        if (guides.insert(guide)) {
             System.out.println("Guide profile created for user ID: " + userId);
-        } catch (IOException e) {
-            System.err.println("Error writing to guides file: " + e.getMessage());
-            e.printStackTrace();
+        } else {
+            System.err.println("Error writing to guides file");
         }
     }
 
     // Method to get all bookings
     public List<Booking> getAllBookings() {
-        List<Booking> bookings = new ArrayList<>();
-
-        try {
-            if (!Files.exists(Paths.get(BOOKINGS_FILE)) || Files.size(Paths.get(BOOKINGS_FILE)) == 0) {
-                return bookings;
-            }
-
-            Map<String, Trek> treks = getAllTreksMap();
-            Map<String, User> users = getAllUsersMap();
-            Map<String, Guide> guides = getAllGuidesMap();
+        return toBookingViews(bookings.findAll());
+    }
 
-            List<String> lines = Files.readAllLines(Paths.get(BOOKINGS_FILE));
+    // Copy stored bookings and fill in trek, tourist and guide names
+    private List<Booking> toBookingViews(Collection<Booking> stored) {
+        List<Booking> result = new ArrayList<>(stored.size());
 
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 9) {
-                    Booking booking = parseBooking(parts);
+        for (Booking booking : stored) {
+            result.add(toBookingView(booking));
+        }
 
-                    // Add additional information
-                    if (treks.containsKey(booking.getTrekId())) {
-                        booking.setTrekName(treks.get(booking.getTrekId()).getName());
-                    }
+        return result;
+    }
 
-                    if (users.containsKey(booking.getTouristId())) {
-                        booking.setTouristName(users.get(booking.getTouristId()).getFullName());
-                    }
+    private Booking toBookingView(Booking stored) {
+        Booking booking = copyBooking(stored);
 
-                    if (booking.getGuideId() != null && guides.containsKey(booking.getGuideId())) {
-                        booking.setGuideName(guides.get(booking.getGuideId()).getName());
-                    }
+        // Add additional information from the name cache
+        String trekName = displayNames.trekName(booking.getTrekId());
+        if (trekName != null) {
+            booking.setTrekName(trekName);
+        }
 
-                    bookings.add(booking);
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading bookings file: " + e.getMessage());
-            e.printStackTrace();
+        String touristName = displayNames.touristName(booking.getTouristId());
+        if (touristName != null) {
+            booking.setTouristName(touristName);
         }
 
-        return bookings;
-    }
+        String guideName = displayNames.guideName(booking.getGuideId());
+        if (guideName != null) {
+            booking.setGuideName(guideName);
+        }
 
-    // Helper method to parse a booking from file line
-    private Booking parseBooking(String[] parts) {
-        Booking booking = new Booking();
-        booking.setId(parts[0]);
-        booking.setTrekId(parts[1]);
-        booking.setTouristId(parts[2]);
-        booking.setGuideId(parts[3].isEmpty() ? null : parts[3]);
-        booking.setBookingDate(parts[4]);
-        booking.setStatus(parts[5]);
-        booking.setPrice(Double.parseDouble(parts[6]));
-        booking.setDuration(Integer.parseInt(parts[7]));
-        booking.setHighRiskAcknowledged(Boolean.parseBoolean(parts[8]));
         return booking;
     }
 
-    // Method to get all users as a map for quick lookup
-    private Map<String, User> getAllUsersMap() {
-        Map<String, User> usersMap = new HashMap<>();
+    /**
+     * Get one window of the bookings matching a query, filtered and sorted through the booking indexes
+     * @param query Status, trek and date filters and the sort order
+     * @param offset Position of the first booking to return
+     * @param limit Most bookings to return
+     * @return The window, with trek, tourist and guide names, and the number of bookings the query matches
+     */
+    public BookingPage getBookingPage(BookingQuery query, int offset, int limit) {
+        BookingPage page = bookings.findPage(query, offset, limit);
+        return new BookingPage(toBookingViews(page.getBookings()), page.getOffset(), page.getTotal());
+    }
 
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(USERS_FILE));
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 5) {
-                    User user = new User();
-                    user.setId(parts[0]);
-                    user.setUsername(parts[1]);
-                    user.setFullName(parts[3]);
-                    user.setEmail(parts[4]);
-                    if (parts.length > 5) user.setContactNumber(parts[5]);
-                    if (parts.length > 6) user.setNationality(parts[6]);
-                    if (parts.length > 9) user.setRole(UserRole.valueOf(parts[9]));
-
-                    usersMap.put(user.getId(), user);
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading users file: " + e.getMessage());
-            e.printStackTrace();
-        }
+    /**
+     * Get another window of a query whose size is already known, without counting its matches again
+     * @param query Status, trek and date filters and the sort order
+     * @param offset Position of the first booking to return
+     * @param limit Most bookings to return
+     * @return The window, with trek, tourist and guide names
+     */
+    public List<Booking> getBookingWindow(BookingQuery query, int offset, int limit) {
+        return toBookingViews(bookings.findWindow(query, offset, limit));
+    }
 
-        return usersMap;
+    // Method to filter bookings by status, through the status index
+    public List<Booking> getBookingsByStatus(BookingStatus status) {
+        return toBookingViews(bookings.findByStatus(status));
     }
 
-    // Method to filter bookings by status
-    public List<Booking> getBookingsByStatus(String status) {
-        return getAllBookings().stream()
-                .filter(booking -> status.equals(booking.getStatus()))
-                .collect(Collectors.toList());
+    // Method to count the bookings with a status without reading them
+    public int getBookingCountByStatus(BookingStatus status) {
+        return bookings.countByStatus(status);
     }
 
     // Method to get bookings for a specific tourist
@@ -425,88 +464,210 @@ public class DatabaseUtil {
 
         System.out.println("Getting bookings for tourist ID: " + touristId);
 
-        List<Booking> bookings = getAllBookings().stream()
-                .filter(booking -> touristId.equals(booking.getTouristId()))
-                .collect(Collectors.toList());
+        List<Booking> result = toBookingViews(bookings.findByTourist(touristId));
 
-        System.out.println("Found " + bookings.size() + " bookings for tourist ID: " + touristId);
-        return bookings;
+        System.out.println("Found " + result.size() + " bookings for tourist ID: " + touristId);
+        return result;
     }
 
     // Method to get assigned trips for a specific guide
     public List<Booking> getAssignedTripsForGuide(String guideId) {
-        return getAllBookings().stream()
-                .filter(booking -> guideId.equals(booking.getGuideId()))
-                .collect(Collectors.toList());
+        return toBookingViews(bookings.findByGuide(guideId));
     }
 
-    // Method to update booking status
-    public boolean updateBookingStatus(String bookingId, String status) {
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(BOOKINGS_FILE));
-            List<String> updatedLines = new ArrayList<>();
-            boolean found = false;
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 6 && parts[0].equals(bookingId)) {
-                    // Update status
-                    parts[5] = status;
-                    updatedLines.add(String.join("|", parts));
-                    found = true;
-                } else {
-                    updatedLines.add(line);
-                }
-            }
+    /**
+     * Get a guide's upcoming trips, trip-days over the next WORKLOAD_WINDOW_DAYS
+     * days and next free date, from the guide schedules kept by the bookings repository
+     * @param guideId The guide's ID
+     * @return The guide's workload as of today
+     */
+    public GuideWorkload getGuideWorkload(String guideId) {
+        return getGuideWorkloads(Collections.singletonList(guideId)).get(guideId);
+    }
+
+    /**
+     * Get the workload of several guides in one read of the bookings
+     * @param guideIds The guides' IDs
+     * @return Workload per guide ID as of today
+     */
+    public Map<String, GuideWorkload> getGuideWorkloads(Collection<String> guideIds) {
+        return bookings.findWorkloads(guideIds, LocalDate.now(), WORKLOAD_WINDOW_DAYS);
+    }
 
-            if (found) {
-                Files.write(Paths.get(BOOKINGS_FILE), updatedLines);
-                return true;
+    /**
+     * Update a booking's status, if its current status can change to it
+     * @param bookingId The booking's ID
+     * @param status The new status
+     * @return true if the status was written; false if the booking does not exist, the status is null,
+     *         the current status cannot change to it, or the bookings file could not be written
+     */
+    public boolean updateBookingStatus(String bookingId, BookingStatus status) {
+        return bookings.modify(bookingId, existing -> {
+            // Checked against the stored status, under the record lock
+            if (!canChangeStatus(existing.getBookingStatus(), status)) {
+                return null;
             }
 
-        } catch (IOException e) {
-            System.err.println("Error updating booking status: " + e.getMessage());
-            e.printStackTrace();
-        }
+            Booking updated = copyBooking(existing);
+            updated.setBookingStatus(status);
+            return updated;
+        });
+    }
 
-        return false;
+    // A booking without a readable status may be given any; otherwise the status transitions decide
+    private static boolean canChangeStatus(BookingStatus current, BookingStatus next) {
+        return next != null && (current == null || current.canChangeTo(next));
+    }
+
+    // A booking written without a known status could not be read back from the bookings file
+    private static void requireStatus(Booking booking) {
+        if (booking.getBookingStatus() == null) {
+            throw new IllegalArgumentException("Booking " + booking.getId() + " has no valid status");
+        }
     }
 
-    // Method to assign a guide to a booking
+    // Method to assign a guide to a booking; refused if the guide has another trip on any of its days
     public boolean assignGuideToBooking(String bookingId, String guideId) {
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(BOOKINGS_FILE));
-            List<String> updatedLines = new ArrayList<>();
-            boolean found = false;
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 6 && parts[0].equals(bookingId)) {
-                    // Update guide ID and status
-                    parts[3] = guideId;
-                    parts[5] = "Confirmed";
-                    updatedLines.add(String.join("|", parts));
-                    found = true;
-                } else {
-                    updatedLines.add(line);
+        Booking booking = bookings.findById(bookingId);
+        if (booking == null) {
+            System.err.println("Booking with ID " + bookingId + " not found");
+            return false;
+        }
+
+        if (!isGuideFreeForBooking(guideId, booking)) {
+            System.err.println("Guide " + guideId + " already has a trip between " + booking.getBookingDate()
+                    + " and the end of this " + booking.getDuration() + "-day booking");
+            return false;
+        }
+
+        // Checked again atomically, in case another assignment of the guide got in first
+        return bookings.assignGuideIfFree(bookingId, guideId, existing -> {
+            // Only a pending or confirmed booking can be (re)assigned; it is confirmed by the assignment
+            if (!canChangeStatus(existing.getBookingStatus(), BookingStatus.CONFIRMED)) {
+                return null;
+            }
+
+            // Update guide ID and status
+            Booking updated = copyBooking(existing);
+            updated.setGuideId(guideId);
+            updated.setBookingStatus(BookingStatus.CONFIRMED);
+            return updated;
+        });
+    }
+
+    /**
+     * Assign guides to every pending booking without one, in one batch. Guides
+     * are matched on dates, language and qualification for the trek by
+     * GuideAssignmentPlanner, and the whole plan is written with a single log
+     * append; assigned bookings become Confirmed. Bookings no free, qualified
+     * guide can take stay Pending.
+     * @return Number of bookings assigned, or -1 if the bookings file could not be written
+     */
+    public int autoAssignGuides() {
+        long startTime = System.nanoTime();
+
+        List<Booking> pending = new ArrayList<>();
+        Map<String, String> nationalityByTourist = new HashMap<>();
+        for (Booking booking : bookings.findByStatus(BookingStatus.PENDING)) {
+            if (booking.getGuideId() == null || booking.getGuideId().isEmpty()) {
+                pending.add(booking);
+                User tourist = users.findById(booking.getTouristId());
+                if (tourist != null && tourist.getNationality() != null) {
+                    nationalityByTourist.put(tourist.getId(), tourist.getNationality());
                 }
             }
+        }
 
-            if (found) {
-                Files.write(Paths.get(BOOKINGS_FILE), updatedLines);
-                return true;
+        List<Guide> availableGuides = new ArrayList<>();
+        for (Guide guide : guides.findAll()) {
+            if (guide.isAvailable()) {
+                availableGuides.add(guide);
             }
+        }
 
-        } catch (IOException e) {
-            System.err.println("Error assigning guide to booking: " + e.getMessage());
-            e.printStackTrace();
+        Map<String, Trek> treksById = new HashMap<>();
+        for (Trek trek : treks.findAll()) {
+            treksById.put(trek.getId(), trek);
         }
 
-        return false;
+        Map<String, String> plan = new GuideAssignmentPlanner(availableGuides, treksById, nationalityByTourist)
+                .plan(pending, bookings);
+
+        // Bookings changed since planning are skipped: already assigned, no longer pending, or the guide got busy
+        int assigned = bookings.assignGuidesIfFree(plan, (existing, guideId) -> {
+            if (existing.getBookingStatus() != BookingStatus.PENDING
+                    || (existing.getGuideId() != null && !existing.getGuideId().isEmpty())) {
+                return null;
+            }
+
+            Booking updated = copyBooking(existing);
+            updated.setGuideId(guideId);
+            updated.setBookingStatus(BookingStatus.CONFIRMED);
+            return updated;
+        });
+
+        if (assigned < 0) {
+            System.err.println("Error writing guide assignments to bookings file");
+        } else {
+            System.out.println("Assigned guides to " + assigned + " of " + pending.size() + " pending bookings using "
+                    + availableGuides.size() + " guides in " + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+        }
+        return assigned;
     }
 
-    // Method to create a new booking
+    /**
+     * Check whether a guide has no other pending or confirmed trip on any day of a booking
+     * @param guideId The guide's ID
+     * @param booking The booking
+     * @return true if the guide can take the booking; also true if the booking date cannot be read
+     */
+    public boolean isGuideFreeForBooking(String guideId, Booking booking) {
+        LocalDate start = parseBookingDate(booking);
+        return start == null || bookings.isGuideFree(guideId, start, booking.getDuration(), booking.getId());
+    }
+
+    /**
+     * Get the available guides that have no other trip on any day of a booking
+     * @param booking The booking to staff
+     * @return The guides that could take the booking
+     */
+    public List<Guide> getGuidesFreeForBooking(Booking booking) {
+        List<Guide> availableGuides = new ArrayList<>();
+        for (Guide guide : getAllGuides()) {
+            if (guide.isAvailable()) {
+                availableGuides.add(guide);
+            }
+        }
+
+        LocalDate start = parseBookingDate(booking);
+        if (start == null) {
+            return availableGuides;
+        }
+
+        List<String> guideIds = new ArrayList<>(availableGuides.size());
+        for (Guide guide : availableGuides) {
+            guideIds.add(guide.getId());
+        }
+        Set<String> free = new HashSet<>(bookings.findFreeGuides(guideIds, start,
+                booking.getDuration(), booking.getId()));
+
+        availableGuides.removeIf(guide -> !free.contains(guide.getId()));
+        return availableGuides;
+    }
+
+    // Start date of a booking, or null if it cannot be read
+    private static LocalDate parseBookingDate(Booking booking) {
+        try {
+            return booking.getBookingDate() == null ? null : LocalDate.parse(booking.getBookingDate());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Method to create a new booking; throws IllegalArgumentException if it has no valid status
     public boolean createBooking(Booking booking) {
+        requireStatus(booking);
+
         try {
             if (booking.getTouristId() == null) {
                 System.err.println("Error: Tourist ID is null in booking");
@@ -516,31 +677,6 @@ public class DatabaseUtil {
             String bookingId = UUID.randomUUID().toString();
             booking.setId(bookingId);
 
-            // Make sure the file and directories exist
-            Path dataDir = Paths.get(DATA_DIR);
-            if (!Files.exists(dataDir)) {
-                Files.createDirectories(dataDir);
-                System.out.println("Created data directory: " + dataDir);
-            }
-
-            Path bookingsFilePath = Paths.get(BOOKINGS_FILE);
-            if (!Files.exists(bookingsFilePath)) {
-                Files.createFile(bookingsFilePath);
-                System.out.println("Created bookings file: " + bookingsFilePath);
-            }
-
-            // Format: id|trekId|touristId|guideId|bookingDate|status|price|duration|highRiskAcknowledged
-            StringBuilder sb = new StringBuilder();
-            sb.append(bookingId).append("|");
-            sb.append(booking.getTrekId()).append("|");
-            sb.append(booking.getTouristId()).append("|");
-            sb.append(booking.getGuideId() != null ? booking.getGuideId() : "").append("|");
-            sb.append(booking.getBookingDate()).append("|");
-            sb.append(booking.getStatus()).append("|");
-            sb.append(booking.getPrice()).append("|");
-            sb.append(booking.getDuration()).append("|");
-            sb.append(booking.isHighRiskAcknowledged());
-
             // Print booking details for debugging
             System.out.println("Creating booking with details:");
             System.out.println("  ID: " + bookingId);
@@ -549,17 +685,13 @@ public class DatabaseUtil {
             System.out.println("  Date: " + booking.getBookingDate());
             System.out.println("  Status: " + booking.getStatus());
 
-            Files.write(bookingsFilePath,
-                    Collections.singletonList(sb.toString()),
-                    StandardOpenOption.CREATE,
-                    StandardOpenOption.APPEND);
+            if (!bookings.insert(copyBooking(booking))) {
+                System.err.println("Error creating booking: could not write bookings file");
+                return false;
+            }
 
             System.out.println("Booking created successfully with ID: " + bookingId);
             return true;
-        } catch (IOException e) {
-            System.err.println("Error creating booking: " + e.getMessage());
-            e.printStackTrace();
-            return false;
         } catch (Exception e) {
             System.err.println("Unexpected error creating booking: " + e.getMessage());
             e.printStackTrace();
@@ -571,131 +703,49 @@ public class DatabaseUtil {
      * Update a booking's details
      * @param booking The booking with updated information
      * @return true if update successful, false otherwise
+     * @throws IllegalArgumentException if the booking has no valid status
      */
     public boolean updateBooking(Booking booking) {
+        requireStatus(booking);
         System.out.println("Updating booking with ID: " + booking.getId());
 
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(BOOKINGS_FILE));
-            List<String> updatedLines = new ArrayList<>();
-            boolean found = false;
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 6 && parts[0].equals(booking.getId())) {
-                    // Format: id|trekId|touristId|guideId|bookingDate|status|price|duration|highRiskAcknowledged
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(booking.getId()).append("|");
-                    sb.append(booking.getTrekId()).append("|");
-                    sb.append(booking.getTouristId()).append("|");
-                    sb.append(booking.getGuideId() != null ? booking.getGuideId() : "").append("|");
-                    sb.append(booking.getBookingDate()).append("|");
-                    sb.append(booking.getStatus()).append("|");
-                    sb.append(booking.getPrice()).append("|");
-                    sb.append(booking.getDuration()).append("|");
-                    sb.append(booking.isHighRiskAcknowledged());
-
-                    updatedLines.add(sb.toString());
-                    found = true;
-
-                    System.out.println("Booking found and updated: " + sb.toString());
-                } else {
-                    updatedLines.add(line);
-                }
-            }
-
-            if (found) {
-                Files.write(Paths.get(BOOKINGS_FILE), updatedLines);
-                System.out.println("Booking updated successfully");
-                return true;
-            } else {
-                System.err.println("Booking with ID " + booking.getId() + " not found");
-                return false;
-            }
-        } catch (IOException e) {
-            System.err.println("Error updating booking: " + e.getMessage());
-            e.printStackTrace();
+        if (!bookings.exists(booking.getId())) {
+            System.err.println("Booking with ID " + booking.getId() + " not found");
             return false;
         }
-    }
-
-    // Method to get all guides
-    public List<Guide> getAllGuides() {
-        List<Guide> guides = new ArrayList<>();
-
-        try {
-            if (!Files.exists(Paths.get(GUIDES_FILE)) || Files.size(Paths.get(GUIDES_FILE)) == 0) {
-                return guides;
-            }
 
-            List<String> lines = Files.readAllLines(Paths.get(GUIDES_FILE));
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 6) {
-                    Guide guide = new Guide();
-                    guide.setId(parts[0]);
-                    guide.setUserId(parts[1]);
-                    guide.setName(parts[2]);
-                    guide.setEmail(parts[3]);
-                    guide.setPhoneNumber(parts[4]);
-                    if (parts.length > 5) guide.setLanguages(parts[5]);
-                    if (parts.length > 6) guide.setYearsOfExperience(Integer.parseInt(parts[6]));
-                    if (parts.length > 7) guide.setCertifications(parts[7]);
-                    if (parts.length > 8) guide.setSpecializations(parts[8]);
-                    if (parts.length > 9) guide.setAvailable(Boolean.parseBoolean(parts[9]));
-
-                    guides.add(guide);
-                }
+        // A change of guide, dates or duration must leave the guide free on every day of the trip
+        if (bookings.modifyIfGuideFree(booking.getId(), booking.getGuideId(), existing -> {
+            // The new status must be reachable from the stored one
+            if (!canChangeStatus(existing.getBookingStatus(), booking.getBookingStatus())) {
+                return null;
             }
-        } catch (IOException e) {
-            System.err.println("Error reading guides file: " + e.getMessage());
-            e.printStackTrace();
+            return copyBooking(booking);
+        })) {
+            System.out.println("Booking updated successfully");
+            return true;
         }
 
-        return guides;
+        System.err.println("Booking was not updated: its status cannot change that way, its guide has another trip"
+                + " on those days, or the bookings file could not be written");
+        return false;
     }
 
-    // Method to get all guides as a map for quick lookup
-    private Map<String, Guide> getAllGuidesMap() {
-        Map<String, Guide> guidesMap = new HashMap<>();
+    // Method to get all guides
+    public List<Guide> getAllGuides() {
+        List<Guide> result = new ArrayList<>(guides.size());
 
-        for (Guide guide : getAllGuides()) {
-            guidesMap.put(guide.getId(), guide);
+        for (Guide guide : guides.findAll()) {
+            result.add(copyGuide(guide));
         }
 
-        return guidesMap;
+        return result;
     }
 
     // Method to get a guide by user ID
     public Guide getGuideByUserId(String userId) {
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(GUIDES_FILE));
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 6 && parts[1].equals(userId)) {
-                    Guide guide = new Guide();
-                    guide.setId(parts[0]);
-                    guide.setUserId(parts[1]);
-                    guide.setName(parts[2]);
-                    guide.setEmail(parts[3]);
-                    guide.setPhoneNumber(parts[4]);
-                    if (parts.length > 5) guide.setLanguages(parts[5]);
-                    if (parts.length > 6) guide.setYearsOfExperience(Integer.parseInt(parts[6]));
-                    if (parts.length > 7) guide.setCertifications(parts[7]);
-                    if (parts.length > 8) guide.setSpecializations(parts[8]);
-                    if (parts.length > 9) guide.setAvailable(Boolean.parseBoolean(parts[9]));
-
-                    return guide;
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading guides file: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        return null;
+        Guide guide = guides.findByUserId(userId);
+        return guide != null ? copyGuide(guide) : null;
     }
 
     // Method to add a new guide
@@ -703,180 +753,49 @@ public class DatabaseUtil {
         String guideId = UUID.randomUUID().toString();
         guide.setId(guideId);
 
-        // Format: id|userId|name|email|phoneNumber|languages|yearsOfExperience|certifications|specializations|available
-        StringBuilder sb = new StringBuilder();
-        sb.append(guideId).append("|");
-        sb.append(guide.getUserId() != null ? guide.getUserId() : "").append("|");
-        sb.append(guide.getName()).append("|");
-        sb.append(guide.getEmail()).append("|");
-        sb.append(guide.getPhoneNumber()).append("|");
-        sb.append(guide.getLanguages() != null ? guide.getLanguages() : "").append("|");
-        sb.append(guide.getYearsOfExperience()).append("|");
-        sb.append(guide.getCertifications() != null ? guide.getCertifications() : "").append("|");
-        sb.append(guide.getSpecializations() != null ? guide.getSpecializations() : "").append("|");
-        sb.append(guide.isAvailable());
-
-        try {
-            Files.write(Paths.get(GUIDES_FILE),
-                    Collections.singletonList(sb.toString()),
-                    StandardOpenOption.APPEND);
-            return true;
-        } catch (IOException e) {
-            System.err.println("Error adding guide: " + e.getMessage());
-            e.printStackTrace();
+        if (!guides.insert(copyGuide(guide))) {
+            System.err.println("Error adding guide: could not write guides file");
             return false;
         }
+        return true;
     }
 
     // Method to update a guide
     public boolean updateGuide(Guide guide) {
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(GUIDES_FILE));
-            List<String> updatedLines = new ArrayList<>();
-            boolean found = false;
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 6 && parts[0].equals(guide.getId())) {
-                    // Format: id|userId|name|email|phoneNumber|languages|yearsOfExperience|certifications|specializations|available
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(guide.getId()).append("|");
-                    sb.append(guide.getUserId() != null ? guide.getUserId() : "").append("|");
-                    sb.append(guide.getName()).append("|");
-                    sb.append(guide.getEmail()).append("|");
-                    sb.append(guide.getPhoneNumber()).append("|");
-                    sb.append(guide.getLanguages() != null ? guide.getLanguages() : "").append("|");
-                    sb.append(guide.getYearsOfExperience()).append("|");
-                    sb.append(guide.getCertifications() != null ? guide.getCertifications() : "").append("|");
-                    sb.append(guide.getSpecializations() != null ? guide.getSpecializations() : "").append("|");
-                    sb.append(guide.isAvailable());
-
-                    updatedLines.add(sb.toString());
-                    found = true;
-                } else {
-                    updatedLines.add(line);
-                }
-            }
-
-            if (found) {
-                Files.write(Paths.get(GUIDES_FILE), updatedLines);
-                return true;
-            }
-
-        } catch (IOException e) {
-            System.err.println("Error updating guide: " + e.getMessage());
-            e.printStackTrace();
+        Guide existing = guides.findById(guide.getId());
+        if (!guides.update(copyGuide(guide))) {
+            return false;
         }
-
-        return false;
+        if (existing == null || !Objects.equals(existing.getName(), guide.getName())) {
+            displayNames.invalidateGuide(guide.getId());
+        }
+        return true;
     }
 
     // Method to delete a guide
     public boolean deleteGuide(String guideId) {
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(GUIDES_FILE));
-            List<String> updatedLines = new ArrayList<>();
-            boolean found = false;
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 1 && parts[0].equals(guideId)) {
-                    found = true;
-                } else {
-                    updatedLines.add(line);
-                }
-            }
-
-            if (found) {
-                Files.write(Paths.get(GUIDES_FILE), updatedLines);
-                return true;
-            }
-
-        } catch (IOException e) {
-            System.err.println("Error deleting guide: " + e.getMessage());
-            e.printStackTrace();
+        if (!guides.delete(guideId)) {
+            return false;
         }
-
-        return false;
+        displayNames.invalidateGuide(guideId);
+        return true;
     }
 
     // Method to get all treks
     public List<Trek> getAllTreks() {
-        List<Trek> treks = new ArrayList<>();
-
-        try {
-            if (!Files.exists(Paths.get(TREKS_FILE)) || Files.size(Paths.get(TREKS_FILE)) == 0) {
-                return treks;
-            }
+        List<Trek> result = new ArrayList<>(treks.size());
 
-            List<String> lines = Files.readAllLines(Paths.get(TREKS_FILE));
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 8) {
-                    Trek trek = new Trek();
-                    trek.setId(parts[0]);
-                    trek.setName(parts[1]);
-                    trek.setRegion(parts[2]);
-                    trek.setMaxAltitude(Integer.parseInt(parts[3]));
-                    trek.setDuration(Integer.parseInt(parts[4]));
-                    trek.setDifficulty(parts[5]);
-                    trek.setBasePrice(Double.parseDouble(parts[6]));
-                    trek.setDescription(parts[7]);
-                    if (parts.length > 8) trek.setSeasonal(Boolean.parseBoolean(parts[8]));
-                    if (parts.length > 9) trek.setBestSeason(parts[9]);
-
-                    treks.add(trek);
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading treks file: " + e.getMessage());
-            e.printStackTrace();
+        for (Trek trek : treks.findAll()) {
+            result.add(copyTrek(trek));
         }
 
-        return treks;
+        return result;
     }
 
     // Method to get a specific trek by ID
     public Trek getTrekById(String trekId) {
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(TREKS_FILE));
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 8 && parts[0].equals(trekId)) {
-                    Trek trek = new Trek();
-                    trek.setId(parts[0]);
-                    trek.setName(parts[1]);
-                    trek.setRegion(parts[2]);
-                    trek.setMaxAltitude(Integer.parseInt(parts[3]));
-                    trek.setDuration(Integer.parseInt(parts[4]));
-                    trek.setDifficulty(parts[5]);
-                    trek.setBasePrice(Double.parseDouble(parts[6]));
-                    trek.setDescription(parts[7]);
-                    if (parts.length > 8) trek.setSeasonal(Boolean.parseBoolean(parts[8]));
-                    if (parts.length > 9) trek.setBestSeason(parts[9]);
-
-                    return trek;
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error finding trek by ID: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        return null;
-    }
-
-    // Method to get all treks as a map for quick lookup
-    private Map<String, Trek> getAllTreksMap() {
-        Map<String, Trek> treksMap = new HashMap<>();
-
-        for (Trek trek : getAllTreks()) {
-            treksMap.put(trek.getId(), trek);
-        }
-
-        return treksMap;
+        Trek trek = treks.findById(trekId);
+        return trek != null ? copyTrek(trek) : null;
     }
 
     // Method to add a new trek
@@ -884,101 +803,32 @@ public class DatabaseUtil {
         String trekId = UUID.randomUUID().toString();
         trek.setId(trekId);
 
-        // Format: id|name|region|maxAltitude|duration|difficulty|basePrice|description|seasonal|bestSeason
-        StringBuilder sb = new StringBuilder();
-        sb.append(trekId).append("|");
-        sb.append(trek.getName()).append("|");
-        sb.append(trek.getRegion()).append("|");
-        sb.append(trek.getMaxAltitude()).append("|");
-        sb.append(trek.getDuration()).append("|");
-        sb.append(trek.getDifficulty()).append("|");
-        sb.append(trek.getBasePrice()).append("|");
-        sb.append(trek.getDescription()).append("|");
-        sb.append(trek.isSeasonal()).append("|");
-        sb.append(trek.getBestSeason() != null ? trek.getBestSeason() : "");
-
-        try {
-            Files.write(Paths.get(TREKS_FILE),
-                    Collections.singletonList(sb.toString()),
-                    StandardOpenOption.APPEND);
-            return true;
-        } catch (IOException e) {
-            System.err.println("Error adding trek: " + e.getMessage());
-            e.printStackTrace();
+        if (!treks.insert(copyTrek(trek))) {
+            System.err.println("Error adding trek: could not write treks file");
             return false;
         }
+        return true;
     }
 
     // Method to update a trek
     public boolean updateTrek(Trek trek) {
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(TREKS_FILE));
-            List<String> updatedLines = new ArrayList<>();
-            boolean found = false;
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 8 && parts[0].equals(trek.getId())) {
-                    // Format: id|name|region|maxAltitude|duration|difficulty|basePrice|description|seasonal|bestSeason
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(trek.getId()).append("|");
-                    sb.append(trek.getName()).append("|");
-                    sb.append(trek.getRegion()).append("|");
-                    sb.append(trek.getMaxAltitude()).append("|");
-                    sb.append(trek.getDuration()).append("|");
-                    sb.append(trek.getDifficulty()).append("|");
-                    sb.append(trek.getBasePrice()).append("|");
-                    sb.append(trek.getDescription()).append("|");
-                    sb.append(trek.isSeasonal()).append("|");
-                    sb.append(trek.getBestSeason() != null ? trek.getBestSeason() : "");
-
-                    updatedLines.add(sb.toString());
-                    found = true;
-                } else {
-                    updatedLines.add(line);
-                }
-            }
-
-            if (found) {
-                Files.write(Paths.get(TREKS_FILE), updatedLines);
-                return true;
-            }
-
-        } catch (IOException e) {
-            System.err.println("Error updating trek: " + e.getMessage());
-            e.printStackTrace();
+        Trek existing = treks.findById(trek.getId());
+        if (!treks.update(copyTrek(trek))) {
+            return false;
         }
-
-        return false;
+        if (existing == null || !Objects.equals(existing.getName(), trek.getName())) {
+            displayNames.invalidateTrek(trek.getId());
+        }
+        return true;
     }
 
     // Method to delete a trek
     public boolean deleteTrek(String trekId) {
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(TREKS_FILE));
-            List<String> updatedLines = new ArrayList<>();
-            boolean found = false;
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 1 && parts[0].equals(trekId)) {
-                    found = true;
-                } else {
-                    updatedLines.add(line);
-                }
-            }
-
-            if (found) {
-                Files.write(Paths.get(TREKS_FILE), updatedLines);
-                return true;
-            }
-
-        } catch (IOException e) {
-            System.err.println("Error deleting trek: " + e.getMessage());
-            e.printStackTrace();
+        if (!treks.delete(trekId)) {
+            return false;
         }
-
-        return false;
+        displayNames.invalidateTrek(trekId);
+        return true;
     }
 
     /**
@@ -986,36 +836,11 @@ public class DatabaseUtil {
      * @return List of all users
      */
     public List<User> getAllUsers() {
-        List<User> userList = new ArrayList<>();
-
-        try {
-            if (!Files.exists(Paths.get(USERS_FILE))) {
-                return userList;
-            }
+        List<User> userList = new ArrayList<>(users.size());
 
-            List<String> lines = Files.readAllLines(Paths.get(USERS_FILE));
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 10) {
-                    User user = new User();
-                    user.setId(parts[0]);
-                    user.setUsername(parts[1]);
-                    // Don't set password for security
-                    user.setFullName(parts[3]);
-                    user.setEmail(parts[4]);
-                    user.setContactNumber(parts[5]);
-                    user.setNationality(parts[6]);
-                    if (parts.length > 7) user.setPassportNumber(parts[7]);
-                    if (parts.length > 8) user.setEmergencyContact(parts[8]);
-                    user.setRole(UserRole.valueOf(parts[9]));
-
-                    userList.add(user);
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading users file: " + e.getMessage());
-            e.printStackTrace();
+        for (User user : users.findAll()) {
+            // Don't set password for security
+            userList.add(copyUser(user));
         }
 
         return userList;
@@ -1027,67 +852,49 @@ public class DatabaseUtil {
      * @return true if successfully deleted, false otherwise
      */
     public boolean deleteUser(String userId) {
-        try {
-            // First find the user to get the username
-            String username = null;
-            User userToDelete = null;
-
-            for (User user : getAllUsers()) {
-                if (user.getId().equals(userId)) {
-                    username = user.getUsername();
-                    userToDelete = user;
-                    break;
-                }
-            }
+        // First find the user to get the username
+        User userToDelete = users.findById(userId);
 
-            if (username == null) {
-                System.err.println("User with ID " + userId + " not found");
-                return false;
-            }
+        if (userToDelete == null) {
+            System.err.println("User with ID " + userId + " not found");
+            return false;
+        }
 
-            // Don't delete the admin user
-            if ("admin".equals(username)) {
-                System.err.println("Cannot delete the admin user");
-                return false;
-            }
+        String username = userToDelete.getUsername();
 
-            // If user is a guide, delete guide profile too
-            if (userToDelete.getRole() == UserRole.GUIDE) {
-                Guide guide = getGuideByUserId(userId);
-                if (guide != null) {
-                    deleteGuide(guide.getId());
-                }
-            }
+        // Don't delete the admin user
+        if ("admin".equals(username)) {
+            System.err.println("Cannot delete the admin user");
+            return false;
+        }
 
-            // If user is a tourist, delete or reassign their bookings
-            if (userToDelete.getRole() == UserRole.TOURIST) {
-                List<Booking> userBookings = getBookingsForTourist(userId);
-                for (Booking booking : userBookings) {
-                    // For now, just cancel the bookings
-                    updateBookingStatus(booking.getId(), "Cancelled");
-                }
+        // If user is a guide, delete guide profile too
+        if (userToDelete.getRole() == UserRole.GUIDE) {
+            Guide guide = guides.findByUserId(userId);
+            if (guide != null) {
+                deleteGuide(guide.getId());
             }
+        }
 
-            // Read all users and write back except the one to delete
-            List<String> lines = Files.readAllLines(Paths.get(USERS_FILE));
-            List<String> updatedLines = new ArrayList<>();
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 1 && !parts[0].equals(userId)) {
-                    updatedLines.add(line);
+        // If user is a tourist, delete or reassign their bookings
+        if (userToDelete.getRole() == UserRole.TOURIST) {
+            for (Booking booking : bookings.findByTourist(userId)) {
+                // For now, just cancel the bookings; cancelled ones need no new log entry
+                if (booking.getBookingStatus() != BookingStatus.CANCELLED) {
+                    updateBookingStatus(booking.getId(), BookingStatus.CANCELLED);
                 }
             }
+        }
 
-            Files.write(Paths.get(USERS_FILE), updatedLines);
-            System.out.println("User deleted successfully: " + username + " (ID: " + userId + ")");
-            return true;
-
-        } catch (IOException e) {
-            System.err.println("Error deleting user: " + e.getMessage());
-            e.printStackTrace();
+        if (!users.delete(userId)) {
+            System.err.println("Error deleting user: could not write users file");
             return false;
         }
+        authCache.invalidate(username);
+        displayNames.invalidateTourist(userId);
+
+        System.out.println("User deleted successfully: " + username + " (ID: " + userId + ")");
+        return true;
     }
 
     /**
@@ -1096,109 +903,166 @@ public class DatabaseUtil {
      * @return true if update successful, false otherwise
      */
     public boolean updateUser(User user) {
-        try {
-            List<String> lines = Files.readAllLines(Paths.get(USERS_FILE));
-            List<String> updatedLines = new ArrayList<>();
-            boolean found = false;
-
-            for (String line : lines) {
-                String[] parts = line.split("\\|");
-                if (parts.length >= 10 && parts[0].equals(user.getId())) {
-                    // Keep the password and registration date from original record
-                    String password = parts[2];
-                    String registrationDate = parts.length > 10 ? parts[10] : CURRENT_DATETIME;
-
-                    // Format: id|username|password|fullName|email|contactNumber|nationality|passportNumber|emergencyContact|role|registrationDate
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(user.getId()).append("|");
-                    sb.append(user.getUsername()).append("|");
-                    sb.append(password).append("|");
-                    sb.append(user.getFullName()).append("|");
-                    sb.append(user.getEmail()).append("|");
-                    sb.append(user.getContactNumber()).append("|");
-                    sb.append(user.getNationality()).append("|");
-                    sb.append(user.getPassportNumber() != null ? user.getPassportNumber() : "").append("|");
-                    sb.append(user.getEmergencyContact() != null ? user.getEmergencyContact() : "").append("|");
-                    sb.append(user.getRole().toString()).append("|");
-                    sb.append(registrationDate);
-
-                    updatedLines.add(sb.toString());
-                    found = true;
-
-                    System.out.println("User updated: " + user.getUsername() + " (ID: " + user.getId() + ")");
-                } else {
-                    updatedLines.add(line);
-                }
-            }
-
-            if (found) {
-                Files.write(Paths.get(USERS_FILE), updatedLines);
-                return true;
-            } else {
-                System.err.println("User with ID " + user.getId() + " not found");
-                return false;
-            }
+        User previous = users.findById(user.getId());
+        if (previous == null) {
+            System.err.println("User with ID " + user.getId() + " not found");
+            return false;
+        }
 
-        } catch (IOException e) {
-            System.err.println("Error updating user: " + e.getMessage());
-            e.printStackTrace();
+        boolean updated = users.modify(user.getId(), existing -> {
+            // Keep the password and registration date from original record
+            User stored = copyUser(user);
+            stored.setPassword(existing.getPassword());
+            stored.setRegistrationDate(existing.getRegistrationDate() != null
+                    ? existing.getRegistrationDate() : CURRENT_DATETIME);
+            return stored;
+        });
+
+        if (!updated) {
+            System.err.println("Error updating user: could not write users file");
             return false;
         }
+        if (!Objects.equals(previous.getFullName(), user.getFullName())) {
+            displayNames.invalidateTourist(user.getId());
+        }
+
+        System.out.println("User updated: " + user.getUsername() + " (ID: " + user.getId() + ")");
+        return true;
     }
 
     /**
-     * Get booking statistics
-     * @return Map containing booking statistics
+     * Get every dashboard metric, computed in one scan over the bookings
+     * @return Immutable snapshot of the statistics
      */
-    public Map<String, Object> getBookingStatistics() {
-        Map<String, Object> stats = new HashMap<>();
+    public DashboardStatistics getDashboardStatistics() {
+        return statisticsEngine.compute();
+    }
 
-        List<Booking> allBookings = getAllBookings();
+    /**
+     * Get the revenue of confirmed and completed bookings per trek difficulty,
+     * joined in memory in one pass over the bookings
+     * @return Revenue per difficulty, including difficulties without revenue
+     */
+    public Map<String, Double> getRevenueByTrekDifficulty() {
+        return bookingJoins.sumPriceByTrek(
+                b -> b.getBookingStatus() != null && b.getBookingStatus().isEarning(),
+                Trek::getDifficulty);
+    }
 
-        // Count by status
-        Map<String, Integer> statusCounts = new HashMap<>();
+    /**
+     * Get bookings and revenue between two dates from the booking-date index
+     * @param from First day of the range
+     * @param to Last day of the range, inclusive
+     * @param granularity Day, week or month buckets
+     * @return One bucket per period in date order, including periods without bookings
+     */
+    public List<BookingTimeSeries.Bucket> getBookingTimeSeries(LocalDate from, LocalDate to,
+                                                               BookingTimeSeries.Granularity granularity) {
+        return bookings.findTimeSeries(from, to, granularity);
+    }
 
-        // Calculate total revenue
-        double totalRevenue = 0;
+    /**
+     * Get the number of bookings per trek region, joined in memory in one pass over the bookings
+     * @return Bookings per region, including regions without bookings
+     */
+    public Map<String, Integer> getBookingCountsByTrekRegion() {
+        return bookingJoins.countByTrek(b -> true, Trek::getRegion);
+    }
 
-        // Track trek popularity
-        Map<String, Integer> trekPopularity = new HashMap<>();
+    /**
+     * Check the maintained booking counters against a full recomputation
+     * @return true if they match
+     */
+    public boolean verifyBookingStatistics() {
+        return bookings.verifyAggregates();
+    }
 
-        for (Booking booking : allBookings) {
-            // Count by status
-            String status = booking.getStatus();
-            statusCounts.put(status, statusCounts.getOrDefault(status, 0) + 1);
+    /**
+     * Rebuild the booking counters and indexes from scratch
+     */
+    public void rebuildBookingStatistics() {
+        bookings.rebuildIndexes();
+        System.out.println("Booking counters rebuilt from " + bookings.size() + " bookings");
+    }
 
-            // Add to revenue if confirmed or completed
-            if ("Confirmed".equals(status) || "Completed".equals(status)) {
-                totalRevenue += booking.getPrice();
-            }
+    /**
+     * Get booking statistics
+     * @return Map containing booking statistics
+     */
+    public Map<String, Object> getBookingStatistics() {
+        DashboardStatistics statistics = getDashboardStatistics();
+        Map<String, Object> stats = new HashMap<>();
 
-            // Track trek popularity
-            String trekName = booking.getTrekName();
-            if (trekName != null) {
-                trekPopularity.put(trekName, trekPopularity.getOrDefault(trekName, 0) + 1);
-            }
-        }
+        stats.put("totalBookings", statistics.getTotalBookings());
+        stats.put("statusCounts", new EnumMap<>(statistics.getStatusCounts()));
+        stats.put("totalRevenue", statistics.getTotalRevenue());
+        stats.put("mostPopularTrek", statistics.getMostPopularTrek());
+        stats.put("mostPopularTrekCount", statistics.getMostPopularTrekCount());
 
-        // Find most popular trek
-        String mostPopularTrek = "";
-        int maxBookings = 0;
+        return stats;
+    }
 
-        for (Map.Entry<String, Integer> entry : trekPopularity.entrySet()) {
-            if (entry.getValue() > maxBookings) {
-                maxBookings = entry.getValue();
-                mostPopularTrek = entry.getKey();
-            }
-        }
+    // Copy helpers so callers never hold the repositories' stored instances
+
+    private Booking copyBooking(Booking source) {
+        Booking booking = new Booking();
+        booking.setId(source.getId());
+        booking.setTrekId(source.getTrekId());
+        booking.setTouristId(source.getTouristId());
+        booking.setGuideId(source.getGuideId());
+        booking.setBookingDate(source.getBookingDate());
+        booking.setBookingStatus(source.getBookingStatus());
+        booking.setPrice(source.getPrice());
+        booking.setDuration(source.getDuration());
+        booking.setHighRiskAcknowledged(source.isHighRiskAcknowledged());
+        return booking;
+    }
+
+    private Guide copyGuide(Guide source) {
+        Guide guide = new Guide();
+        guide.setId(source.getId());
+        guide.setUserId(source.getUserId());
+        guide.setName(source.getName());
+        guide.setEmail(source.getEmail());
+        guide.setPhoneNumber(source.getPhoneNumber());
+        guide.setLanguages(source.getLanguages());
+        guide.setYearsOfExperience(source.getYearsOfExperience());
+        guide.setCertifications(source.getCertifications());
+        guide.setSpecializations(source.getSpecializations());
+        guide.setAvailable(source.isAvailable());
+        return guide;
+    }
 
-        stats.put("totalBookings", allBookings.size());
-        stats.put("statusCounts", statusCounts);
-        stats.put("totalRevenue", totalRevenue);
-        stats.put("mostPopularTrek", mostPopularTrek);
-        stats.put("mostPopularTrekCount", maxBookings);
+    private Trek copyTrek(Trek source) {
+        Trek trek = new Trek();
+        trek.setId(source.getId());
+        trek.setName(source.getName());
+        trek.setRegion(source.getRegion());
+        trek.setMaxAltitude(source.getMaxAltitude());
+        trek.setDuration(source.getDuration());
+        trek.setDifficulty(source.getDifficulty());
+        trek.setBasePrice(source.getBasePrice());
+        trek.setPrice(source.getPrice());
+        trek.setDescription(source.getDescription());
+        trek.setSeasonal(source.isSeasonal());
+        trek.setBestSeason(source.getBestSeason());
+        return trek;
+    }
 
-        return stats;
+    // Copies everything except the password
+    private User copyUser(User source) {
+        User user = new User();
+        user.setId(source.getId());
+        user.setUsername(source.getUsername());
+        user.setFullName(source.getFullName());
+        user.setEmail(source.getEmail());
+        user.setContactNumber(source.getContactNumber());
+        user.setNationality(source.getNationality());
+        user.setPassportNumber(source.getPassportNumber());
+        user.setEmergencyContact(source.getEmergencyContact());
+        user.setRole(source.getRole());
+        user.setRegistrationDate(source.getRegistrationDate());
+        return user;
     }
 
     /**
@@ -1217,4 +1081,4 @@ public class DatabaseUtil {
     public boolean isBibekDkl(String username) {
         return "BibekDkl".equals(username);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,284 @@
+package com.example.nepaltourismmanagement.utils;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts failed logins per username and per source (the machine or session the
+ * attempts come from) over a sliding window, so a login can be refused before
+ * the user store is touched once either count reaches its limit.
+ *
+ * The window is approximated the usual way, from the count of the current
+ * fixed window plus the previous window's count weighted by how much of it
+ * still overlaps. Each key lives in a single long of a fixed-size
+ * AtomicLongArray, packed as a key fingerprint, the window number and the two
+ * counts, and is updated with compareAndSet: there are no locks and a failed
+ * attempt allocates nothing. A key may sit in one of a few neighbouring slots;
+ * when they are all taken, the slot updated least recently is reused, so the
+ * table stays bounded however many usernames are tried.
+ *
+ * Keys are hashed with a seed chosen at startup, so colliding usernames cannot
+ * be prepared in advance to lock somebody else out.
+ *
+ * Limits come from tourism.login.max.failures (per username, default 5),
+ * tourism.login.max.failures.source (per source, default 50) and
+ * tourism.login.window in seconds (default 900). A limit of 0 turns that
+ * check off.
+ */
+public class LoginThrottle {
+
+    public static final String USER_LIMIT_PROPERTY = "tourism.login.max.failures";
+    public static final String SOURCE_LIMIT_PROPERTY = "tourism.login.max.failures.source";
+    public static final String WINDOW_PROPERTY = "tourism.login.window";
+
+    private static final int DEFAULT_USER_LIMIT = 5;
+    private static final int DEFAULT_SOURCE_LIMIT = 50;
+    private static final int DEFAULT_WINDOW_SECONDS = 900;
+    private static final int DEFAULT_SLOTS = 4096;
+
+    // Neighbouring slots a key may be stored in
+    private static final int PROBES = 4;
+
+    // Slot layout: fingerprint (24 bits) | window (16) | current count (12) | previous count (12); 0 is empty
+    private static final int FINGERPRINT_SHIFT = 40;
+    private static final int WINDOW_SHIFT = 24;
+    private static final int CURRENT_SHIFT = 12;
+    private static final long FINGERPRINT_MASK = 0xFFFFFFL;
+    private static final long WINDOW_MASK = 0xFFFFL;
+    private static final long COUNT_MASK = 0xFFFL;
+
+    private final long windowMillis;
+    private final long startNanos = System.nanoTime();
+    private final Counters byUsername;
+    private final Counters bySource;
+
+    /**
+     * @param userLimit Failed attempts per username within the window before logins are refused; 0 for no limit
+     * @param sourceLimit Failed attempts per source within the window before logins are refused; 0 for no limit
+     * @param windowSeconds Length of the sliding window
+     * @param slots Keys tracked per table, rounded up to a power of two
+     */
+    public LoginThrottle(int userLimit, int sourceLimit, long windowSeconds, int slots) {
+        if (windowSeconds <= 0) {
+            throw new IllegalArgumentException("Window must be at least one second");
+        }
+        this.windowMillis = windowSeconds * 1000;
+
+        int size = Integer.highestOneBit(Math.max(PROBES, slots - 1) << 1);
+        SecureRandom random = new SecureRandom();
+        this.byUsername = new Counters(userLimit, random.nextLong(), size);
+        this.bySource = new Counters(sourceLimit, random.nextLong(), size);
+    }
+
+    // Throttle with the limits from the system properties, or the defaults
+    public static LoginThrottle fromSystemProperties() {
+        return new LoginThrottle(Integer.getInteger(USER_LIMIT_PROPERTY, DEFAULT_USER_LIMIT),
+                Integer.getInteger(SOURCE_LIMIT_PROPERTY, DEFAULT_SOURCE_LIMIT),
+                Integer.getInteger(WINDOW_PROPERTY, DEFAULT_WINDOW_SECONDS),
+                DEFAULT_SLOTS);
+    }
+
+    /**
+     * Check whether a login attempt should be refused without checking the password
+     * @param username The username being logged in to
+     * @param source Where the attempt comes from; may be null
+     * @return Milliseconds until an attempt is allowed again, or 0 if it is allowed now
+     */
+    public long retryAfterMillis(String username, String source) {
+        long now = now();
+        return Math.max(byUsername.retryAfter(username, now), bySource.retryAfter(source, now));
+    }
+
+    public boolean isBlocked(String username, String source) {
+        return retryAfterMillis(username, source) > 0;
+    }
+
+    /**
+     * Count a failed login
+     * @param username The username that was tried
+     * @param source Where the attempt came from; may be null
+     */
+    public void recordFailure(String username, String source) {
+        long now = now();
+        byUsername.increment(username, now);
+        bySource.increment(source, now);
+    }
+
+    // Forget the failed attempts on a username after it logs in; the source keeps its count
+    public void recordSuccess(String username) {
+        byUsername.clear(username);
+    }
+
+    private long now() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // One table of sliding-window counters
+    private final class Counters {
+        private final int limit;
+        private final long seed;
+        private final AtomicLongArray slots;
+        private final int mask;
+
+        Counters(int limit, long seed, int size) {
+            this.limit = Math.min(limit, (int) COUNT_MASK);
+            this.seed = seed;
+            this.slots = new AtomicLongArray(size);
+            this.mask = size - 1;
+        }
+
+        long retryAfter(String key, long now) {
+            if (limit <= 0 || key == null) {
+                return 0;
+            }
+
+            long hash = hash(key);
+            long fingerprint = fingerprint(hash);
+            int start = (int) hash & mask;
+            for (int i = 0; i < PROBES; i++) {
+                long slot = slots.get((start + i) & mask);
+                if (fingerprintOf(slot) == fingerprint) {
+                    return retryAfter(slot, now);
+                }
+            }
+            return 0;
+        }
+
+        void increment(String key, long now) {
+            if (limit <= 0 || key == null) {
+                return;
+            }
+
+            long hash = hash(key);
+            long fingerprint = fingerprint(hash);
+            int start = (int) hash & mask;
+            long window = (now / windowMillis) & WINDOW_MASK;
+
+            retry:
+            while (true) {
+                int victim = start;
+                long victimSlot = 0;
+                long victimAge = -1;
+
+                for (int i = 0; i < PROBES; i++) {
+                    int index = (start + i) & mask;
+                    long slot = slots.get(index);
+                    if (fingerprintOf(slot) == fingerprint) {
+                        if (slots.compareAndSet(index, slot, incremented(slot, window))) {
+                            return;
+                        }
+                        continue retry;
+                    }
+
+                    // Empty slots first, then the least recently updated one
+                    long age = slot == 0 ? WINDOW_MASK + 1 : (window - windowOf(slot)) & WINDOW_MASK;
+                    if (age > victimAge) {
+                        victim = index;
+                        victimSlot = slot;
+                        victimAge = age;
+                    }
+                }
+
+                if (slots.compareAndSet(victim, victimSlot, pack(fingerprint, window, 1, 0))) {
+                    return;
+                }
+            }
+        }
+
+        void clear(String key) {
+            if (key == null) {
+                return;
+            }
+
+            long hash = hash(key);
+            long fingerprint = fingerprint(hash);
+            int start = (int) hash & mask;
+            for (int i = 0; i < PROBES; i++) {
+                int index = (start + i) & mask;
+                long slot = slots.get(index);
+                if (fingerprintOf(slot) == fingerprint) {
+                    slots.compareAndSet(index, slot, 0);
+                }
+            }
+        }
+
+        // Time until the weighted count of a slot drops below the limit
+        private long retryAfter(long slot, long now) {
+            long window = now / windowMillis;
+            long age = (window - windowOf(slot)) & WINDOW_MASK;
+            long elapsed = now - window * windowMillis;
+            long current = currentOf(slot);
+            long previous = previousOf(slot);
+
+            if (age == 1) {
+                previous = current;
+                current = 0;
+            } else if (age > 1) {
+                return 0;
+            }
+
+            // previous * (1 - elapsed / window) + current < limit, kept in integers
+            if (previous * (windowMillis - elapsed) + current * windowMillis < limit * windowMillis) {
+                return 0;
+            }
+            if (current < limit) {
+                // Allowed again once enough of the previous window has slid out
+                return windowMillis - (limit - current) * windowMillis / previous + 1 - elapsed;
+            }
+            // Allowed again part way through the next window
+            return windowMillis - elapsed + windowMillis - limit * windowMillis / current + 1;
+        }
+
+        private long incremented(long slot, long window) {
+            long age = (window - windowOf(slot)) & WINDOW_MASK;
+            long current = currentOf(slot);
+            if (age == 0) {
+                return pack(fingerprintOf(slot), window, Math.min(current + 1, COUNT_MASK), previousOf(slot));
+            }
+            return pack(fingerprintOf(slot), window, 1, age == 1 ? current : 0);
+        }
+
+        // Seeded FNV-1a over the characters, then the MurmurHash3 finalizer
+        private long hash(String key) {
+            long h = seed;
+            for (int i = 0; i < key.length(); i++) {
+                h = (h ^ key.charAt(i)) * 0x100000001B3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    // Never 0, so a key can't look like an empty slot
+    private static long fingerprint(long hash) {
+        long fingerprint = (hash >>> FINGERPRINT_SHIFT) & FINGERPRINT_MASK;
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private static long pack(long fingerprint, long window, long current, long previous) {
+        return fingerprint << FINGERPRINT_SHIFT
+                | (window & WINDOW_MASK) << WINDOW_SHIFT
+                | current << CURRENT_SHIFT
+                | previous;
+    }
+
+    private static long fingerprintOf(long slot) {
+        return (slot >>> FINGERPRINT_SHIFT) & FINGERPRINT_MASK;
+    }
+
+    private static long windowOf(long slot) {
+        return (slot >>> WINDOW_SHIFT) & WINDOW_MASK;
+    }
+
+    private static long currentOf(long slot) {
+        return (slot >>> CURRENT_SHIFT) & COUNT_MASK;
+    }
+
+    private static long previousOf(long slot) {
+        return slot & COUNT_MASK;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.nepaltourismmanagement.utils;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only ObservableList of a known size that holds only one window of its
+ * items, for a TableView over more rows than should be kept in memory.
+ *
+ * A TableView only asks for the rows it shows. When one of them is outside
+ * the window held, the window is fetched again around it: a page of rows
+ * from the requested row on in the direction of scrolling, and a prefetch
+ * margin on both sides, so scrolling on or back stays inside the window for
+ * a while. Rows that no
+ * longer exist when their window is fetched read as null, which the table
+ * shows as empty rows until the list is replaced.
+ *
+ * Like every JavaFX list behind a control, it must only be used on the
+ * JavaFX Application Thread.
+ */
+public class PagedList<T> extends ObservableListBase<T> {
+
+    /**
+     * Fetches a window of rows
+     */
+    public interface PageLoader<T> {
+        /**
+         * @param offset Position of the first row
+         * @param limit Most rows to return
+         * @return The rows from offset on, at most limit of them
+         */
+        List<T> load(int offset, int limit);
+    }
+
+    private final int size;
+    private final int pageSize;
+    private final int prefetch;
+    private final PageLoader<T> loader;
+
+    // The window held: rows windowStart to windowEnd (exclusive), fewer if rows went away since
+    private List<T> window;
+    private int windowStart;
+    private int windowEnd;
+
+    /**
+     * @param size Number of rows
+     * @param first The first rows, already fetched; may be empty
+     * @param pageSize Rows fetched from the requested one on, in the direction of scrolling
+     * @param prefetch Extra rows fetched on each side of a page
+     * @param loader Fetches the other windows
+     */
+    public PagedList(int size, List<T> first, int pageSize, int prefetch, PageLoader<T> loader) {
+        this.size = size;
+        this.pageSize = Math.max(pageSize, 1);
+        this.prefetch = Math.max(prefetch, 0);
+        this.loader = loader;
+        this.window = new ArrayList<>(first);
+        this.windowStart = 0;
+        this.windowEnd = first.size();
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+
+        if (index < windowStart || index >= windowEnd) {
+            if (index < windowStart) {
+                // Scrolling up: the page goes before the requested row
+                windowStart = Math.max(index + 1 - pageSize - prefetch, 0);
+                windowEnd = Math.min(index + 1 + prefetch, size);
+            } else {
+                windowStart = Math.max(index - prefetch, 0);
+                windowEnd = Math.min(index + pageSize + prefetch, size);
+            }
+            window = loader.load(windowStart, windowEnd - windowStart);
+        }
+
+        int position = index - windowStart;
+        return position < window.size() ? window.get(position) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
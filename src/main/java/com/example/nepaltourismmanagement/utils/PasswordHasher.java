@@ -0,0 +1,37 @@
+package com.example.nepaltourismmanagement.utils;
+
+/**
+ * Turns passwords into the salted hashes stored in users.txt and checks
+ * passwords against them. Stored hashes must not contain the '|' separator.
+ */
+public interface PasswordHasher {
+
+    /**
+     * Hash a password with a fresh salt
+     * @param password The plaintext password
+     * @return The encoded hash, including everything needed to verify it
+     */
+    String hash(String password);
+
+    /**
+     * Check a password against a stored hash
+     * @param password The plaintext password
+     * @param storedHash A hash produced by {@link #hash(String)}
+     * @return true if the password matches
+     */
+    boolean verify(String password, String storedHash);
+
+    /**
+     * Whether a stored value was produced by this hasher; legacy rows hold the plaintext password
+     * @param stored The stored password field
+     * @return true if the value is a hash
+     */
+    boolean isHash(String stored);
+
+    /**
+     * Whether a stored hash uses other settings than new hashes would, so it should be replaced on the next login
+     * @param storedHash A stored hash
+     * @return true if the hash is outdated
+     */
+    boolean needsRehash(String storedHash);
+}
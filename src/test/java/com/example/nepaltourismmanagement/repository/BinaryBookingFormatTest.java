@@ -0,0 +1,114 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Binary snapshots read back the same bookings however many records are
+ * mapped at a time, and files that cannot hold their records are rejected
+ * with an IOException.
+ */
+class BinaryBookingFormatTest {
+
+    private static final int BOOKINGS = 1_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsTheSameBookingsAcrossChunkBoundaries() throws IOException {
+        Random random = new Random(5);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = booking(random);
+            if (i % 100 == 0) {
+                // Does not fit the fixed-width layout, so it goes to the text section
+                booking.setId("legacy-" + i);
+            }
+            bookings.add(booking);
+        }
+        List<String> unreadable = List.of("not|a|booking");
+
+        Path file = dir.resolve("bookings.dat");
+        format(BinaryBookingFormat.MAX_CHUNK_RECORDS).write(file, bookings, unreadable);
+
+        List<String> expected = lines(bookings);
+        for (int chunkRecords : new int[]{1, 7, 64, BOOKINGS, BinaryBookingFormat.MAX_CHUNK_RECORDS}) {
+            List<Booking> read = new ArrayList<>();
+            List<String> skipped = new ArrayList<>();
+            format(chunkRecords).read(file, read::add, skipped::add);
+
+            // Fixed-width records come back first, then the text section
+            List<String> actual = lines(read);
+            actual.sort(null);
+            List<String> sorted = new ArrayList<>(expected);
+            sorted.sort(null);
+            assertEquals(sorted, actual, "chunks of " + chunkRecords);
+            assertEquals(unreadable, skipped);
+        }
+    }
+
+    @Test
+    void rejectsFilesThatCannotHoldTheirRecords() throws IOException {
+        Path file = dir.resolve("bookings.dat");
+        BinaryBookingFormat format = format(BinaryBookingFormat.MAX_CHUNK_RECORDS);
+        format.write(file, List.of(booking(new Random(1))), List.of());
+
+        // A record count far past the end of the file
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, Long.MAX_VALUE / 2), 8);
+        }
+        assertThrows(IOException.class, () -> format.read(file, booking -> { }, line -> { }));
+
+        Files.write(file, new byte[]{'T', 'M'});
+        assertThrows(IOException.class, () -> format.read(file, booking -> { }, line -> { }));
+    }
+
+    private static BinaryBookingFormat format(int chunkRecords) {
+        return new BinaryBookingFormat(line -> {
+            try {
+                return BookingRepository.parseFields(new RecordTokenizer().reset(line));
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }, BookingRepository::formatLine, chunkRecords);
+    }
+
+    private static List<String> lines(List<Booking> bookings) {
+        List<String> lines = new ArrayList<>();
+        for (Booking booking : bookings) {
+            lines.add(BookingRepository.formatLine(booking));
+        }
+        return lines;
+    }
+
+    private static Booking booking(Random random) {
+        Booking booking = new Booking();
+        booking.setId(UUID.randomUUID().toString());
+        booking.setTrekId(UUID.randomUUID().toString());
+        booking.setTouristId(UUID.randomUUID().toString());
+        booking.setGuideId(random.nextBoolean() ? UUID.randomUUID().toString() : null);
+        booking.setBookingDate("2025-" + (10 + random.nextInt(3)) + "-1" + random.nextInt(10));
+        booking.setBookingStatus(BookingStatus.values()[random.nextInt(BookingStatus.values().length)]);
+        booking.setPrice(random.nextInt(500_000) / 100.0);
+        booking.setDuration(1 + random.nextInt(20));
+        booking.setHighRiskAcknowledged(random.nextBoolean());
+        return booking;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
+import com.example.nepaltourismmanagement.models.Guide;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The booking counters and time series maintained on every mutation must
+ * always match a full recount, also after the indexes are rebuilt and after
+ * the bookings are reloaded from disk.
+ */
+class BookingAggregatesTest {
+
+    private static final int USERS = 2_000;
+    private static final int BOOKINGS = 5_000;
+
+    // Enough to trigger background compactions along the way
+    private static final int MUTATIONS = 4_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void countersMatchAFullRecountAfterRandomMutations() throws Exception {
+        DataGenerator generator = new DataGenerator(DataGenerator.DEFAULT_SEED);
+        generator.generate(dir, USERS, BOOKINGS);
+
+        DataStore store = new DataStore(dir + "/", BookingRepository.Format.TEXT);
+        store.load();
+        BookingRepository bookings = store.getBookings();
+        StatisticsEngine statistics = new StatisticsEngine(store);
+        assertCountersMatch(bookings, statistics);
+
+        List<String> guideIds = new ArrayList<>();
+        for (Guide guide : store.getGuides().findAll()) {
+            guideIds.add(guide.getId());
+        }
+
+        Random random = new Random(7);
+        List<String> bookingIds = new ArrayList<>();
+        bookings.forEach(booking -> bookingIds.add(booking.getId()));
+
+        mutate(bookings, generator, bookingIds, guideIds, random, MUTATIONS);
+        assertCountersMatch(bookings, statistics);
+
+        // Waits for a background compaction still running; the mutations after it stay in the log
+        bookings.compact();
+        mutate(bookings, generator, bookingIds, guideIds, random, 200);
+        assertCountersMatch(bookings, statistics);
+        DashboardStatistics before = statistics.compute();
+
+        bookings.rebuildIndexes();
+        assertCountersMatch(bookings, statistics);
+        assertEquals(before, statistics.compute());
+
+        DataStore reloaded = new DataStore(dir + "/", BookingRepository.Format.TEXT);
+        reloaded.load();
+        StatisticsEngine reloadedStatistics = new StatisticsEngine(reloaded);
+        assertCountersMatch(reloaded.getBookings(), reloadedStatistics);
+        assertEquals(before, reloadedStatistics.compute());
+    }
+
+    private static void assertCountersMatch(BookingRepository bookings, StatisticsEngine statistics) {
+        assertTrue(bookings.verifyAggregates(), "maintained counters differ from a full recount");
+        assertEquals(statistics.recompute(), statistics.compute());
+    }
+
+    // Random creates, status changes, guide assignments and re-pricings
+    private static void mutate(BookingRepository bookings, DataGenerator generator, List<String> bookingIds,
+                               List<String> guideIds, Random random, int count) {
+        BookingStatus[] statuses = BookingStatus.values();
+
+        for (int i = 0; i < count; i++) {
+            String id = bookingIds.get(random.nextInt(bookingIds.size()));
+
+            switch (random.nextInt(4)) {
+                case 0:
+                    Booking created = new Booking();
+                    created.setId(UUID.randomUUID().toString());
+                    created.setTrekId(generator.trekId(random.nextInt(generator.getTrekCount())));
+                    created.setTouristId(generator.userId(1 + random.nextInt(USERS - 1)));
+                    created.setBookingDate(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(730)).toString());
+                    created.setBookingStatus(BookingStatus.PENDING);
+                    created.setPrice(500 + random.nextInt(300_000) / 100.0);
+                    created.setDuration(1 + random.nextInt(20));
+                    assertTrue(bookings.insert(created));
+                    bookingIds.add(created.getId());
+                    break;
+                case 1:
+                    BookingStatus status = statuses[random.nextInt(statuses.length)];
+                    assertTrue(bookings.modify(id, existing -> {
+                        Booking changed = copy(existing);
+                        changed.setBookingStatus(status);
+                        return changed;
+                    }));
+                    break;
+                case 2:
+                    String guideId = random.nextInt(5) == 0 ? null : guideIds.get(random.nextInt(guideIds.size()));
+                    assertTrue(bookings.modify(id, existing -> {
+                        Booking changed = copy(existing);
+                        changed.setGuideId(guideId);
+                        return changed;
+                    }));
+                    break;
+                default:
+                    double price = random.nextInt(500_000) / 100.0;
+                    assertTrue(bookings.modify(id, existing -> {
+                        Booking changed = copy(existing);
+                        changed.setPrice(price);
+                        return changed;
+                    }));
+                    break;
+            }
+        }
+    }
+
+    private static Booking copy(Booking source) {
+        Booking booking = new Booking();
+        booking.setId(source.getId());
+        booking.setTrekId(source.getTrekId());
+        booking.setTouristId(source.getTouristId());
+        booking.setGuideId(source.getGuideId());
+        booking.setBookingDate(source.getBookingDate());
+        booking.setBookingStatus(source.getBookingStatus());
+        booking.setPrice(source.getPrice());
+        booking.setDuration(source.getDuration());
+        booking.setHighRiskAcknowledged(source.isHighRiskAcknowledged());
+        return booking;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A window of a paged booking query read from any offset must be the same
+ * slice of the full result, after the indexes have seen inserts, deletes and
+ * status and date changes.
+ */
+class BookingPagingTest {
+
+    private static final int USERS = 1_000;
+    private static final int BOOKINGS = 5_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void windowsAtAnyOffsetMatchTheFullResult() throws Exception {
+        DataGenerator generator = new DataGenerator(DataGenerator.DEFAULT_SEED);
+        generator.generate(dir, USERS, BOOKINGS);
+
+        DataStore store = new DataStore(dir + "/", BookingRepository.Format.TEXT);
+        store.load();
+        BookingRepository bookings = store.getBookings();
+        Random random = new Random(3);
+        mutate(bookings, random);
+
+        List<String> made = new ArrayList<>();
+        for (Booking booking : bookings.findAll()) {
+            made.add(booking.getId());
+        }
+        assertEquals(made, ids(bookings.findPage(BookingQuery.all(), 0, Integer.MAX_VALUE).getBookings()));
+        assertEquals(ids(bookings.findByStatus(BookingStatus.PENDING)),
+                ids(bookings.findPage(BookingQuery.all().withStatus(BookingStatus.PENDING), 0, Integer.MAX_VALUE)
+                        .getBookings()));
+
+        List<BookingQuery> queries = List.of(
+                BookingQuery.all(),
+                BookingQuery.all().withStatus(BookingStatus.CONFIRMED),
+                BookingQuery.all().withTrek(generator.trekId(0)),
+                BookingQuery.all().sortedBy(BookingQuery.SortKey.STATUS, false),
+                BookingQuery.all().sortedBy(BookingQuery.SortKey.STATUS, true),
+                BookingQuery.all().sortedBy(BookingQuery.SortKey.DATE, false),
+                BookingQuery.all().sortedBy(BookingQuery.SortKey.DATE, true),
+                BookingQuery.all().withDates(LocalDate.of(2024, 6, 1), LocalDate.of(2025, 6, 1)));
+
+        for (BookingQuery query : queries) {
+            List<Booking> full = bookings.findPage(query, 0, Integer.MAX_VALUE).getBookings();
+            for (int check = 0; check < 50; check++) {
+                int offset = random.nextInt(full.size() + 10);
+                int limit = random.nextInt(200);
+                List<String> expected = ids(full.subList(Math.min(offset, full.size()),
+                        Math.min(offset + limit, full.size())));
+
+                BookingPage page = bookings.findPage(query, offset, limit);
+                assertEquals(full.size(), page.getTotal(), query.toString());
+                assertEquals(expected, ids(page.getBookings()), query + " at " + offset);
+                assertEquals(expected, ids(bookings.findWindow(query, offset, limit)), query + " at " + offset);
+            }
+        }
+    }
+
+    // Inserts, deletes, status changes and new dates, so index runs are added to, emptied and moved
+    private static void mutate(BookingRepository bookings, Random random) {
+        List<String> ids = new ArrayList<>();
+        bookings.forEach(booking -> ids.add(booking.getId()));
+
+        for (int i = 0; i < 3_000; i++) {
+            String id = ids.get(random.nextInt(ids.size()));
+            switch (random.nextInt(4)) {
+                case 0:
+                    if (bookings.delete(id)) {
+                        ids.remove(id);
+                    }
+                    break;
+                case 1:
+                    Booking created = copy(bookings.findById(id));
+                    created.setId("copy-" + i);
+                    assertTrue(bookings.insert(created));
+                    ids.add(created.getId());
+                    break;
+                case 2:
+                    BookingStatus status = BookingStatus.values()[random.nextInt(BookingStatus.values().length)];
+                    assertTrue(bookings.modify(id, existing -> {
+                        Booking changed = copy(existing);
+                        changed.setBookingStatus(status);
+                        return changed;
+                    }));
+                    break;
+                default:
+                    String date = LocalDate.of(2024, 1, 1).plusDays(random.nextInt(730)).toString();
+                    assertTrue(bookings.modify(id, existing -> {
+                        Booking changed = copy(existing);
+                        changed.setBookingDate(date);
+                        return changed;
+                    }));
+                    break;
+            }
+        }
+    }
+
+    private static List<String> ids(List<Booking> bookings) {
+        List<String> ids = new ArrayList<>();
+        for (Booking booking : bookings) {
+            ids.add(booking.getId());
+        }
+        return ids;
+    }
+
+    private static Booking copy(Booking source) {
+        Booking booking = new Booking();
+        booking.setId(source.getId());
+        booking.setTrekId(source.getTrekId());
+        booking.setTouristId(source.getTouristId());
+        booking.setGuideId(source.getGuideId());
+        booking.setBookingDate(source.getBookingDate());
+        booking.setBookingStatus(source.getBookingStatus());
+        booking.setPrice(source.getPrice());
+        booking.setDuration(source.getDuration());
+        booking.setHighRiskAcknowledged(source.isHighRiskAcknowledged());
+        return booking;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.nepaltourismmanagement.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many writers inserting and modifying records at once, with background
+ * compactions running, must not lose an update in memory or on disk.
+ */
+class FileRepositoryConcurrencyTest {
+
+    private static final int WRITERS = 64;
+    private static final int ROUNDS = 100;
+    private static final int SHARED_COUNTERS = 16;
+
+    @TempDir
+    Path dir;
+
+    // A named counter, stored as id|value
+    static final class Counter {
+        final String id;
+        final long value;
+
+        Counter(String id, long value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    static final class CounterRepository extends FileRepository<Counter> {
+        CounterRepository(Path file) {
+            super(file.toString());
+        }
+
+        @Override
+        protected Counter parse(RecordTokenizer fields) {
+            return new Counter(fields.getString(0), fields.getLong(1));
+        }
+
+        @Override
+        protected String format(Counter counter) {
+            return counter.id + "|" + counter.value;
+        }
+
+        @Override
+        protected String idOf(Counter counter) {
+            return counter.id;
+        }
+    }
+
+    // A writer's task for one phase of the test
+    private interface WriterTask {
+        void run(int writer) throws Exception;
+    }
+
+    @Test
+    void concurrentWritersLoseNoUpdates() throws Exception {
+        Path file = dir.resolve("counters.txt");
+        CounterRepository repository = new CounterRepository(file);
+        repository.load();
+
+        for (int i = 0; i < SHARED_COUNTERS; i++) {
+            assertTrue(repository.insert(new Counter(sharedId(i), 0)));
+        }
+
+        // Every writer inserts its own records and increments the shared counters, racing the others
+        runWriters(writer -> {
+            for (int round = 0; round < ROUNDS; round++) {
+                assertTrue(repository.insert(new Counter(ownId(writer, round), round)));
+                assertTrue(repository.modify(sharedId(writer + round),
+                        counter -> new Counter(counter.id, counter.value + 1)));
+            }
+        });
+
+        // Waits for a background compaction still running; the writes below then stay in the log
+        repository.compact();
+
+        runWriters(writer -> assertTrue(repository.modify(ownId(writer, 0),
+                counter -> new Counter(counter.id, counter.value + 1000))));
+
+        assertTrue(Files.exists(dir.resolve("counters.txt.log")), "the last writes should still be in the log");
+        assertCounters(repository);
+
+        // Replays the log on top of the snapshot
+        CounterRepository reloaded = new CounterRepository(file);
+        reloaded.load();
+        assertCounters(reloaded);
+    }
+
+    private void assertCounters(CounterRepository repository) {
+        assertEquals(SHARED_COUNTERS + WRITERS * ROUNDS, repository.size());
+
+        long[] expected = new long[SHARED_COUNTERS];
+        for (int writer = 0; writer < WRITERS; writer++) {
+            for (int round = 0; round < ROUNDS; round++) {
+                expected[(writer + round) % SHARED_COUNTERS]++;
+            }
+        }
+        for (int i = 0; i < SHARED_COUNTERS; i++) {
+            Counter counter = repository.findById(sharedId(i));
+            assertNotNull(counter, sharedId(i));
+            assertEquals(expected[i], counter.value, "increments lost on " + sharedId(i));
+        }
+
+        for (int writer = 0; writer < WRITERS; writer++) {
+            for (int round = 0; round < ROUNDS; round++) {
+                Counter counter = repository.findById(ownId(writer, round));
+                assertNotNull(counter, ownId(writer, round));
+                assertEquals(round == 0 ? 1000 : round, counter.value, ownId(writer, round));
+            }
+        }
+    }
+
+    // Run a task on every writer thread at once and fail on the first error
+    private static void runWriters(WriterTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                int id = writer;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    task.run(id);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String sharedId(int counter) {
+        return "shared-" + (counter % SHARED_COUNTERS);
+    }
+
+    private static String ownId(int writer, int round) {
+        return "writer-" + writer + "-" + round;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.nepaltourismmanagement.repository;
+
+import com.example.nepaltourismmanagement.models.Booking;
+import com.example.nepaltourismmanagement.models.BookingStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A snapshot that cannot be read must fail the load and leave the snapshot
+ * and its log untouched: no write may be logged or compacted on top of them.
+ */
+class FileRepositoryLoadTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void unreadableSnapshotFailsTheLoadAndRefusesWrites() throws Exception {
+        Path file = dir.resolve("bookings.dat");
+        Path log = dir.resolve("bookings.dat.log");
+
+        BookingRepository first = new BookingRepository(file.toString(), BookingRepository.Format.BINARY);
+        first.load();
+        assertTrue(first.insert(booking()));
+        assertTrue(first.insert(booking()));
+
+        // A snapshot with a bad header, next to a log that was never folded in
+        byte[] snapshot = "not a bookings file".getBytes();
+        Files.write(file, snapshot);
+        byte[] logged = Files.readAllBytes(log);
+
+        // Reloading the open repository and opening a new one must both fail
+        assertThrows(UncheckedIOException.class, first::load);
+        BookingRepository second = new BookingRepository(file.toString(), BookingRepository.Format.BINARY);
+        assertThrows(UncheckedIOException.class, second::load);
+
+        for (BookingRepository repository : List.of(first, second)) {
+            assertEquals(0, repository.size());
+            assertFalse(repository.insert(booking()));
+            assertEquals(-1, repository.modifyAll(List.of("missing"), existing -> existing));
+            repository.compact();
+            assertFalse(repository.replaceAll(List.of(booking()), List.of()));
+        }
+
+        assertArrayEquals(snapshot, Files.readAllBytes(file));
+        assertArrayEquals(logged, Files.readAllBytes(log));
+
+        // Once the snapshot is readable again, the logged bookings are all replayed
+        Files.delete(file);
+        BookingRepository repaired = new BookingRepository(file.toString(), BookingRepository.Format.BINARY);
+        assertEquals(2, repaired.load());
+        assertTrue(repaired.insert(booking()));
+        assertEquals(3, new BookingRepository(file.toString(), BookingRepository.Format.BINARY).load());
+    }
+
+    private static Booking booking() {
+        Booking booking = new Booking();
+        booking.setId(UUID.randomUUID().toString());
+        booking.setTrekId(UUID.randomUUID().toString());
+        booking.setTouristId(UUID.randomUUID().toString());
+        booking.setBookingDate("2025-10-01");
+        booking.setBookingStatus(BookingStatus.PENDING);
+        booking.setPrice(1500.0);
+        booking.setDuration(12);
+        return booking;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.nepaltourismmanagement.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * A position index must keep the order a LinkedHashSet keeps, through any mix
+ * of adds and removes, and read the same ids from every position on.
+ */
+class PositionIndexTest {
+
+    @Test
+    void readsFromAnyPositionLikeALinkedHashSet() {
+        PositionIndex index = new PositionIndex();
+        Set<String> expected = new LinkedHashSet<>();
+        Random random = new Random(11);
+
+        for (int round = 0; round < 20_000; round++) {
+            String id = "id-" + random.nextInt(3_000);
+            // Phases that mostly add and mostly remove, so the slots are both grown and packed
+            boolean adding = (round / 2_500) % 2 == 0 ? random.nextInt(4) != 0 : random.nextInt(4) == 0;
+            if (adding) {
+                assertEquals(expected.add(id), index.add(id));
+            } else {
+                assertEquals(expected.remove(id), index.remove(id));
+            }
+
+            if (round % 500 == 0) {
+                assertSameOrder(expected, index, random);
+            }
+        }
+        assertSameOrder(expected, index, random);
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertFalse(index.iterator(0).hasNext());
+    }
+
+    private static void assertSameOrder(Set<String> expected, PositionIndex index, Random random) {
+        List<String> ids = new ArrayList<>(expected);
+        assertEquals(ids.size(), index.size());
+        assertEquals(ids, new ArrayList<>(index));
+
+        for (int check = 0; check < 20; check++) {
+            int position = random.nextInt(ids.size() + 2);
+            List<String> read = new ArrayList<>();
+            Iterator<String> iterator = index.iterator(position);
+            while (iterator.hasNext()) {
+                read.add(iterator.next());
+            }
+            assertEquals(ids.subList(Math.min(position, ids.size()), ids.size()), read, "from " + position);
+        }
+    }
+}